@@ -0,0 +1,17 @@
+-- Migra bancos criados com GenerationType.IDENTITY para os sequences com allocationSize = 50.
+-- Em bancos novos o Hibernate (ddl-auto: update) já cria os sequences; este script é idempotente.
+
+DO $$
+DECLARE
+    tabela TEXT;
+BEGIN
+    FOREACH tabela IN ARRAY ARRAY['usuario', 'nicho', 'licitacao', 'proposta', 'notificacao'] LOOP
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I START WITH 1 INCREMENT BY 50', tabela || '_seq');
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', tabela);
+        -- folga de um bloco inteiro acima do maior id, para o otimizador pooled nunca reutilizar ids
+        EXECUTE format(
+            'SELECT setval(%L, (SELECT COALESCE(MAX(id), 0) FROM %I) + 50, false)',
+            tabela || '_seq', tabela
+        );
+    END LOOP;
+END $$;
@@ -0,0 +1,6 @@
+-- Índices de notificacao: (usuario_id, createdAt, id) atende a caixa paginada e a contagem por usuário.
+-- Remove os índices antigos, que o ddl-auto: update não apaga. Idempotente.
+
+CREATE INDEX IF NOT EXISTS idx_notificacao_usuario_created ON notificacao (usuario_id, created_at, id);
+DROP INDEX IF EXISTS idx_notificacao_usuario;
+DROP INDEX IF EXISTS idx_notificacao_lida;
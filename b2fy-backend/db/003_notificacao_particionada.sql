@@ -0,0 +1,47 @@
+-- Converte notificacao em tabela particionada por mês de created_at (UTC). A PK passa a ser (id, created_at),
+-- exigência do PostgreSQL para tabelas particionadas. Rodar uma vez, com a aplicação parada; depois disso
+-- NotificacaoParticaoService cria as partições futuras e aplica a retenção (b2fy.notificacoes.particoes.*).
+
+BEGIN;
+
+ALTER TABLE notificacao RENAME TO notificacao_antiga;
+ALTER TABLE notificacao_antiga RENAME CONSTRAINT notificacao_pkey TO notificacao_antiga_pkey;
+ALTER INDEX IF EXISTS idx_notificacao_usuario_created RENAME TO idx_notificacao_antiga_usuario_created;
+
+CREATE TABLE notificacao (
+    id           BIGINT                      NOT NULL,
+    usuario_id   BIGINT                      NOT NULL REFERENCES usuario (id),
+    licitacao_id BIGINT                      NOT NULL REFERENCES licitacao (id),
+    tipo         VARCHAR(30)                 NOT NULL,
+    mensagem     VARCHAR(500)                NOT NULL,
+    lida         BOOLEAN                     NOT NULL DEFAULT false,
+    created_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT notificacao_pkey PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_notificacao_usuario_created ON notificacao (usuario_id, created_at, id);
+
+-- Uma partição por mês, do mais antigo existente até três meses à frente
+DO $$
+DECLARE
+    primeira TIMESTAMPTZ := COALESCE((SELECT MIN(created_at) FROM notificacao_antiga), now());
+    mes DATE := date_trunc('month', primeira AT TIME ZONE 'UTC');
+    ultimo DATE := date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '3 months';
+BEGIN
+    WHILE mes <= ultimo LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF notificacao FOR VALUES FROM (%L) TO (%L)',
+            'notificacao_p' || to_char(mes, 'YYYYMM'),
+            mes::TEXT || ' 00:00:00+00',
+            (mes + INTERVAL '1 month')::DATE::TEXT || ' 00:00:00+00'
+        );
+        mes := mes + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO notificacao (id, usuario_id, licitacao_id, tipo, mensagem, lida, created_at)
+SELECT id, usuario_id, licitacao_id, tipo, mensagem, lida, created_at FROM notificacao_antiga;
+
+DROP TABLE notificacao_antiga;
+
+COMMIT;
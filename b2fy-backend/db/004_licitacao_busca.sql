@@ -0,0 +1,21 @@
+-- Busca textual em licitacao: coluna tsvector gerada (mantida pelo próprio PostgreSQL em todo INSERT/UPDATE)
+-- sobre nome (peso A) e descricao_produtos_servicos (peso B), com índice GIN. Requer PostgreSQL 12+.
+-- A configuração pt_busca é a portuguese com unaccent, para "licitacao" achar "licitação". Idempotente.
+
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = 'pt_busca') THEN
+        CREATE TEXT SEARCH CONFIGURATION pt_busca (COPY = portuguese);
+        ALTER TEXT SEARCH CONFIGURATION pt_busca
+            ALTER MAPPING FOR hword, hword_part, word WITH unaccent, portuguese_stem;
+    END IF;
+END $$;
+
+ALTER TABLE licitacao ADD COLUMN IF NOT EXISTS busca tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('pt_busca', coalesce(nome, '')), 'A') ||
+    setweight(to_tsvector('pt_busca', coalesce(descricao_produtos_servicos, '')), 'B')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_licitacao_busca ON licitacao USING GIN (busca);
@@ -0,0 +1,4 @@
+-- Novos tipos de notificação (BUSCA_SALVA, PRAZO_ENCERRADO). Bancos criados pelo ddl-auto têm um CHECK com os valores antigos do enum,
+-- que o ddl-auto: update não atualiza. Idempotente (a tabela criada por 003 não tem esse CHECK).
+
+ALTER TABLE notificacao DROP CONSTRAINT IF EXISTS notificacao_tipo_check;
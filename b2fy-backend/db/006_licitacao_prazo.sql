@@ -0,0 +1,7 @@
+-- Índice parcial para o job de prazos (PrazoLicitacaoService): só licitações abertas ainda não processadas.
+-- idx_licitacao_data_fechamento também atende a consulta, mas percorre desde o início todas as já processadas,
+-- que ficam na frente do intervalo; com o índice parcial o custo não cresce com o histórico.
+-- Rodar depois que a aplicação tiver criado a coluna prazo_encerrado_em. Idempotente.
+
+CREATE INDEX IF NOT EXISTS idx_licitacao_prazo_pendente ON licitacao (data_fechamento)
+    WHERE fase = 'ABERTA' AND prazo_encerrado_em IS NULL;
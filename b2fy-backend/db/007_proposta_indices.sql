@@ -0,0 +1,5 @@
+-- Índice (licitacao_id, fase, valor_com_taxa, id) das propostas ordenadas por valor; cobre também as consultas
+-- por (licitacao_id, fase). Remove o índice antigo, que o ddl-auto: update não apaga. Idempotente.
+
+CREATE INDEX IF NOT EXISTS idx_proposta_licitacao_fase_valor ON proposta (licitacao_id, fase, valor_com_taxa, id);
+DROP INDEX IF EXISTS idx_proposta_licitacao_fase;
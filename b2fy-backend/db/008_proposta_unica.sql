@@ -0,0 +1,14 @@
+-- Uma proposta por (licitacao_id, fornecedor_id, fase), garantida pelo banco (PropostaService.enviar detecta o envio
+-- repetido pela violação desta constraint). Em bases existentes, listar antes as duplicadas, que impedem a criação:
+--   SELECT licitacao_id, fornecedor_id, fase, array_agg(id ORDER BY id) FROM proposta
+--   GROUP BY licitacao_id, fornecedor_id, fase HAVING COUNT(*) > 1;
+-- e decidir qual manter. Também cria a coluna da Idempotency-Key, caso a aplicação ainda não tenha criado. Idempotente.
+
+ALTER TABLE proposta ADD COLUMN IF NOT EXISTS chave_idempotencia VARCHAR(100);
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_proposta_licitacao_fornecedor_fase') THEN
+        ALTER TABLE proposta ADD CONSTRAINT uk_proposta_licitacao_fornecedor_fase UNIQUE (licitacao_id, fornecedor_id, fase);
+    END IF;
+END $$;
@@ -0,0 +1,9 @@
+-- Coluna desertas de contador_empresa (licitações encerradas por prazo sem propostas) e recontagem de encerradas e
+-- desertas a partir de licitacao, com as definições de ContadorEmpresaRepository.recalcularFases. Idempotente.
+
+ALTER TABLE contador_empresa ADD COLUMN IF NOT EXISTS desertas BIGINT NOT NULL DEFAULT 0;
+
+UPDATE contador_empresa c SET
+    encerradas = (SELECT COUNT(*) FROM licitacao l WHERE l.empresa_id = c.empresa_id AND l.fase = 'ENCERRADA'),
+    desertas = (SELECT COUNT(*) FROM licitacao l WHERE l.empresa_id = c.empresa_id AND l.fase = 'ENCERRADA'
+        AND l.ganhador_id IS NULL);
@@ -0,0 +1,9 @@
+-- Coluna notificacoes_nao_lidas de usuario (contador do badge de não lidas, mantido por ContadorNaoLidasService) e
+-- contagem inicial a partir de notificacao. A reconciliação noturna aplica depois a janela de retenção. Idempotente;
+-- rodar com a aplicação parada.
+
+ALTER TABLE usuario ADD COLUMN IF NOT EXISTS notificacoes_nao_lidas BIGINT NOT NULL DEFAULT 0;
+
+UPDATE usuario u SET notificacoes_nao_lidas = (
+    SELECT COUNT(*) FROM notificacao n WHERE n.usuario_id = u.id AND n.lida = false
+);
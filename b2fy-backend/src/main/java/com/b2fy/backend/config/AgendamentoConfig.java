@@ -0,0 +1,15 @@
+package com.b2fy.backend.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Jobs {@code @Scheduled} (outbox de emails, fan-out, prazos, partições...). Ligados por padrão;
+ * {@code b2fy.agendamento.habilitado=false} deixa o nó só atendendo requisições (e os testes sem jobs concorrentes).
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "b2fy.agendamento.habilitado", havingValue = "true", matchIfMissing = true)
+public class AgendamentoConfig {
+}
@@ -0,0 +1,49 @@
+package com.b2fy.backend.controller;
+
+import com.b2fy.backend.dto.request.NovaBuscaSalvaRequest;
+import com.b2fy.backend.dto.response.BuscaSalvaResponse;
+import com.b2fy.backend.service.BuscaSalvaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Tag(name = "Buscas salvas")
+@RestController
+@RequestMapping("/buscas-salvas")
+@SecurityRequirement(name = "bearerAuth")
+public class BuscaSalvaController {
+
+    private final BuscaSalvaService buscaSalvaService;
+
+    public BuscaSalvaController(BuscaSalvaService buscaSalvaService) {
+        this.buscaSalvaService = buscaSalvaService;
+    }
+
+    @Operation(summary = "Listar minhas buscas salvas")
+    @GetMapping
+    @PreAuthorize("hasRole('FORNECEDOR')")
+    public ResponseEntity<List<BuscaSalvaResponse>> listar() {
+        return ResponseEntity.ok(buscaSalvaService.listar());
+    }
+
+    @Operation(summary = "Salvar busca (avisa quando uma licitação nova contém todas as palavras)")
+    @PostMapping
+    @PreAuthorize("hasRole('FORNECEDOR')")
+    public ResponseEntity<BuscaSalvaResponse> criar(@Valid @RequestBody NovaBuscaSalvaRequest request) {
+        return ResponseEntity.ok(buscaSalvaService.criar(request));
+    }
+
+    @Operation(summary = "Remover busca salva")
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('FORNECEDOR')")
+    public ResponseEntity<Void> remover(@PathVariable Long id) {
+        buscaSalvaService.remover(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,19 +1,33 @@
 package com.b2fy.backend.controller;
 
+import com.b2fy.backend.domain.FaseLicitacao;
+import com.b2fy.backend.domain.FaseProposta;
+import com.b2fy.backend.domain.StatusProposta;
 import com.b2fy.backend.dto.request.AtualizarLicitacaoRequest;
 import com.b2fy.backend.dto.request.NovaLicitacaoRequest;
+import com.b2fy.backend.dto.request.OrdemPropostas;
+import com.b2fy.backend.dto.response.ImportacaoLicitacoesResponse;
 import com.b2fy.backend.dto.response.LicitacaoResponse;
+import com.b2fy.backend.dto.response.PaginaResponse;
 import com.b2fy.backend.dto.response.PropostaResponse;
+import com.b2fy.backend.service.ExportacaoService;
+import com.b2fy.backend.service.ImportacaoLicitacaoService;
 import com.b2fy.backend.service.LicitacaoService;
 import com.b2fy.backend.service.UsuarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -23,10 +37,20 @@ import java.util.Map;
 @SecurityRequirement(name = "bearerAuth")
 public class LicitacaoController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
     private final LicitacaoService licitacaoService;
+    private final ExportacaoService exportacaoService;
+    private final ImportacaoLicitacaoService importacaoLicitacaoService;
 
-    public LicitacaoController(LicitacaoService licitacaoService) {
+    public LicitacaoController(
+        LicitacaoService licitacaoService,
+        ExportacaoService exportacaoService,
+        ImportacaoLicitacaoService importacaoLicitacaoService
+    ) {
         this.licitacaoService = licitacaoService;
+        this.exportacaoService = exportacaoService;
+        this.importacaoLicitacaoService = importacaoLicitacaoService;
     }
 
     @Operation(summary = "Criar nova licitação (empresa)")
@@ -36,18 +60,70 @@ public class LicitacaoController {
         return ResponseEntity.ok(licitacaoService.criar(request));
     }
 
-    @Operation(summary = "Listar licitações da empresa (dashboard)")
+    @Operation(summary = "Importar licitações em lote (JSON); tudo ou nada, com resultado por linha")
+    @PostMapping(value = "/importacao", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('EMPRESA')")
+    public ResponseEntity<ImportacaoLicitacoesResponse> importar(@RequestBody List<NovaLicitacaoRequest> licitacoes) {
+        return resultadoImportacao(importacaoLicitacaoService.importar(licitacoes));
+    }
+
+    @Operation(summary = "Importar licitações em lote (CSV com cabeçalho nome;descricao;dataFechamento;nichos)")
+    @PostMapping(value = "/importacao", consumes = "text/csv")
+    @PreAuthorize("hasRole('EMPRESA')")
+    public ResponseEntity<ImportacaoLicitacoesResponse> importarCsv(@RequestBody String csv) {
+        return resultadoImportacao(importacaoLicitacaoService.importarCsv(csv));
+    }
+
+    @Operation(summary = "Listar licitações da empresa (dashboard, paginado por cursor)")
     @GetMapping("/empresa")
     @PreAuthorize("hasRole('EMPRESA')")
-    public ResponseEntity<List<LicitacaoResponse>> listarPorEmpresa() {
-        return ResponseEntity.ok(licitacaoService.listarPorEmpresa());
+    public ResponseEntity<PaginaResponse<LicitacaoResponse>> listarPorEmpresa(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int limite,
+        @RequestParam(defaultValue = "false") boolean incluirTotal
+    ) {
+        return ResponseEntity.ok(licitacaoService.listarPorEmpresa(cursor, limite, incluirTotal));
     }
 
-    @Operation(summary = "Listar licitações do fornecedor (home)")
+    @Operation(summary = "Listar licitações do fornecedor (home, paginado por cursor)")
     @GetMapping("/fornecedor")
     @PreAuthorize("hasRole('FORNECEDOR')")
-    public ResponseEntity<List<LicitacaoResponse>> listarPorFornecedor() {
-        return ResponseEntity.ok(licitacaoService.listarPorFornecedor());
+    public ResponseEntity<PaginaResponse<LicitacaoResponse>> listarPorFornecedor(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int limite,
+        @RequestParam(defaultValue = "false") boolean incluirTotal
+    ) {
+        return ResponseEntity.ok(licitacaoService.listarPorFornecedor(cursor, limite, incluirTotal));
+    }
+
+    @Operation(summary = "Busca textual em nome e descrição (por relevância, paginada por cursor)")
+    @GetMapping("/busca")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<PaginaResponse<LicitacaoResponse>> buscarTexto(
+        @RequestParam String q,
+        @RequestParam(required = false) FaseLicitacao fase,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechamentoDe,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechamentoAte,
+        @RequestParam(required = false) String nicho,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int limite
+    ) {
+        return ResponseEntity.ok(licitacaoService.buscar(q, fase, fechamentoDe, fechamentoAte, nicho, cursor, limite));
+    }
+
+    @Operation(summary = "Exportar licitações da empresa em CSV")
+    @GetMapping("/exportacao")
+    @PreAuthorize("hasRole('EMPRESA')")
+    public ResponseEntity<StreamingResponseBody> exportarLicitacoes() {
+        return csv("licitacoes.csv", exportacaoService.exportarLicitacoes());
+    }
+
+    @Operation(summary = "Exportar propostas das licitações da empresa em CSV (todas ou de uma licitação)")
+    @GetMapping("/propostas/exportacao")
+    @PreAuthorize("hasRole('EMPRESA')")
+    public ResponseEntity<StreamingResponseBody> exportarPropostas(@RequestParam(required = false) Long licitacaoId) {
+        String arquivo = licitacaoId != null ? "propostas-licitacao-" + licitacaoId + ".csv" : "propostas.csv";
+        return csv(arquivo, exportacaoService.exportarPropostas(licitacaoId));
     }
 
     @Operation(summary = "Buscar licitação por ID")
@@ -64,11 +140,18 @@ public class LicitacaoController {
         return ResponseEntity.ok(licitacaoService.atualizar(id, request));
     }
 
-    @Operation(summary = "Listar propostas da fase atual da licitação")
+    @Operation(summary = "Listar propostas de uma fase (padrão: a atual), por menor valor ou mais recentes, paginado por cursor")
     @GetMapping("/{id}/propostas")
     @PreAuthorize("hasRole('EMPRESA')")
-    public ResponseEntity<List<PropostaResponse>> listarPropostas(@PathVariable Long id) {
-        return ResponseEntity.ok(licitacaoService.listarPropostasDaFaseAtual(id));
+    public ResponseEntity<PaginaResponse<PropostaResponse>> listarPropostas(
+        @PathVariable Long id,
+        @RequestParam(required = false) FaseProposta fase,
+        @RequestParam(required = false) StatusProposta status,
+        @RequestParam(defaultValue = "VALOR") OrdemPropostas ordem,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int limite
+    ) {
+        return ResponseEntity.ok(licitacaoService.listarPropostas(id, fase, status, ordem, cursor, limite));
     }
 
     @Operation(summary = "Definir ganhador da licitação")
@@ -92,4 +175,15 @@ public class LicitacaoController {
         licitacaoService.irParaSegundaFase(id, propostaIds);
         return ResponseEntity.noContent().build();
     }
+
+    private static ResponseEntity<ImportacaoLicitacoesResponse> resultadoImportacao(ImportacaoLicitacoesResponse resultado) {
+        return resultado.importadas() > 0 ? ResponseEntity.ok(resultado) : ResponseEntity.badRequest().body(resultado);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> csv(String arquivo, StreamingResponseBody corpo) {
+        return ResponseEntity.ok()
+            .contentType(TEXT_CSV)
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(arquivo).build().toString())
+            .body(corpo);
+    }
 }
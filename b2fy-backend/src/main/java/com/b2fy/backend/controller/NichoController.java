@@ -1,7 +1,7 @@
 package com.b2fy.backend.controller;
 
 import com.b2fy.backend.dto.response.NichoResponse;
-import com.b2fy.backend.repository.NichoRepository;
+import com.b2fy.backend.service.NichoCatalogoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -18,19 +18,15 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class NichoController {
 
-    private final NichoRepository nichoRepository;
+    private final NichoCatalogoService nichoCatalogoService;
 
-    public NichoController(NichoRepository nichoRepository) {
-        this.nichoRepository = nichoRepository;
+    public NichoController(NichoCatalogoService nichoCatalogoService) {
+        this.nichoCatalogoService = nichoCatalogoService;
     }
 
     @Operation(summary = "Listar todos os nichos cadastrados")
     @GetMapping
     public ResponseEntity<List<NichoResponse>> listar() {
-        return ResponseEntity.ok(
-            nichoRepository.findAll().stream()
-                .map(n -> new NichoResponse(n.getId(), n.getNome()))
-                .toList()
-        );
+        return ResponseEntity.ok(nichoCatalogoService.listar());
     }
 }
@@ -1,14 +1,17 @@
 package com.b2fy.backend.controller;
 
 import com.b2fy.backend.dto.response.NotificacaoResponse;
+import com.b2fy.backend.dto.response.PaginaResponse;
 import com.b2fy.backend.service.NotificacaoService;
+import com.b2fy.backend.service.NotificacaoStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
 import java.util.Map;
 
 @Tag(name = "Notificações")
@@ -18,15 +21,20 @@ import java.util.Map;
 public class NotificacaoController {
 
     private final NotificacaoService notificacaoService;
+    private final NotificacaoStreamService notificacaoStreamService;
 
-    public NotificacaoController(NotificacaoService notificacaoService) {
+    public NotificacaoController(NotificacaoService notificacaoService, NotificacaoStreamService notificacaoStreamService) {
         this.notificacaoService = notificacaoService;
+        this.notificacaoStreamService = notificacaoStreamService;
     }
 
-    @Operation(summary = "Listar minhas notificações")
+    @Operation(summary = "Listar minhas notificações (paginado por cursor, mais recentes primeiro)")
     @GetMapping
-    public ResponseEntity<List<NotificacaoResponse>> listar() {
-        return ResponseEntity.ok(notificacaoService.listarPorUsuario());
+    public ResponseEntity<PaginaResponse<NotificacaoResponse>> listar(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int limite
+    ) {
+        return ResponseEntity.ok(notificacaoService.listarPorUsuario(cursor, limite));
     }
 
     @Operation(summary = "Quantidade de notificações não lidas")
@@ -35,6 +43,19 @@ public class NotificacaoController {
         return ResponseEntity.ok(Map.of("count", notificacaoService.countNaoLidas()));
     }
 
+    @Operation(summary = "Stream (SSE) de novas notificações e da contagem de não lidas")
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return notificacaoStreamService.conectar(lastEventId);
+    }
+
+    @Operation(summary = "Marcar como lidas todas as notificações, ou as do cursor 'ate' para trás")
+    @PatchMapping("/lidas")
+    public ResponseEntity<Void> marcarComoLidas(@RequestParam(required = false) String ate) {
+        notificacaoService.marcarComoLidas(ate);
+        return ResponseEntity.noContent().build();
+    }
+
     @Operation(summary = "Marcar notificação como lida")
     @PatchMapping("/{id}/lida")
     public ResponseEntity<Void> marcarComoLida(@PathVariable Long id) {
@@ -1,7 +1,9 @@
 package com.b2fy.backend.controller;
 
 import com.b2fy.backend.dto.request.NovaPropostaRequest;
+import com.b2fy.backend.dto.response.PaginaResponse;
 import com.b2fy.backend.dto.response.PropostaResponse;
+import com.b2fy.backend.service.IdempotenciaService;
 import com.b2fy.backend.service.PropostaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -20,26 +22,37 @@ import java.util.List;
 public class PropostaController {
 
     private final PropostaService propostaService;
+    private final IdempotenciaService idempotenciaService;
 
-    public PropostaController(PropostaService propostaService) {
+    public PropostaController(PropostaService propostaService, IdempotenciaService idempotenciaService) {
         this.propostaService = propostaService;
+        this.idempotenciaService = idempotenciaService;
     }
 
-    @Operation(summary = "Enviar proposta (fornecedor) - fase 1 ou 2")
+    @Operation(summary = "Enviar proposta (fornecedor) - fase 1 ou 2; repetir com o mesmo Idempotency-Key devolve o resultado original")
     @PostMapping
     @PreAuthorize("hasRole('FORNECEDOR')")
     public ResponseEntity<PropostaResponse> enviar(
         @PathVariable Long licitacaoId,
         @Valid @RequestBody NovaPropostaRequest request,
-        @RequestParam(defaultValue = "false") boolean segundaFase
+        @RequestParam(defaultValue = "false") boolean segundaFase,
+        @RequestHeader(value = IdempotenciaService.HEADER, required = false) String chave
     ) {
-        return ResponseEntity.ok(propostaService.enviar(licitacaoId, request, segundaFase));
+        return ResponseEntity.ok(idempotenciaService.executar(
+            chave,
+            List.of("proposta", licitacaoId, segundaFase, request),
+            () -> propostaService.enviar(licitacaoId, request, segundaFase, chave)
+        ));
     }
 
-    @Operation(summary = "Listar todas as propostas da licitação (empresa)")
+    @Operation(summary = "Listar todas as propostas da licitação (empresa, mais recentes primeiro, paginado por cursor)")
     @GetMapping("/todas")
     @PreAuthorize("hasRole('EMPRESA')")
-    public ResponseEntity<List<PropostaResponse>> listarTodas(@PathVariable Long licitacaoId) {
-        return ResponseEntity.ok(propostaService.listarPorLicitacao(licitacaoId));
+    public ResponseEntity<PaginaResponse<PropostaResponse>> listarTodas(
+        @PathVariable Long licitacaoId,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int limite
+    ) {
+        return ResponseEntity.ok(propostaService.listarPorLicitacao(licitacaoId, cursor, limite));
     }
 }
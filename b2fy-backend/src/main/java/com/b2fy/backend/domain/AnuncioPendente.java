@@ -0,0 +1,64 @@
+package com.b2fy.backend.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Instant;
+
+/** Licitação nova aguardando o próximo email de resumo de um fornecedor que não recebe avisos imediatos. */
+@Entity
+@Table(name = "anuncio_pendente", indexes = {
+    @Index(name = "idx_anuncio_pendente_usuario", columnList = "usuario_id, id")
+})
+public class AnuncioPendente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "anuncio_pendente_seq")
+    @SequenceGenerator(name = "anuncio_pendente_seq", sequenceName = "anuncio_pendente_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private Usuario usuario;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "licitacao_id", nullable = false)
+    private Licitacao licitacao;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt = Instant.now();
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Usuario getUsuario() {
+        return usuario;
+    }
+
+    public void setUsuario(Usuario usuario) {
+        this.usuario = usuario;
+    }
+
+    public Licitacao getLicitacao() {
+        return licitacao;
+    }
+
+    public void setLicitacao(Licitacao licitacao) {
+        this.licitacao = licitacao;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,64 @@
+package com.b2fy.backend.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Instant;
+
+/** Termos que um fornecedor quer acompanhar: cada licitação nova que contém todos eles gera uma notificação. */
+@Entity
+@Table(name = "busca_salva", indexes = {
+    @Index(name = "idx_busca_salva_usuario", columnList = "usuario_id")
+})
+public class BuscaSalva {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "busca_salva_seq")
+    @SequenceGenerator(name = "busca_salva_seq", sequenceName = "busca_salva_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private Usuario usuario;
+
+    @NotBlank
+    @Column(nullable = false, length = 200)
+    private String termo;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt = Instant.now();
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Usuario getUsuario() {
+        return usuario;
+    }
+
+    public void setUsuario(Usuario usuario) {
+        this.usuario = usuario;
+    }
+
+    public String getTermo() {
+        return termo;
+    }
+
+    public void setTermo(String termo) {
+        this.termo = termo;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
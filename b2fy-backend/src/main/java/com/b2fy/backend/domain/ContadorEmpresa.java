@@ -0,0 +1,69 @@
+package com.b2fy.backend.domain;
+
+import jakarta.persistence.*;
+
+/**
+ * Contadores de licitações por fase de uma empresa, mantidos na mesma transação das mudanças de fase
+ * (ver ContadorEmpresaService) para o dashboard não precisar contar a tabela licitacao.
+ */
+@Entity
+@Table(name = "contador_empresa")
+public class ContadorEmpresa {
+
+    @Id
+    @Column(name = "empresa_id")
+    private Long empresaId;
+
+    @Column(nullable = false)
+    private long abertas;
+
+    @Column(nullable = false)
+    private long segundaFase;
+
+    @Column(nullable = false)
+    private long encerradas;
+
+    /** Parte de {@code encerradas} fechada por prazo sem propostas (sem ganhador). */
+    @Column(columnDefinition = "bigint not null default 0")
+    private long desertas;
+
+    public Long getEmpresaId() {
+        return empresaId;
+    }
+
+    public void setEmpresaId(Long empresaId) {
+        this.empresaId = empresaId;
+    }
+
+    public long getAbertas() {
+        return abertas;
+    }
+
+    public void setAbertas(long abertas) {
+        this.abertas = abertas;
+    }
+
+    public long getSegundaFase() {
+        return segundaFase;
+    }
+
+    public void setSegundaFase(long segundaFase) {
+        this.segundaFase = segundaFase;
+    }
+
+    public long getEncerradas() {
+        return encerradas;
+    }
+
+    public void setEncerradas(long encerradas) {
+        this.encerradas = encerradas;
+    }
+
+    public long getDesertas() {
+        return desertas;
+    }
+
+    public void setDesertas(long desertas) {
+        this.desertas = desertas;
+    }
+}
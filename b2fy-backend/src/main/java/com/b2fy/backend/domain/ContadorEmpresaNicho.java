@@ -0,0 +1,73 @@
+package com.b2fy.backend.domain;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/** Quantidade de licitações encerradas de uma empresa por nicho (gráfico "por nicho" do dashboard). */
+@Entity
+@Table(name = "contador_empresa_nicho")
+@IdClass(ContadorEmpresaNicho.Chave.class)
+public class ContadorEmpresaNicho {
+
+    @Id
+    @Column(name = "empresa_id")
+    private Long empresaId;
+
+    @Id
+    @Column(name = "nicho_id")
+    private Long nichoId;
+
+    @Column(nullable = false)
+    private long quantidade;
+
+    public Long getEmpresaId() {
+        return empresaId;
+    }
+
+    public void setEmpresaId(Long empresaId) {
+        this.empresaId = empresaId;
+    }
+
+    public Long getNichoId() {
+        return nichoId;
+    }
+
+    public void setNichoId(Long nichoId) {
+        this.nichoId = nichoId;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(long quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    public static class Chave implements Serializable {
+
+        private Long empresaId;
+        private Long nichoId;
+
+        public Chave() {}
+
+        public Chave(Long empresaId, Long nichoId) {
+            this.empresaId = empresaId;
+            this.nichoId = nichoId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Chave c)) return false;
+            return Objects.equals(empresaId, c.empresaId) && Objects.equals(nichoId, c.nichoId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(empresaId, nichoId);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.b2fy.backend.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Instant;
+
+/**
+ * Outbox de emails: gravado na mesma transação da operação que gera o email e enviado depois pelo
+ * EmailDispatcherService. Enquanto PENDENTE, {@code proximaTentativa} é quando a linha pode ser
+ * (re)tentada; durante o envio ela é empurrada para frente, funcionando como reserva.
+ */
+@Entity
+@Table(name = "email_pendente", indexes = {
+    @Index(name = "idx_email_pendente_status_tentativa", columnList = "status, proximaTentativa")
+})
+public class EmailPendente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_pendente_seq")
+    @SequenceGenerator(name = "email_pendente_seq", sequenceName = "email_pendente_seq", allocationSize = 50)
+    private Long id;
+
+    @NotBlank
+    @Column(nullable = false)
+    private String destinatario;
+
+    @NotBlank
+    @Column(nullable = false, length = 300)
+    private String assunto;
+
+    @NotBlank
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String corpo;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StatusEmail status = StatusEmail.PENDENTE;
+
+    @Column(nullable = false)
+    private int tentativas = 0;
+
+    @Column(nullable = false)
+    private Instant proximaTentativa = Instant.now();
+
+    @Column(length = 500)
+    private String ultimoErro;
+
+    private Instant enviadoEm;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt = Instant.now();
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDestinatario() {
+        return destinatario;
+    }
+
+    public void setDestinatario(String destinatario) {
+        this.destinatario = destinatario;
+    }
+
+    public String getAssunto() {
+        return assunto;
+    }
+
+    public void setAssunto(String assunto) {
+        this.assunto = assunto;
+    }
+
+    public String getCorpo() {
+        return corpo;
+    }
+
+    public void setCorpo(String corpo) {
+        this.corpo = corpo;
+    }
+
+    public StatusEmail getStatus() {
+        return status;
+    }
+
+    public void setStatus(StatusEmail status) {
+        this.status = status;
+    }
+
+    public int getTentativas() {
+        return tentativas;
+    }
+
+    public void setTentativas(int tentativas) {
+        this.tentativas = tentativas;
+    }
+
+    public Instant getProximaTentativa() {
+        return proximaTentativa;
+    }
+
+    public void setProximaTentativa(Instant proximaTentativa) {
+        this.proximaTentativa = proximaTentativa;
+    }
+
+    public String getUltimoErro() {
+        return ultimoErro;
+    }
+
+    public void setUltimoErro(String ultimoErro) {
+        this.ultimoErro = ultimoErro;
+    }
+
+    public Instant getEnviadoEm() {
+        return enviadoEm;
+    }
+
+    public void setEnviadoEm(Instant enviadoEm) {
+        this.enviadoEm = enviadoEm;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,127 @@
+package com.b2fy.backend.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Instant;
+
+/**
+ * Fan-out de licitações ainda não concluído, gravado na mesma transação que as publica e removido ao terminar.
+ * {@code etapa} e {@code ultimoDestinatarioId} são o cursor: cada lote de destinatários avança o cursor na mesma
+ * transação em que grava as notificações, então o fan-out retoma de onde parou depois de uma falha ou de um restart.
+ * {@code proximaTentativa} funciona como no outbox de emails: é empurrada para frente enquanto um nó processa a linha.
+ */
+@Entity
+@Table(name = "fanout_pendente", indexes = {
+    @Index(name = "idx_fanout_pendente_status_tentativa", columnList = "status, proximaTentativa")
+})
+public class FanoutPendente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fanout_pendente_seq")
+    @SequenceGenerator(name = "fanout_pendente_seq", sequenceName = "fanout_pendente_seq", allocationSize = 50)
+    private Long id;
+
+    /** Uma licitação, ou as de uma importação em lote (um único fan-out para todas). */
+    @NotNull
+    @Column(nullable = false, updatable = false)
+    private Long[] licitacaoIds;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EtapaFanout etapa = EtapaFanout.NICHOS;
+
+    @Column(nullable = false)
+    private long ultimoDestinatarioId = 0;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StatusFanout status = StatusFanout.PENDENTE;
+
+    /** Falhas seguidas do lote atual; volta a zero quando um lote é concluído. */
+    @Column(nullable = false)
+    private int tentativas = 0;
+
+    @Column(nullable = false)
+    private Instant proximaTentativa = Instant.now();
+
+    @Column(length = 500)
+    private String ultimoErro;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt = Instant.now();
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long[] getLicitacaoIds() {
+        return licitacaoIds;
+    }
+
+    public void setLicitacaoIds(Long[] licitacaoIds) {
+        this.licitacaoIds = licitacaoIds;
+    }
+
+    public EtapaFanout getEtapa() {
+        return etapa;
+    }
+
+    public void setEtapa(EtapaFanout etapa) {
+        this.etapa = etapa;
+    }
+
+    public long getUltimoDestinatarioId() {
+        return ultimoDestinatarioId;
+    }
+
+    public void setUltimoDestinatarioId(long ultimoDestinatarioId) {
+        this.ultimoDestinatarioId = ultimoDestinatarioId;
+    }
+
+    public StatusFanout getStatus() {
+        return status;
+    }
+
+    public void setStatus(StatusFanout status) {
+        this.status = status;
+    }
+
+    public int getTentativas() {
+        return tentativas;
+    }
+
+    public void setTentativas(int tentativas) {
+        this.tentativas = tentativas;
+    }
+
+    public Instant getProximaTentativa() {
+        return proximaTentativa;
+    }
+
+    public void setProximaTentativa(Instant proximaTentativa) {
+        this.proximaTentativa = proximaTentativa;
+    }
+
+    public String getUltimoErro() {
+        return ultimoErro;
+    }
+
+    public void setUltimoErro(String ultimoErro) {
+        this.ultimoErro = ultimoErro;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -13,13 +13,16 @@ import java.util.Set;
 @Entity
 @Table(name = "licitacao", indexes = {
     @Index(name = "idx_licitacao_empresa", columnList = "empresa_id"),
+    @Index(name = "idx_licitacao_empresa_created", columnList = "empresa_id, createdAt, id"),
+    @Index(name = "idx_licitacao_created", columnList = "createdAt, id"),
     @Index(name = "idx_licitacao_fase", columnList = "fase"),
     @Index(name = "idx_licitacao_data_fechamento", columnList = "dataFechamento")
 })
 public class Licitacao {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "licitacao_seq")
+    @SequenceGenerator(name = "licitacao_seq", sequenceName = "licitacao_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -38,27 +41,40 @@ public class Licitacao {
     @Column(nullable = false)
     private LocalDate dataFechamento;
 
+    /**
+     * Fase, ganhador e encerradaEm só mudam por UPDATE condicional na fase atual ({@link
+     * com.b2fy.backend.repository.LicitacaoRepository#mudarFase}, {@code encerrarComGanhador}): fora do UPDATE do
+     * flush, para salvar a entidade (ex.: edição) não sobrescrever uma transição concorrente com a fase lida antes.
+     */
     @NotNull
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false, length = 20)
+    @Column(nullable = false, length = 20, updatable = false)
     private FaseLicitacao fase = FaseLicitacao.ABERTA;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "ganhador_id")
+    @JoinColumn(name = "ganhador_id", updatable = false)
     private Usuario ganhador;
 
     @Column(nullable = false, updatable = false)
     private Instant createdAt = Instant.now();
 
     /** Data/hora em que a licitação foi encerrada (ganhador definido). */
-    @Column(name = "encerrada_em")
+    @Column(name = "encerrada_em", updatable = false)
     private Instant encerradaEm;
 
+    /**
+     * Data/hora em que o job de prazos viu a dataFechamento vencida; a primeira fase não aceita mais propostas.
+     * Como a fase, só é gravada pelos UPDATEs do repositório ({@code marcarPrazoEncerrado}, {@code encerrarDesertas}).
+     */
+    @Column(name = "prazo_encerrado_em", updatable = false)
+    private Instant prazoEncerradoEm;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "licitacao_nicho",
         joinColumns = @JoinColumn(name = "licitacao_id"),
-        inverseJoinColumns = @JoinColumn(name = "nicho_id")
+        inverseJoinColumns = @JoinColumn(name = "nicho_id"),
+        indexes = @Index(name = "idx_licitacao_nicho_nicho", columnList = "nicho_id, licitacao_id")
     )
     private Set<Nicho> nichos = new HashSet<>();
 
@@ -145,6 +161,14 @@ public class Licitacao {
         this.encerradaEm = encerradaEm;
     }
 
+    public Instant getPrazoEncerradoEm() {
+        return prazoEncerradoEm;
+    }
+
+    public void setPrazoEncerradoEm(Instant prazoEncerradoEm) {
+        this.prazoEncerradoEm = prazoEncerradoEm;
+    }
+
     public List<Proposta> getPropostas() {
         return propostas;
     }
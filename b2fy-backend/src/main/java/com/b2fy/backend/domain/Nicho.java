@@ -10,7 +10,8 @@ import java.util.Set;
 public class Nicho {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "nicho_seq")
+    @SequenceGenerator(name = "nicho_seq", sequenceName = "nicho_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -8,13 +8,13 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "notificacao", indexes = {
-    @Index(name = "idx_notificacao_usuario", columnList = "usuario_id"),
-    @Index(name = "idx_notificacao_lida", columnList = "lida")
+    @Index(name = "idx_notificacao_usuario_created", columnList = "usuario_id, createdAt, id")
 })
 public class Notificacao {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notificacao_seq")
+    @SequenceGenerator(name = "notificacao_seq", sequenceName = "notificacao_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -0,0 +1,8 @@
+package com.b2fy.backend.domain;
+
+/** Como o fornecedor recebe os emails de novas licitações nos seus nichos. */
+public enum PreferenciaEmail {
+    IMEDIATO,
+    RESUMO_HORARIO,
+    RESUMO_DIARIO
+}
@@ -9,12 +9,18 @@ import java.time.Instant;
 @Table(name = "proposta", indexes = {
     @Index(name = "idx_proposta_licitacao", columnList = "licitacao_id"),
     @Index(name = "idx_proposta_fornecedor", columnList = "fornecedor_id"),
-    @Index(name = "idx_proposta_licitacao_fase", columnList = "licitacao_id, fase")
+    @Index(name = "idx_proposta_licitacao_fase_valor", columnList = "licitacao_id, fase, valorComTaxa, id")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = Proposta.UK_FORNECEDOR_FASE, columnNames = {"licitacao_id", "fornecedor_id", "fase"})
 })
 public class Proposta {
 
+    /** Uma proposta por fornecedor e fase: é esta constraint, e não uma consulta prévia, que barra o envio repetido. */
+    public static final String UK_FORNECEDOR_FASE = "uk_proposta_licitacao_fornecedor_fase";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "proposta_seq")
+    @SequenceGenerator(name = "proposta_seq", sequenceName = "proposta_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -51,6 +57,10 @@ public class Proposta {
     @Column(nullable = false, updatable = false)
     private Instant createdAt = Instant.now();
 
+    /** Idempotency-Key do envio, para reconhecer a repetição da mesma requisição depois de uma violação da constraint. */
+    @Column(name = "chave_idempotencia", length = 100, updatable = false)
+    private String chaveIdempotencia;
+
     public Long getId() {
         return id;
     }
@@ -122,4 +132,12 @@ public class Proposta {
     public void setCreatedAt(Instant createdAt) {
         this.createdAt = createdAt;
     }
+
+    public String getChaveIdempotencia() {
+        return chaveIdempotencia;
+    }
+
+    public void setChaveIdempotencia(String chaveIdempotencia) {
+        this.chaveIdempotencia = chaveIdempotencia;
+    }
 }
@@ -0,0 +1,7 @@
+package com.b2fy.backend.domain;
+
+public enum StatusEmail {
+    PENDENTE,
+    ENVIADO,
+    FALHOU
+}
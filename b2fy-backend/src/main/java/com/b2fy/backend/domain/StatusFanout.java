@@ -0,0 +1,6 @@
+package com.b2fy.backend.domain;
+
+public enum StatusFanout {
+    PENDENTE,
+    FALHOU
+}
@@ -3,5 +3,7 @@ package com.b2fy.backend.domain;
 public enum TipoNotificacao {
     LICITACAO_ABERTA,
     SELECIONADO_2FASE,
-    GANHADOR
+    GANHADOR,
+    BUSCA_SALVA,
+    PRAZO_ENCERRADO
 }
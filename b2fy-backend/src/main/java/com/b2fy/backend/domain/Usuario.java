@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
@@ -16,7 +17,8 @@ import java.util.Set;
 public class Usuario {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuario_seq")
+    @SequenceGenerator(name = "usuario_seq", sequenceName = "usuario_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -60,13 +62,24 @@ public class Usuario {
     @JoinTable(
         name = "usuario_nicho",
         joinColumns = @JoinColumn(name = "usuario_id"),
-        inverseJoinColumns = @JoinColumn(name = "nicho_id")
+        inverseJoinColumns = @JoinColumn(name = "nicho_id"),
+        indexes = @Index(name = "idx_usuario_nicho_nicho", columnList = "nicho_id, usuario_id")
     )
     private Set<Nicho> nichos = new HashSet<>();
 
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'IMEDIATO'")
+    @Column(nullable = false, length = 20)
+    private PreferenciaEmail preferenciaEmail = PreferenciaEmail.IMEDIATO;
+
     @Column(nullable = false)
     private boolean ativo = true;
 
+    /** Notificações não lidas dentro da retenção; muda só por UPDATE relativo (ContadorNaoLidasService), nunca pela entidade. */
+    @Column(columnDefinition = "bigint not null default 0", insertable = false, updatable = false)
+    private long notificacoesNaoLidas;
+
     @Column(nullable = false, updatable = false)
     private Instant createdAt = Instant.now();
 
@@ -166,6 +179,14 @@ public class Usuario {
         this.fotoPerfilUrl = fotoPerfilUrl;
     }
 
+    public PreferenciaEmail getPreferenciaEmail() {
+        return preferenciaEmail;
+    }
+
+    public void setPreferenciaEmail(PreferenciaEmail preferenciaEmail) {
+        this.preferenciaEmail = preferenciaEmail;
+    }
+
     public Set<Nicho> getNichos() {
         return nichos;
     }
@@ -182,6 +203,10 @@ public class Usuario {
         this.ativo = ativo;
     }
 
+    public long getNotificacoesNaoLidas() {
+        return notificacoesNaoLidas;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
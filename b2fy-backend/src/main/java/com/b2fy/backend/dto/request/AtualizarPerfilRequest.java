@@ -1,5 +1,6 @@
 package com.b2fy.backend.dto.request;
 
+import com.b2fy.backend.domain.PreferenciaEmail;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -34,5 +35,7 @@ public record AtualizarPerfilRequest(
     List<@NotBlank String> nichos,
 
     @Size(max = 500)
-    String fotoPerfilUrl
+    String fotoPerfilUrl,
+
+    PreferenciaEmail preferenciaEmail
 ) {}
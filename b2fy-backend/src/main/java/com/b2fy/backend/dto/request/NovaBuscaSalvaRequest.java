@@ -0,0 +1,10 @@
+package com.b2fy.backend.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record NovaBuscaSalvaRequest(
+    @NotBlank(message = "Termo é obrigatório")
+    @Size(max = 200)
+    String termo
+) {}
@@ -0,0 +1,7 @@
+package com.b2fy.backend.dto.request;
+
+/** Ordenação da listagem de propostas: menor valor com taxa primeiro, ou mais recentes primeiro. */
+public enum OrdemPropostas {
+    VALOR,
+    RECENTES
+}
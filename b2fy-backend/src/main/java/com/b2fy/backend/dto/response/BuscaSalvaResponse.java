@@ -0,0 +1,5 @@
+package com.b2fy.backend.dto.response;
+
+import java.time.Instant;
+
+public record BuscaSalvaResponse(Long id, String termo, Instant createdAt) {}
@@ -3,10 +3,15 @@ package com.b2fy.backend.dto.response;
 import java.math.BigDecimal;
 import java.util.List;
 
+/**
+ * {@code encerradas} conta todas as licitações em fase ENCERRADA; {@code desertas} é a parte delas encerrada por prazo
+ * sem propostas (sem ganhador). {@code porNicho} conta só as concluídas com ganhador.
+ */
 public record DashboardEmpresaResponse(
     long abertas,
     long segundaFase,
     long encerradas,
+    long desertas,
     long atrasadas,
     List<NichoConcluidoItem> porNicho,
     BigDecimal gastoMesAtual,
@@ -0,0 +1,15 @@
+package com.b2fy.backend.dto.response;
+
+import java.util.List;
+
+/**
+ * Resultado de uma importação em lote, com uma entrada por linha (na ordem enviada, a partir de 1).
+ * A importação é tudo ou nada: se alguma linha tiver erro, {@code importadas} é 0 e nenhuma licitação é criada.
+ */
+public record ImportacaoLicitacoesResponse(
+    int importadas,
+    List<Linha> linhas
+) {
+
+    public record Linha(int linha, Long licitacaoId, List<String> erros) {}
+}
@@ -0,0 +1,13 @@
+package com.b2fy.backend.dto.response;
+
+import java.util.List;
+
+/**
+ * Página de uma listagem com paginação por cursor. {@code proximoCursor} é null na última página;
+ * {@code total} só é preenchido quando solicitado (evita COUNT(*) em toda página).
+ */
+public record PaginaResponse<T>(
+    List<T> itens,
+    String proximoCursor,
+    Long total
+) {}
@@ -1,5 +1,6 @@
 package com.b2fy.backend.dto.response;
 
+import com.b2fy.backend.domain.PreferenciaEmail;
 import com.b2fy.backend.domain.TipoUsuario;
 
 import java.util.List;
@@ -14,5 +15,6 @@ public record UsuarioResponse(
     String endereco,
     String estado,
     String fotoPerfilUrl,
-    List<String> nichos
+    List<String> nichos,
+    PreferenciaEmail preferenciaEmail
 ) {}
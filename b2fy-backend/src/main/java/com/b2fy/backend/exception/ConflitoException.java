@@ -0,0 +1,9 @@
+package com.b2fy.backend.exception;
+
+/** A operação colidiu com outra já concluída ou em andamento sobre o mesmo recurso (409). */
+public class ConflitoException extends RuntimeException {
+
+    public ConflitoException(String message) {
+        super(message);
+    }
+}
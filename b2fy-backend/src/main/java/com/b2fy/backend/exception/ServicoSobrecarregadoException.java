@@ -0,0 +1,16 @@
+package com.b2fy.backend.exception;
+
+/** Recurso saturado: a requisição é recusada na hora (503) e o cliente deve tentar de novo após {@code retryAfterSegundos}. */
+public class ServicoSobrecarregadoException extends RuntimeException {
+
+    private final long retryAfterSegundos;
+
+    public ServicoSobrecarregadoException(String message, long retryAfterSegundos) {
+        super(message);
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    public long getRetryAfterSegundos() {
+        return retryAfterSegundos;
+    }
+}
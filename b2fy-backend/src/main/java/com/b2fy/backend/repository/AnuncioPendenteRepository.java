@@ -0,0 +1,30 @@
+package com.b2fy.backend.repository;
+
+import com.b2fy.backend.domain.AnuncioPendente;
+import com.b2fy.backend.domain.PreferenciaEmail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AnuncioPendenteRepository extends JpaRepository<AnuncioPendente, Long> {
+
+    /** Página (keyset por id) de usuários com anúncios pendentes e uma das preferências informadas. */
+    @Query("SELECT DISTINCT a.usuario.id FROM AnuncioPendente a WHERE a.usuario.preferenciaEmail IN :preferencias " +
+        "AND a.usuario.id > :aposId ORDER BY a.usuario.id")
+    List<Long> findUsuarioIdsComAnuncios(
+        @Param("preferencias") Collection<PreferenciaEmail> preferencias,
+        @Param("aposId") Long aposId,
+        Pageable pageable
+    );
+
+    /** Trava os anúncios dos usuários; SKIP LOCKED evita que dois nós mandem o mesmo resumo. */
+    @Query(value = "SELECT * FROM anuncio_pendente WHERE usuario_id IN (:usuarioIds) ORDER BY usuario_id, id " +
+        "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<AnuncioPendente> reservarPorUsuarios(@Param("usuarioIds") Collection<Long> usuarioIds);
+}
@@ -0,0 +1,23 @@
+package com.b2fy.backend.repository;
+
+import com.b2fy.backend.domain.BuscaSalva;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BuscaSalvaRepository extends JpaRepository<BuscaSalva, Long> {
+
+    List<BuscaSalva> findByUsuarioIdOrderByCreatedAtDescIdDesc(Long usuarioId);
+
+    long countByUsuarioId(Long usuarioId);
+
+    /** Página (keyset por id) de todas as buscas salvas de fornecedores ativos, para carregar o índice. */
+    @Query("SELECT new com.b2fy.backend.repository.BuscaSalvaTermo(b.id, b.usuario.id, b.termo) FROM BuscaSalva b " +
+        "WHERE b.usuario.ativo = true AND b.id > :aposId ORDER BY b.id")
+    List<BuscaSalvaTermo> findTermosAposId(@Param("aposId") Long aposId, Pageable pageable);
+}
@@ -0,0 +1,4 @@
+package com.b2fy.backend.repository;
+
+/** Busca salva sem a entidade, para montar o índice de percolação em memória. */
+public record BuscaSalvaTermo(Long id, Long usuarioId, String termo) {}
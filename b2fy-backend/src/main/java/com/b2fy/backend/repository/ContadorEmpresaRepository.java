@@ -0,0 +1,75 @@
+package com.b2fy.backend.repository;
+
+import com.b2fy.backend.domain.ContadorEmpresa;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ContadorEmpresaRepository extends JpaRepository<ContadorEmpresa, Long> {
+
+    /** Soma os deltas atomicamente (upsert); a linha fica bloqueada até o fim da transação. */
+    @Modifying
+    @Query(value = "INSERT INTO contador_empresa (empresa_id, abertas, segunda_fase, encerradas, desertas) " +
+        "VALUES (:empresaId, :abertas, :segundaFase, :encerradas, :desertas) " +
+        "ON CONFLICT (empresa_id) DO UPDATE SET " +
+        "abertas = contador_empresa.abertas + EXCLUDED.abertas, " +
+        "segunda_fase = contador_empresa.segunda_fase + EXCLUDED.segunda_fase, " +
+        "encerradas = contador_empresa.encerradas + EXCLUDED.encerradas, " +
+        "desertas = contador_empresa.desertas + EXCLUDED.desertas", nativeQuery = true)
+    int somar(
+        @Param("empresaId") Long empresaId,
+        @Param("abertas") long abertas,
+        @Param("segundaFase") long segundaFase,
+        @Param("encerradas") long encerradas,
+        @Param("desertas") long desertas
+    );
+
+    @Modifying
+    @Query(value = "INSERT INTO contador_empresa_nicho (empresa_id, nicho_id, quantidade) " +
+        "SELECT :empresaId, ln.nicho_id, 1 FROM licitacao_nicho ln WHERE ln.licitacao_id = :licitacaoId " +
+        "ON CONFLICT (empresa_id, nicho_id) DO UPDATE SET quantidade = contador_empresa_nicho.quantidade + 1", nativeQuery = true)
+    int somarEncerradaPorNicho(@Param("empresaId") Long empresaId, @Param("licitacaoId") Long licitacaoId);
+
+    @Query("SELECT new com.b2fy.backend.repository.ContagemNicho(n.nome, c.quantidade) " +
+        "FROM ContadorEmpresaNicho c JOIN Nicho n ON n.id = c.nichoId WHERE c.empresaId = :empresaId AND c.quantidade > 0 ORDER BY n.nome")
+    List<ContagemNicho> findPorNicho(@Param("empresaId") Long empresaId);
+
+    // --- reconstrução a partir das tabelas de origem ---
+
+    @Query(value = "SELECT empresa_id FROM licitacao UNION SELECT empresa_id FROM contador_empresa", nativeQuery = true)
+    List<Long> findEmpresaIdsComLicitacoes();
+
+    /** Garante a linha e a bloqueia, serializando a reconstrução com os incrementos concorrentes da mesma empresa. */
+    @Modifying
+    @Query(value = "INSERT INTO contador_empresa (empresa_id, abertas, segunda_fase, encerradas, desertas) VALUES (:empresaId, 0, 0, 0, 0) " +
+        "ON CONFLICT (empresa_id) DO UPDATE SET abertas = contador_empresa.abertas", nativeQuery = true)
+    int bloquear(@Param("empresaId") Long empresaId);
+
+    /** Encerradas = fase ENCERRADA (com ou sem ganhador); desertas = as encerradas sem ganhador. */
+    @Modifying
+    @Query(value = "UPDATE contador_empresa c SET " +
+        "abertas = (SELECT COUNT(*) FROM licitacao l WHERE l.empresa_id = c.empresa_id AND l.fase = 'ABERTA'), " +
+        "segunda_fase = (SELECT COUNT(*) FROM licitacao l WHERE l.empresa_id = c.empresa_id AND l.fase = 'SEGUNDA_FASE'), " +
+        "encerradas = (SELECT COUNT(*) FROM licitacao l WHERE l.empresa_id = c.empresa_id AND l.fase = 'ENCERRADA'), " +
+        "desertas = (SELECT COUNT(*) FROM licitacao l WHERE l.empresa_id = c.empresa_id AND l.fase = 'ENCERRADA' " +
+        "AND l.ganhador_id IS NULL) " +
+        "WHERE c.empresa_id = :empresaId", nativeQuery = true)
+    int recalcularFases(@Param("empresaId") Long empresaId);
+
+    @Modifying
+    @Query(value = "DELETE FROM contador_empresa_nicho WHERE empresa_id = :empresaId", nativeQuery = true)
+    int limparPorNicho(@Param("empresaId") Long empresaId);
+
+    /** Histograma de concluídas: só as encerradas com ganhador, como em {@link #somarEncerradaPorNicho}. */
+    @Modifying
+    @Query(value = "INSERT INTO contador_empresa_nicho (empresa_id, nicho_id, quantidade) " +
+        "SELECT l.empresa_id, ln.nicho_id, COUNT(*) FROM licitacao l JOIN licitacao_nicho ln ON ln.licitacao_id = l.id " +
+        "WHERE l.empresa_id = :empresaId AND l.fase = 'ENCERRADA' AND l.ganhador_id IS NOT NULL " +
+        "GROUP BY l.empresa_id, ln.nicho_id", nativeQuery = true)
+    int recalcularPorNicho(@Param("empresaId") Long empresaId);
+}
@@ -0,0 +1,4 @@
+package com.b2fy.backend.repository;
+
+/** Quantidade associada a um nicho (resultado de consulta agregada). */
+public record ContagemNicho(String nichoNome, Long quantidade) {}
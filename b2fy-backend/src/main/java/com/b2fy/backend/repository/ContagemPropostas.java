@@ -0,0 +1,6 @@
+package com.b2fy.backend.repository;
+
+import com.b2fy.backend.domain.FaseProposta;
+
+/** Quantidade de propostas de uma licitação em uma fase (resultado de consulta agrupada). */
+public record ContagemPropostas(Long licitacaoId, FaseProposta fase, Long total) {}
@@ -0,0 +1,25 @@
+package com.b2fy.backend.repository;
+
+import com.b2fy.backend.domain.EmailPendente;
+import com.b2fy.backend.domain.StatusEmail;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface EmailPendenteRepository extends JpaRepository<EmailPendente, Long> {
+
+    /** Linhas prontas para envio; SKIP LOCKED deixa cada nó/dispatcher com um lote diferente. */
+    @Query(value = "SELECT * FROM email_pendente WHERE status = 'PENDENTE' AND proxima_tentativa <= :agora " +
+        "ORDER BY proxima_tentativa LIMIT :limite FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailPendente> reservarLote(@Param("agora") Instant agora, @Param("limite") int limite);
+
+    @Modifying
+    @Query("DELETE FROM EmailPendente e WHERE e.status = :status AND e.enviadoEm < :antesDe")
+    int deleteByStatusAndEnviadoEmBefore(@Param("status") StatusEmail status, @Param("antesDe") Instant antesDe);
+}
@@ -0,0 +1,30 @@
+package com.b2fy.backend.repository;
+
+import com.b2fy.backend.domain.FanoutPendente;
+import com.b2fy.backend.domain.StatusFanout;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface FanoutPendenteRepository extends JpaRepository<FanoutPendente, Long> {
+
+    /** O fan-out pronto mais antigo; SKIP LOCKED deixa cada nó/thread com uma linha diferente. */
+    @Query(value = "SELECT * FROM fanout_pendente WHERE status = 'PENDENTE' AND proxima_tentativa <= :agora " +
+        "ORDER BY proxima_tentativa LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<FanoutPendente> reservarProximo(@Param("agora") Instant agora);
+
+    /** Trava a linha para conferir o cursor antes de gravar um lote. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM FanoutPendente f WHERE f.id = :id")
+    Optional<FanoutPendente> findParaAtualizar(@Param("id") Long id);
+
+    @Query("SELECT new com.b2fy.backend.repository.ResumoFila(COUNT(f), MIN(f.createdAt)) FROM FanoutPendente f WHERE f.status = :status")
+    ResumoFila resumir(@Param("status") StatusFanout status);
+}
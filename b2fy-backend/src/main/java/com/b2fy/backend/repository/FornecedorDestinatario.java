@@ -0,0 +1,6 @@
+package com.b2fy.backend.repository;
+
+import com.b2fy.backend.domain.PreferenciaEmail;
+
+/** Dados mínimos de um fornecedor para notificação/email, sem carregar a entidade Usuario. */
+public record FornecedorDestinatario(Long id, String email, String nome, PreferenciaEmail preferenciaEmail) {}
@@ -0,0 +1,9 @@
+package com.b2fy.backend.repository;
+
+/** Id de licitação com a relevância calculada pela busca textual (projeção de consulta nativa). */
+public interface LicitacaoRelevancia {
+
+    Long getId();
+
+    Float getRelevancia();
+}
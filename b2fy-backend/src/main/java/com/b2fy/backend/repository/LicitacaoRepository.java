@@ -2,26 +2,134 @@ package com.b2fy.backend.repository;
 
 import com.b2fy.backend.domain.FaseLicitacao;
 import com.b2fy.backend.domain.Licitacao;
+import com.b2fy.backend.domain.Usuario;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface LicitacaoRepository extends JpaRepository<Licitacao, Long> {
 
-    List<Licitacao> findByEmpresaIdOrderByCreatedAtDesc(Long empresaId);
+    String LICITACOES_DO_FORNECEDOR = "SELECT lf.id FROM Licitacao lf JOIN lf.nichos n JOIN n.usuarios u WHERE u.id = :fornecedorId";
 
-    long countByEmpresaIdAndFase(Long empresaId, FaseLicitacao fase);
+    List<Licitacao> findByEmpresaIdOrderByCreatedAtDescIdDesc(Long empresaId, Pageable pageable);
+
+    @Query("SELECT l FROM Licitacao l WHERE l.empresa.id = :empresaId " +
+        "AND (l.createdAt < :createdAt OR (l.createdAt = :createdAt AND l.id < :id)) ORDER BY l.createdAt DESC, l.id DESC")
+    List<Licitacao> findPaginaByEmpresaId(
+        @Param("empresaId") Long empresaId,
+        @Param("createdAt") Instant createdAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    long countByEmpresaId(Long empresaId);
 
     long countByEmpresaIdAndDataFechamentoBeforeAndFaseNot(Long empresaId, LocalDate data, FaseLicitacao fase);
 
-    @Query("SELECT l FROM Licitacao l LEFT JOIN FETCH l.nichos WHERE l.empresa.id = :empresaId AND l.fase = :fase AND l.encerradaEm IS NOT NULL")
-    List<Licitacao> findByEmpresaIdAndFaseEncerradaWithNichos(@Param("empresaId") Long empresaId, @Param("fase") FaseLicitacao fase);
+    @Query("SELECT l FROM Licitacao l WHERE l.id IN (" + LICITACOES_DO_FORNECEDOR + ") ORDER BY l.createdAt DESC, l.id DESC")
+    List<Licitacao> findLicitacoesByFornecedorNichos(@Param("fornecedorId") Long fornecedorId, Pageable pageable);
+
+    @Query("SELECT l FROM Licitacao l WHERE l.id IN (" + LICITACOES_DO_FORNECEDOR + ") " +
+        "AND (l.createdAt < :createdAt OR (l.createdAt = :createdAt AND l.id < :id)) ORDER BY l.createdAt DESC, l.id DESC")
+    List<Licitacao> findPaginaByFornecedorNichos(
+        @Param("fornecedorId") Long fornecedorId,
+        @Param("createdAt") Instant createdAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    @Query("SELECT COUNT(l) FROM Licitacao l WHERE l.id IN (" + LICITACOES_DO_FORNECEDOR + ")")
+    long countByFornecedorNichos(@Param("fornecedorId") Long fornecedorId);
+
+    /**
+     * Busca textual (coluna {@code busca} e índice GIN de db/004_licitacao_busca.sql) restrita ao que o usuário pode ver:
+     * as licitações da própria empresa ou as de nichos que ele atende. Filtros nulos são ignorados; a página segue
+     * (relevancia, id) decrescentes a partir da posição do cursor, quando houver.
+     */
+    @Query(value = "SELECT r.id AS id, r.relevancia AS relevancia FROM (" +
+        "SELECT l.id, ts_rank(l.busca, q) AS relevancia FROM licitacao l, websearch_to_tsquery('pt_busca', :termo) q " +
+        "WHERE l.busca @@ q " +
+        "AND (l.empresa_id = :usuarioId OR EXISTS (SELECT 1 FROM licitacao_nicho ln JOIN usuario_nicho un ON un.nicho_id = ln.nicho_id " +
+        "WHERE ln.licitacao_id = l.id AND un.usuario_id = :usuarioId)) " +
+        "AND (CAST(:fase AS varchar) IS NULL OR l.fase = CAST(:fase AS varchar)) " +
+        "AND (CAST(:fechamentoDe AS date) IS NULL OR l.data_fechamento >= CAST(:fechamentoDe AS date)) " +
+        "AND (CAST(:fechamentoAte AS date) IS NULL OR l.data_fechamento <= CAST(:fechamentoAte AS date)) " +
+        "AND (CAST(:nichoId AS bigint) IS NULL OR EXISTS (SELECT 1 FROM licitacao_nicho ln2 " +
+        "WHERE ln2.licitacao_id = l.id AND ln2.nicho_id = CAST(:nichoId AS bigint)))" +
+        ") r " +
+        "WHERE CAST(:relevancia AS real) IS NULL OR r.relevancia < CAST(:relevancia AS real) " +
+        "OR (r.relevancia = CAST(:relevancia AS real) AND r.id < CAST(:id AS bigint)) " +
+        "ORDER BY r.relevancia DESC, r.id DESC LIMIT :limite", nativeQuery = true)
+    List<LicitacaoRelevancia> buscar(
+        @Param("termo") String termo,
+        @Param("usuarioId") Long usuarioId,
+        @Param("fase") String fase,
+        @Param("fechamentoDe") LocalDate fechamentoDe,
+        @Param("fechamentoAte") LocalDate fechamentoAte,
+        @Param("nichoId") Long nichoId,
+        @Param("relevancia") Float relevancia,
+        @Param("id") Long id,
+        @Param("limite") int limite
+    );
+
+    /**
+     * Reserva licitações abertas com a dataFechamento vencida e ainda não processadas, das mais antigas para as
+     * mais novas. SKIP LOCKED: com vários nós, cada um pega um lote diferente.
+     */
+    @Query(value = "SELECT id FROM licitacao WHERE fase = 'ABERTA' AND data_fechamento < :hoje AND prazo_encerrado_em IS NULL " +
+        "ORDER BY data_fechamento LIMIT :limite FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> reservarComPrazoVencido(@Param("hoje") LocalDate hoje, @Param("limite") int limite);
+
+    @Modifying
+    @Query("UPDATE Licitacao l SET l.prazoEncerradoEm = :agora WHERE l.id IN :ids")
+    int marcarPrazoEncerrado(@Param("ids") Collection<Long> ids, @Param("agora") Instant agora);
+
+    /** Encerra licitações que chegaram ao fim do prazo sem nenhuma proposta (desertas). */
+    @Modifying
+    @Query("UPDATE Licitacao l SET l.fase = :fase, l.encerradaEm = :agora, l.prazoEncerradoEm = :agora WHERE l.id IN :ids")
+    int encerrarDesertas(@Param("ids") Collection<Long> ids, @Param("fase") FaseLicitacao fase, @Param("agora") Instant agora);
+
+    boolean existsByIdAndEmpresaId(Long id, Long empresaId);
+
+    /**
+     * Licitação com trava compartilhada (FOR SHARE) para validar a fase ao receber uma proposta. Propostas simultâneas
+     * não esperam umas pelas outras; uma transição de fase espera as que estão em andamento, e as que chegam depois
+     * já leem a fase nova.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT l FROM Licitacao l WHERE l.id = :id")
+    Optional<Licitacao> findParaProposta(@Param("id") Long id);
+
+    /** Transição condicional: 0 quando a licitação não está mais em {@code atual} (outra requisição mudou antes). */
+    @Modifying
+    @Query("UPDATE Licitacao l SET l.fase = :nova WHERE l.id = :id AND l.fase = :atual")
+    int mudarFase(@Param("id") Long id, @Param("atual") FaseLicitacao atual, @Param("nova") FaseLicitacao nova);
+
+    /** Encerra com ganhador se a licitação ainda estiver em {@code atual}; 0 caso contrário. */
+    @Modifying
+    @Query("UPDATE Licitacao l SET l.fase = com.b2fy.backend.domain.FaseLicitacao.ENCERRADA, l.ganhador = :ganhador, " +
+        "l.encerradaEm = :agora WHERE l.id = :id AND l.fase = :atual")
+    int encerrarComGanhador(
+        @Param("id") Long id,
+        @Param("atual") FaseLicitacao atual,
+        @Param("ganhador") Usuario ganhador,
+        @Param("agora") Instant agora
+    );
 
-    @Query("SELECT DISTINCT l FROM Licitacao l JOIN l.nichos n JOIN n.usuarios u WHERE u.id = :fornecedorId ORDER BY l.createdAt DESC")
-    List<Licitacao> findLicitacoesByFornecedorNichos(@Param("fornecedorId") Long fornecedorId);
+    /** Se o usuário tem algum nicho em comum com a licitação (sem carregar nichos nem usuários). */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM licitacao_nicho ln JOIN usuario_nicho un ON un.nicho_id = ln.nicho_id " +
+        "WHERE ln.licitacao_id = :licitacaoId AND un.usuario_id = :usuarioId)", nativeQuery = true)
+    boolean usuarioAtendeNichos(@Param("licitacaoId") Long licitacaoId, @Param("usuarioId") Long usuarioId);
 }
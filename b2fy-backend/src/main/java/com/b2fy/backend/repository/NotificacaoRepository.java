@@ -1,18 +1,76 @@
 package com.b2fy.backend.repository;
 
 import com.b2fy.backend.domain.Notificacao;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
+/**
+ * As consultas por usuário recebem {@code desde} (início da retenção) como limite inferior de createdAt,
+ * para o PostgreSQL podar as partições mensais fora da janela.
+ */
 @Repository
 public interface NotificacaoRepository extends JpaRepository<Notificacao, Long> {
 
-    @Query("SELECT n FROM Notificacao n JOIN FETCH n.licitacao WHERE n.usuario.id = :usuarioId ORDER BY n.createdAt DESC")
-    List<Notificacao> findByUsuarioIdOrderByCreatedAtDesc(@Param("usuarioId") Long usuarioId);
+    @Query("SELECT n FROM Notificacao n JOIN FETCH n.licitacao WHERE n.usuario.id = :usuarioId AND n.createdAt >= :desde " +
+        "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notificacao> findByUsuarioIdOrderByCreatedAtDescIdDesc(
+        @Param("usuarioId") Long usuarioId,
+        @Param("desde") Instant desde,
+        Pageable pageable
+    );
 
-    long countByUsuarioIdAndLidaFalse(Long usuarioId);
+    @Query("SELECT n FROM Notificacao n JOIN FETCH n.licitacao WHERE n.usuario.id = :usuarioId AND n.createdAt >= :desde " +
+        "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notificacao> findPaginaByUsuarioId(
+        @Param("usuarioId") Long usuarioId,
+        @Param("desde") Instant desde,
+        @Param("createdAt") Instant createdAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    /**
+     * Notificações dos usuários a partir de {@code desde}, depois da posição (createdAt, id) informada, em ordem
+     * crescente: replay e sondagem do stream SSE. Sem posição anterior, passar {@code desde} e id 0.
+     */
+    @Query("SELECT n FROM Notificacao n JOIN FETCH n.licitacao WHERE n.usuario.id IN :usuarioIds AND n.createdAt >= :desde " +
+        "AND (n.createdAt > :createdAt OR (n.createdAt = :createdAt AND n.id > :id)) ORDER BY n.createdAt, n.id")
+    List<Notificacao> findRecentesByUsuarioIds(
+        @Param("usuarioIds") Collection<Long> usuarioIds,
+        @Param("desde") Instant desde,
+        @Param("createdAt") Instant createdAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    boolean existsByIdAndUsuarioId(Long id, Long usuarioId);
+
+    /** Condicional em {@code lida = false}: de duas leituras concorrentes, só uma atualiza (e desconta do contador). */
+    @Modifying
+    @Query("UPDATE Notificacao n SET n.lida = true WHERE n.id = :id AND n.usuario.id = :usuarioId AND n.lida = false " +
+        "AND n.createdAt >= :desde")
+    int marcarComoLida(@Param("id") Long id, @Param("usuarioId") Long usuarioId, @Param("desde") Instant desde);
+
+    @Modifying
+    @Query("UPDATE Notificacao n SET n.lida = true WHERE n.usuario.id = :usuarioId AND n.lida = false AND n.createdAt >= :desde")
+    int marcarTodasComoLidas(@Param("usuarioId") Long usuarioId, @Param("desde") Instant desde);
+
+    /** Marca como lidas as notificações na posição (createdAt, id) ou anteriores a ela. */
+    @Modifying
+    @Query("UPDATE Notificacao n SET n.lida = true WHERE n.usuario.id = :usuarioId AND n.lida = false AND n.createdAt >= :desde " +
+        "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id <= :id))")
+    int marcarComoLidasAte(
+        @Param("usuarioId") Long usuarioId,
+        @Param("desde") Instant desde,
+        @Param("createdAt") Instant createdAt,
+        @Param("id") Long id
+    );
 }
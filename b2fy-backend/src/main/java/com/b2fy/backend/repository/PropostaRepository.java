@@ -3,6 +3,7 @@ package com.b2fy.backend.repository;
 import com.b2fy.backend.domain.FaseProposta;
 import com.b2fy.backend.domain.Proposta;
 import com.b2fy.backend.domain.StatusProposta;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,18 +11,60 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PropostaRepository extends JpaRepository<Proposta, Long> {
 
-    List<Proposta> findByLicitacaoIdOrderByCreatedAtDesc(Long licitacaoId);
+    /** Todas as fases, das mais recentes para as mais antigas; {@code createdAt}/{@code id} nulos = primeira página. */
+    @Query("SELECT p FROM Proposta p JOIN FETCH p.fornecedor WHERE p.licitacao.id = :licitacaoId " +
+        "AND (CAST(:createdAt AS Instant) IS NULL OR p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+        "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Proposta> findTodasRecentes(
+        @Param("licitacaoId") Long licitacaoId,
+        @Param("createdAt") Instant createdAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    /**
+     * Mais baratas primeiro: percorre idx_proposta_licitacao_fase_valor em ordem, parando no limite. Filtros nulos
+     * ({@code status}, e {@code valor}/{@code id} na primeira página) são ignorados. Cada entrada ainda lê a linha da
+     * proposta (e o fornecedor do JOIN FETCH), então não há index-only scan.
+     */
+    @Query("SELECT p FROM Proposta p JOIN FETCH p.fornecedor WHERE p.licitacao.id = :licitacaoId AND p.fase = :fase " +
+        "AND (:status IS NULL OR p.status = :status) " +
+        "AND (CAST(:valor AS BigDecimal) IS NULL OR p.valorComTaxa > :valor OR (p.valorComTaxa = :valor AND p.id > :id)) " +
+        "ORDER BY p.valorComTaxa, p.id")
+    List<Proposta> findPorValor(
+        @Param("licitacaoId") Long licitacaoId,
+        @Param("fase") FaseProposta fase,
+        @Param("status") StatusProposta status,
+        @Param("valor") BigDecimal valor,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    /** Mais recentes primeiro, com os mesmos filtros opcionais de {@link #findPorValor}. */
+    @Query("SELECT p FROM Proposta p JOIN FETCH p.fornecedor WHERE p.licitacao.id = :licitacaoId AND p.fase = :fase " +
+        "AND (:status IS NULL OR p.status = :status) " +
+        "AND (CAST(:createdAt AS Instant) IS NULL OR p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+        "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Proposta> findRecentes(
+        @Param("licitacaoId") Long licitacaoId,
+        @Param("fase") FaseProposta fase,
+        @Param("status") StatusProposta status,
+        @Param("createdAt") Instant createdAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
 
-    List<Proposta> findByLicitacaoIdAndFase(Long licitacaoId, FaseProposta fase);
+    long countByLicitacaoIdAndFase(Long licitacaoId, FaseProposta fase);
 
-    @Query("SELECT p FROM Proposta p JOIN FETCH p.fornecedor WHERE p.licitacao.id = :licitacaoId AND p.fase = :fase")
-    List<Proposta> findByLicitacaoIdAndFaseWithFornecedor(@Param("licitacaoId") Long licitacaoId, @Param("fase") FaseProposta fase);
+    @Query("SELECT new com.b2fy.backend.repository.ContagemPropostas(p.licitacao.id, p.fase, COUNT(p)) FROM Proposta p WHERE p.licitacao.id IN :licitacaoIds GROUP BY p.licitacao.id, p.fase")
+    List<ContagemPropostas> countByLicitacaoIdsGroupByFase(@Param("licitacaoIds") Collection<Long> licitacaoIds);
 
     @Query("SELECT COALESCE(SUM(p.valorComTaxa), 0) FROM Proposta p WHERE p.status = 'GANHADORA' AND p.licitacao.empresa.id = :empresaId AND p.licitacao.encerradaEm >= :inicio AND p.licitacao.encerradaEm < :fim")
     BigDecimal sumValorComTaxaGanhadorasByEmpresaAndPeriod(@Param("empresaId") Long empresaId, @Param("inicio") Instant inicio, @Param("fim") Instant fim);
@@ -29,12 +72,12 @@ public interface PropostaRepository extends JpaRepository<Proposta, Long> {
     @Query("SELECT p FROM Proposta p JOIN FETCH p.licitacao WHERE p.status = :status AND p.licitacao.empresa.id = :empresaId AND p.licitacao.encerradaEm IS NOT NULL")
     List<Proposta> findByStatusAndLicitacaoEmpresaIdWithLicitacao(@Param("status") StatusProposta status, @Param("empresaId") Long empresaId);
 
-    @Query("SELECT p FROM Proposta p WHERE p.licitacao.id = :licitacaoId AND p.fornecedor.id = :fornecedorId AND p.fase = :fase")
+    @Query("SELECT p FROM Proposta p JOIN FETCH p.fornecedor WHERE p.licitacao.id = :licitacaoId AND p.fornecedor.id = :fornecedorId AND p.fase = :fase")
     Optional<Proposta> findByLicitacaoAndFornecedorAndFase(
         @Param("licitacaoId") Long licitacaoId,
         @Param("fornecedorId") Long fornecedorId,
         @Param("fase") FaseProposta fase
     );
 
-    boolean existsByLicitacaoIdAndFornecedorIdAndFase(Long licitacaoId, Long fornecedorId, FaseProposta fase);
+    boolean existsByLicitacaoIdAndFornecedorIdAndFaseAndStatus(Long licitacaoId, Long fornecedorId, FaseProposta fase, StatusProposta status);
 }
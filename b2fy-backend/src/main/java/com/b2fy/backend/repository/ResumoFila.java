@@ -0,0 +1,6 @@
+package com.b2fy.backend.repository;
+
+import java.time.Instant;
+
+/** Tamanho de uma fila persistida e a criação do item mais antigo (null quando vazia). */
+public record ResumoFila(Long total, Instant maisAntigo) {}
@@ -0,0 +1,4 @@
+package com.b2fy.backend.repository;
+
+/** Par usuário/nicho da tabela usuario_nicho, sem carregar as entidades. */
+public record UsuarioNicho(Long usuarioId, Long nichoId) {}
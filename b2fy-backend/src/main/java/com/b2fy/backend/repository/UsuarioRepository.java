@@ -2,11 +2,15 @@ package com.b2fy.backend.repository;
 
 import com.b2fy.backend.domain.TipoUsuario;
 import com.b2fy.backend.domain.Usuario;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +25,54 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
     boolean existsByEmail(String email);
 
-    @Query("SELECT DISTINCT u FROM Usuario u JOIN u.nichos n WHERE u.tipo = :tipo AND u.ativo = true AND n.nome IN :nomes")
-    List<Usuario> findFornecedoresByNichoNomes(@Param("tipo") TipoUsuario tipo, @Param("nomes") List<String> nomesNicho);
+    /** Página de destinatários (keyset por id) dos nichos informados, para o fan-out em lotes. */
+    @Query("SELECT DISTINCT new com.b2fy.backend.repository.FornecedorDestinatario(u.id, u.email, u.nome, u.preferenciaEmail) FROM Usuario u JOIN u.nichos n " +
+        "WHERE u.tipo = :tipo AND u.ativo = true AND n.id IN :nichoIds AND u.id > :aposId ORDER BY u.id")
+    List<FornecedorDestinatario> findDestinatariosByNichoIds(
+        @Param("tipo") TipoUsuario tipo,
+        @Param("nichoIds") Collection<Long> nichoIds,
+        @Param("aposId") Long aposId,
+        Pageable pageable
+    );
+
+    /** Dos usuários informados, os que atendem algum dos nichos (já avisados pelo fan-out por nicho). */
+    @Query("SELECT DISTINCT u.id FROM Usuario u JOIN u.nichos n WHERE u.id IN :usuarioIds AND n.id IN :nichoIds")
+    List<Long> findIdsQueAtendemNichos(
+        @Param("usuarioIds") Collection<Long> usuarioIds,
+        @Param("nichoIds") Collection<Long> nichoIds
+    );
+
+    /** Nichos (dentre os informados) atendidos por cada um dos usuários, para o fan-out de uma importação em lote. */
+    @Query("SELECT new com.b2fy.backend.repository.UsuarioNicho(u.id, n.id) FROM Usuario u JOIN u.nichos n " +
+        "WHERE u.id IN :usuarioIds AND n.id IN :nichoIds")
+    List<UsuarioNicho> findNichosDosUsuarios(
+        @Param("usuarioIds") Collection<Long> usuarioIds,
+        @Param("nichoIds") Collection<Long> nichoIds
+    );
+
+    @Query("SELECT u.notificacoesNaoLidas FROM Usuario u WHERE u.id = :id")
+    Optional<Long> findNotificacoesNaoLidas(@Param("id") Long id);
+
+    /**
+     * Soma {@code delta} ao contador de não lidas dos usuários. As linhas são travadas em ordem de id antes do UPDATE,
+     * para dois lotes com usuários em comum não se travarem em ordens opostas.
+     */
+    @Modifying
+    @Query(value = "UPDATE usuario SET notificacoes_nao_lidas = GREATEST(notificacoes_nao_lidas + :delta, 0) " +
+        "WHERE id IN (SELECT id FROM usuario WHERE id IN (:ids) ORDER BY id FOR NO KEY UPDATE)", nativeQuery = true)
+    int somarNotificacoesNaoLidas(@Param("ids") Collection<Long> ids, @Param("delta") long delta);
+
+    /** Página (keyset por id) dos usuários com contador de não lidas positivo, os únicos que a reconciliação corrige. */
+    @Query(value = "SELECT id FROM usuario WHERE notificacoes_nao_lidas > 0 AND id > :aposId ORDER BY id LIMIT :limite",
+        nativeQuery = true)
+    List<Long> findIdsComNotificacoesNaoLidas(@Param("aposId") Long aposId, @Param("limite") int limite);
+
+    /** Trava as linhas (em ordem de id) antes da recontagem, que precisa rodar num comando seguinte, com snapshot novo. */
+    @Query(value = "SELECT id FROM usuario WHERE id IN (:ids) ORDER BY id FOR NO KEY UPDATE", nativeQuery = true)
+    List<Long> bloquearContadores(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "UPDATE usuario u SET notificacoes_nao_lidas = (SELECT COUNT(*) FROM notificacao n " +
+        "WHERE n.usuario_id = u.id AND n.lida = false AND n.created_at >= :desde) WHERE u.id IN (:ids)", nativeQuery = true)
+    int recontarNotificacoesNaoLidas(@Param("ids") Collection<Long> ids, @Param("desde") Instant desde);
 }
@@ -6,16 +6,11 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.List;
-import java.util.stream.Collectors;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -39,16 +34,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         String token = authHeader.substring(7);
         try {
-            JwtClaims claims = jwtService.parseToken(token);
-            List<SimpleGrantedAuthority> authorities = claims.roles().stream()
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
-            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                claims.userId(),
+            TokenVerificado verificado = jwtService.verificar(token);
+            UsernamePasswordAuthenticationToken auth = UsernamePasswordAuthenticationToken.authenticated(
+                verificado.userId(),
                 null,
-                authorities
+                verificado.authorities()
             );
-            auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(auth);
         } catch (Exception ignored) {
             // invalid token - leave context empty
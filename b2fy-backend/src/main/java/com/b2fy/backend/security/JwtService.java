@@ -1,14 +1,27 @@
 package com.b2fy.backend.security;
 
 import com.b2fy.backend.domain.TipoUsuario;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.List;
 
@@ -17,13 +30,41 @@ public class JwtService {
 
     private final SecretKey secretKey;
     private final long expirationMs;
+    /** JwtParser é imutável e thread-safe: construído uma vez em vez de a cada requisição. */
+    private final JwtParser parser;
+    /** SHA-256 do token -> resultado da verificação; cada entrada expira junto com o token. */
+    private final Cache<String, TokenVerificado> verificados;
 
     public JwtService(
         @Value("${b2fy.jwt.secret}") String secret,
-        @Value("${b2fy.jwt.expiration-ms}") long expirationMs
+        @Value("${b2fy.jwt.expiration-ms}") long expirationMs,
+        @Value("${b2fy.jwt.cache.tamanho-maximo:10000}") long tamanhoMaximoCache,
+        MeterRegistry meterRegistry
     ) {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parser().verifyWith(secretKey).build();
+        this.verificados = Caffeine.newBuilder()
+            .maximumSize(tamanhoMaximoCache)
+            .expireAfter(new Expiry<String, TokenVerificado>() {
+                @Override
+                public long expireAfterCreate(String chave, TokenVerificado token, long currentTime) {
+                    return Math.max(0, Duration.between(Instant.now(), token.expiraEm()).toNanos());
+                }
+
+                @Override
+                public long expireAfterUpdate(String chave, TokenVerificado token, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String chave, TokenVerificado token, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verificados, "jwtVerificados");
     }
 
     public String generateToken(Long userId, String email, TipoUsuario tipo) {
@@ -40,11 +81,28 @@ public class JwtService {
     }
 
     public JwtClaims parseToken(String token) {
-        Claims claims = Jwts.parser()
-            .verifyWith(secretKey)
-            .build()
-            .parseSignedClaims(token)
-            .getPayload();
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        return toJwtClaims(claims);
+    }
+
+    /**
+     * Verifica o token (assinatura, expiração e claims) só na primeira vez que ele aparece; as requisições
+     * seguintes com o mesmo token reaproveitam o resultado. Tokens inválidos lançam exceção e não são guardados.
+     */
+    public TokenVerificado verificar(String token) {
+        return verificados.get(digest(token), chave -> {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            JwtClaims jwtClaims = toJwtClaims(claims);
+            List<GrantedAuthority> authorities = jwtClaims.roles().stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+            Date expiration = claims.getExpiration();
+            Instant expiraEm = expiration != null ? expiration.toInstant() : Instant.now().plusMillis(expirationMs);
+            return new TokenVerificado(jwtClaims.userId(), authorities, expiraEm);
+        });
+    }
+
+    private static JwtClaims toJwtClaims(Claims claims) {
         Long userId = Long.parseLong(claims.getSubject());
         String email = claims.get("email", String.class);
         TipoUsuario tipo = TipoUsuario.valueOf(claims.get("tipo", String.class));
@@ -52,4 +110,13 @@ public class JwtService {
         List<String> roles = claims.get("roles", List.class);
         return new JwtClaims(userId, email, tipo, roles != null ? roles : List.of());
     }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
 }
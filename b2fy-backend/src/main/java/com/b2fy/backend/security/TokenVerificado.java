@@ -0,0 +1,9 @@
+package com.b2fy.backend.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+/** Resultado imutável da verificação de um JWT, reaproveitado entre requisições até {@code expiraEm}. */
+public record TokenVerificado(Long userId, List<GrantedAuthority> authorities, Instant expiraEm) {}
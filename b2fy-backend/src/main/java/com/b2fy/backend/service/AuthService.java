@@ -7,15 +7,12 @@ import com.b2fy.backend.dto.request.LoginRequest;
 import com.b2fy.backend.dto.request.RegistroRequest;
 import com.b2fy.backend.dto.response.LoginResponse;
 import com.b2fy.backend.exception.BusinessException;
-import com.b2fy.backend.repository.NichoRepository;
 import com.b2fy.backend.repository.UsuarioRepository;
 import com.b2fy.backend.security.JwtService;
 import com.b2fy.backend.util.CpfCnpjUtil;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -24,19 +21,19 @@ import java.util.stream.Collectors;
 public class AuthService {
 
     private final UsuarioRepository usuarioRepository;
-    private final NichoRepository nichoRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final NichoCatalogoService nichoCatalogoService;
+    private final SenhaHashService senhaHashService;
     private final JwtService jwtService;
 
     public AuthService(
         UsuarioRepository usuarioRepository,
-        NichoRepository nichoRepository,
-        PasswordEncoder passwordEncoder,
+        NichoCatalogoService nichoCatalogoService,
+        SenhaHashService senhaHashService,
         JwtService jwtService
     ) {
         this.usuarioRepository = usuarioRepository;
-        this.nichoRepository = nichoRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.nichoCatalogoService = nichoCatalogoService;
+        this.senhaHashService = senhaHashService;
         this.jwtService = jwtService;
     }
 
@@ -50,7 +47,7 @@ public class AuthService {
         if (!usuario.isAtivo()) {
             throw new BusinessException("Usuário inativo.");
         }
-        if (!passwordEncoder.matches(request.senha(), usuario.getSenhaHash())) {
+        if (!senhaHashService.confere(request.senha(), usuario.getSenhaHash())) {
             throw new BusinessException("CPF/CNPJ ou senha inválidos.");
         }
         String token = jwtService.generateToken(usuario.getId(), usuario.getEmail(), usuario.getTipo());
@@ -78,21 +75,12 @@ public class AuthService {
         if (usuarioRepository.existsByEmail(request.email())) {
             throw new BusinessException("Email já cadastrado.");
         }
-        Set<Nicho> nichos = new HashSet<>();
-        for (String nomeNicho : request.nichos()) {
-            Nicho n = nichoRepository.findByNomeIgnoreCase(nomeNicho.trim())
-                .orElseGet(() -> {
-                    Nicho novo = new Nicho();
-                    novo.setNome(nomeNicho.trim());
-                    return nichoRepository.save(novo);
-                });
-            nichos.add(n);
-        }
+        Set<Nicho> nichos = nichoCatalogoService.resolver(request.nichos(), true);
         Usuario usuario = new Usuario();
         usuario.setTipo(request.tipo());
         usuario.setCpfOuCnpj(cpfOuCnpj);
         usuario.setEmail(request.email());
-        usuario.setSenhaHash(passwordEncoder.encode(request.senha()));
+        usuario.setSenhaHash(senhaHashService.codificar(request.senha()));
         usuario.setTelefone(request.telefone());
         usuario.setNome(request.nome());
         usuario.setCep(request.cep());
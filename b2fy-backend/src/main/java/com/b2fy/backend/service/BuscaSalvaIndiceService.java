@@ -0,0 +1,165 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.repository.BuscaSalvaRepository;
+import com.b2fy.backend.repository.BuscaSalvaTermo;
+import com.b2fy.backend.util.TextoUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Índice invertido em memória das buscas salvas, para percolar cada licitação nova contra todas elas numa passada,
+ * sem uma consulta por busca. Cada busca fica indexada só por um dos seus termos, a âncora: o que tem menos buscas
+ * ancoradas quando ela entra, para que termos comuns não tragam candidatas demais. Os termos do texto da licitação
+ * trazem as candidatas, que casam quando o texto contém todos os seus termos.
+ * Alterações feitas neste nó entram após o commit; o índice é recarregado periodicamente para pegar as dos outros nós.
+ */
+@Service
+public class BuscaSalvaIndiceService {
+
+    private static final Logger log = LoggerFactory.getLogger(BuscaSalvaIndiceService.class);
+
+    private final BuscaSalvaRepository buscaSalvaRepository;
+    private final Timer tempoPercolacao;
+
+    /** ReentrantLock: a recarga faz I/O e não deve prender a carrier de uma virtual thread. */
+    private final Lock trava = new ReentrantLock();
+
+    private volatile Indice indice = new Indice();
+
+    @Value("${b2fy.buscas-salvas.lote-carga:5000}")
+    private int loteCarga;
+
+    public BuscaSalvaIndiceService(BuscaSalvaRepository buscaSalvaRepository, MeterRegistry meterRegistry) {
+        this.buscaSalvaRepository = buscaSalvaRepository;
+        this.tempoPercolacao = Timer.builder("b2fy.buscas-salvas.percolacao")
+            .description("Tempo para percolar o texto de uma licitação contra todas as buscas salvas")
+            .register(meterRegistry);
+        Gauge.builder("b2fy.buscas-salvas.indexadas", this, s -> s.indice.porId.size())
+            .description("Buscas salvas no índice em memória")
+            .register(meterRegistry);
+    }
+
+    /** Usuários com alguma busca salva cujos termos aparecem todos no texto. */
+    public Set<Long> percolar(String texto) {
+        return tempoPercolacao.record(() -> {
+            Set<String> termosTexto = new HashSet<>(TextoUtil.termos(texto));
+            Indice atual = indice;
+            Set<Long> usuarioIds = new HashSet<>();
+            for (String termo : termosTexto) {
+                Map<Long, Consulta> candidatas = atual.porTermo.get(termo);
+                if (candidatas == null) continue;
+                for (Consulta c : candidatas.values()) {
+                    if (!usuarioIds.contains(c.usuarioId()) && termosTexto.containsAll(c.termos())) {
+                        usuarioIds.add(c.usuarioId());
+                    }
+                }
+            }
+            return usuarioIds;
+        });
+    }
+
+    public void adicionar(Long id, Long usuarioId, String termo) {
+        trava.lock();
+        try {
+            indice.adicionar(id, usuarioId, termo);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public void remover(Long id) {
+        trava.lock();
+        try {
+            indice.remover(id);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /** Remonta o índice a partir da tabela. Segura a trava durante a carga para não perder alterações concorrentes. */
+    @Scheduled(fixedDelayString = "${b2fy.buscas-salvas.recarga:PT5M}", initialDelayString = "${b2fy.buscas-salvas.recarga:PT5M}")
+    public void recarregar() {
+        trava.lock();
+        try {
+            Indice novo = new Indice();
+            Long aposId = 0L;
+            while (true) {
+                List<BuscaSalvaTermo> lote = buscaSalvaRepository.findTermosAposId(aposId, PageRequest.of(0, loteCarga));
+                for (BuscaSalvaTermo b : lote) {
+                    novo.adicionar(b.id(), b.usuarioId(), b.termo());
+                }
+                if (lote.size() < loteCarga) break;
+                aposId = lote.get(lote.size() - 1).id();
+            }
+            indice = novo;
+            log.debug("Índice de buscas salvas recarregado: {} busca(s)", novo.porId.size());
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarAoIniciar() {
+        recarregar();
+    }
+
+    /** A âncora fica guardada: a remoção precisa achá-la mesmo que as listas tenham mudado desde a inclusão. */
+    private record Consulta(Long id, Long usuarioId, List<String> termos, String ancora) {}
+
+    /** Leituras sem trava (mapas concorrentes); escritas sob {@link #trava}. */
+    private static final class Indice {
+
+        private final Map<Long, Consulta> porId = new ConcurrentHashMap<>();
+        private final Map<String, Map<Long, Consulta>> porTermo = new ConcurrentHashMap<>();
+
+        void adicionar(Long id, Long usuarioId, String termo) {
+            List<String> termos = TextoUtil.termos(termo);
+            if (termos.isEmpty()) return;
+            remover(id);
+            Consulta c = new Consulta(id, usuarioId, termos, ancora(termos));
+            porId.put(id, c);
+            porTermo.computeIfAbsent(c.ancora(), k -> new ConcurrentHashMap<>()).put(id, c);
+        }
+
+        /** O termo com menos buscas ancoradas até aqui; no empate, o mais longo. */
+        private String ancora(List<String> termos) {
+            String ancora = null;
+            int menor = Integer.MAX_VALUE;
+            for (String termo : termos) {
+                Map<Long, Consulta> doTermo = porTermo.get(termo);
+                int ancoradas = doTermo != null ? doTermo.size() : 0;
+                if (ancoradas < menor || (ancoradas == menor && termo.length() > ancora.length())) {
+                    ancora = termo;
+                    menor = ancoradas;
+                }
+            }
+            return ancora;
+        }
+
+        void remover(Long id) {
+            Consulta c = porId.remove(id);
+            if (c == null) return;
+            Map<Long, Consulta> doTermo = porTermo.get(c.ancora());
+            if (doTermo == null) return;
+            doTermo.remove(id);
+            if (doTermo.isEmpty()) porTermo.remove(c.ancora());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.domain.BuscaSalva;
+import com.b2fy.backend.domain.TipoUsuario;
+import com.b2fy.backend.domain.Usuario;
+import com.b2fy.backend.dto.request.NovaBuscaSalvaRequest;
+import com.b2fy.backend.dto.response.BuscaSalvaResponse;
+import com.b2fy.backend.exception.BusinessException;
+import com.b2fy.backend.repository.BuscaSalvaRepository;
+import com.b2fy.backend.repository.UsuarioRepository;
+import com.b2fy.backend.util.TextoUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/** Buscas salvas do fornecedor; o índice em memória só é alterado se a transação for confirmada. */
+@Service
+public class BuscaSalvaService {
+
+    private final BuscaSalvaRepository buscaSalvaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final BuscaSalvaIndiceService buscaSalvaIndiceService;
+
+    @Value("${b2fy.buscas-salvas.max-por-usuario:20}")
+    private int maxPorUsuario;
+
+    @Value("${b2fy.buscas-salvas.max-termos:8}")
+    private int maxTermos;
+
+    public BuscaSalvaService(
+        BuscaSalvaRepository buscaSalvaRepository,
+        UsuarioRepository usuarioRepository,
+        BuscaSalvaIndiceService buscaSalvaIndiceService
+    ) {
+        this.buscaSalvaRepository = buscaSalvaRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.buscaSalvaIndiceService = buscaSalvaIndiceService;
+    }
+
+    @Transactional(readOnly = true)
+    public List<BuscaSalvaResponse> listar() {
+        return buscaSalvaRepository.findByUsuarioIdOrderByCreatedAtDescIdDesc(UsuarioService.getCurrentUserId()).stream()
+            .map(this::toResponse)
+            .toList();
+    }
+
+    @Transactional
+    public BuscaSalvaResponse criar(NovaBuscaSalvaRequest request) {
+        Long usuarioId = UsuarioService.getCurrentUserId();
+        Usuario usuario = usuarioRepository.findById(usuarioId).orElseThrow(() -> new BusinessException("Usuário não encontrado."));
+        if (usuario.getTipo() != TipoUsuario.FORNECEDOR) {
+            throw new BusinessException("Apenas fornecedores podem salvar buscas.");
+        }
+        int termos = TextoUtil.termos(request.termo()).size();
+        if (termos == 0) {
+            throw new BusinessException("Informe ao menos uma palavra significativa.");
+        }
+        if (termos > maxTermos) {
+            throw new BusinessException("Uma busca salva pode ter no máximo " + maxTermos + " palavras.");
+        }
+        if (buscaSalvaRepository.countByUsuarioId(usuarioId) >= maxPorUsuario) {
+            throw new BusinessException("Limite de " + maxPorUsuario + " buscas salvas atingido.");
+        }
+        BuscaSalva busca = new BuscaSalva();
+        busca.setUsuario(usuario);
+        busca.setTermo(request.termo().trim());
+        busca = buscaSalvaRepository.save(busca);
+        Long id = busca.getId();
+        String termo = busca.getTermo();
+        aposCommit(() -> buscaSalvaIndiceService.adicionar(id, usuarioId, termo));
+        return toResponse(busca);
+    }
+
+    @Transactional
+    public void remover(Long id) {
+        BuscaSalva busca = buscaSalvaRepository.findById(id)
+            .filter(b -> b.getUsuario().getId().equals(UsuarioService.getCurrentUserId()))
+            .orElseThrow(() -> new BusinessException("Busca salva não encontrada."));
+        buscaSalvaRepository.delete(busca);
+        aposCommit(() -> buscaSalvaIndiceService.remover(id));
+    }
+
+    private static void aposCommit(Runnable acao) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    private BuscaSalvaResponse toResponse(BuscaSalva b) {
+        return new BuscaSalvaResponse(b.getId(), b.getTermo(), b.getCreatedAt());
+    }
+}
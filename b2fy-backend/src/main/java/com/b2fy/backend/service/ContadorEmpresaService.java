@@ -0,0 +1,108 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.domain.FaseLicitacao;
+import com.b2fy.backend.repository.ContadorEmpresaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Mantém os contadores do dashboard da empresa (tabelas contador_empresa e contador_empresa_nicho).
+ * Os incrementos rodam na transação que muda a fase da licitação; a reconstrução recalcula tudo
+ * a partir de licitacao/licitacao_nicho, uma empresa por transação. "Encerradas" é a contagem de fase ENCERRADA;
+ * "desertas" é a parte delas encerrada por prazo sem propostas (sem ganhador), e o histograma por nicho conta só as
+ * concluídas com ganhador. Os incrementos e a reconstrução usam as mesmas definições.
+ */
+@Service
+public class ContadorEmpresaService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContadorEmpresaService.class);
+
+    private final ContadorEmpresaRepository contadorEmpresaRepository;
+    private final DashboardCacheService dashboardCacheService;
+    private final TransactionTemplate transactionTemplate;
+
+    public ContadorEmpresaService(
+        ContadorEmpresaRepository contadorEmpresaRepository,
+        DashboardCacheService dashboardCacheService,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.contadorEmpresaRepository = contadorEmpresaRepository;
+        this.dashboardCacheService = dashboardCacheService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void licitacaoCriada(Long empresaId) {
+        contadorEmpresaRepository.somar(empresaId, 1, 0, 0, 0);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void licitacoesCriadas(Long empresaId, int quantidade) {
+        contadorEmpresaRepository.somar(empresaId, quantidade, 0, 0, 0);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void segundaFaseIniciada(Long empresaId) {
+        contadorEmpresaRepository.somar(empresaId, -1, 1, 0, 0);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void licitacaoEncerrada(Long empresaId, Long licitacaoId, FaseLicitacao faseAnterior) {
+        contadorEmpresaRepository.somar(
+            empresaId,
+            faseAnterior == FaseLicitacao.ABERTA ? -1 : 0,
+            faseAnterior == FaseLicitacao.SEGUNDA_FASE ? -1 : 0,
+            1,
+            0
+        );
+        contadorEmpresaRepository.somarEncerradaPorNicho(empresaId, licitacaoId);
+    }
+
+    /** Licitação aberta encerrada por prazo sem propostas: conta como encerrada e deserta, não entra no histograma por nicho. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void licitacaoDeserta(Long empresaId) {
+        contadorEmpresaRepository.somar(empresaId, -1, 0, 1, 1);
+    }
+
+    /**
+     * Recalcula os contadores de uma empresa. A linha de contador_empresa é bloqueada primeiro; como os
+     * incrementos também a bloqueiam até o commit, nenhuma mudança de fase concorrente é perdida ou contada duas vezes.
+     */
+    public void recalcular(Long empresaId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            contadorEmpresaRepository.bloquear(empresaId);
+            contadorEmpresaRepository.recalcularFases(empresaId);
+            contadorEmpresaRepository.limparPorNicho(empresaId);
+            contadorEmpresaRepository.recalcularPorNicho(empresaId);
+            dashboardCacheService.invalidar(empresaId);
+        });
+    }
+
+    /** Job de reparo: recompõe os contadores de todas as empresas a partir das tabelas de origem. */
+    @Scheduled(cron = "${b2fy.dashboard.reconciliacao-cron:0 30 3 * * *}")
+    public void reconciliarTodos() {
+        List<Long> empresaIds = contadorEmpresaRepository.findEmpresaIdsComLicitacoes();
+        for (Long empresaId : empresaIds) {
+            recalcular(empresaId);
+        }
+        log.info("Contadores do dashboard reconciliados para {} empresa(s)", empresaIds.size());
+    }
+
+    /** Primeira subida com as tabelas de contadores vazias: popula a partir do histórico existente. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void popularSeVazio() {
+        if (contadorEmpresaRepository.count() == 0) {
+            reconciliarTodos();
+        }
+    }
+}
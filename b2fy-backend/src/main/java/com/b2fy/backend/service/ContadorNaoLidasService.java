@@ -0,0 +1,113 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.repository.UsuarioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Contagem de notificações não lidas por usuário, guardada em usuario.notificacoes_nao_lidas. Os ajustes rodam na
+ * transação que cria ou marca as notificações, então a ordem entre eles e as leituras é a do banco, igual em todos os
+ * nós; o badge é uma leitura pela PK, sem tocar em notificacao. A reconciliação recompõe os contadores positivos
+ * depois da manutenção das partições, quando notificações saem da janela de retenção.
+ */
+@Service
+public class ContadorNaoLidasService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContadorNaoLidasService.class);
+
+    private final UsuarioRepository usuarioRepository;
+    private final NotificacaoParticaoService notificacaoParticaoService;
+    private final TransactionTemplate transactionTemplate;
+    private final int loteReconciliacao;
+
+    public ContadorNaoLidasService(
+        UsuarioRepository usuarioRepository,
+        NotificacaoParticaoService notificacaoParticaoService,
+        PlatformTransactionManager transactionManager,
+        @Value("${b2fy.notificacoes.nao-lidas.lote-reconciliacao:500}") int loteReconciliacao
+    ) {
+        this.usuarioRepository = usuarioRepository;
+        this.notificacaoParticaoService = notificacaoParticaoService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.loteReconciliacao = loteReconciliacao;
+    }
+
+    public long obter(Long usuarioId) {
+        return usuarioRepository.findNotificacoesNaoLidas(usuarioId).orElse(0L);
+    }
+
+    /**
+     * Uma notificação por item; usuários com a mesma quantidade são somados num único UPDATE. Com mais de um UPDATE,
+     * as linhas são travadas antes, todas em ordem de id, como na recontagem, para as duas não se travarem mutuamente.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void notificacoesCriadas(Collection<Long> usuarioIds) {
+        Map<Long, Long> porUsuario = usuarioIds.stream()
+            .collect(Collectors.groupingBy(Function.identity(), TreeMap::new, Collectors.counting()));
+        Map<Long, List<Long>> porQuantidade = new TreeMap<>();
+        porUsuario.forEach((usuarioId, quantidade) ->
+            porQuantidade.computeIfAbsent(quantidade, q -> new ArrayList<>()).add(usuarioId));
+        if (porQuantidade.size() > 1) {
+            usuarioRepository.bloquearContadores(porUsuario.keySet());
+        }
+        porQuantidade.forEach((quantidade, ids) -> usuarioRepository.somarNotificacoesNaoLidas(ids, quantidade));
+    }
+
+    /**
+     * Trava o contador do usuário antes de marcar notificações como lidas: assim toda transação pega primeiro a linha
+     * de usuario e só depois as de notificacao, e duas marcações em lote do mesmo usuário não se travam mutuamente.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void travar(Long usuarioId) {
+        usuarioRepository.bloquearContadores(List.of(usuarioId));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void notificacoesLidas(Long usuarioId, int quantidade) {
+        usuarioRepository.somarNotificacoesNaoLidas(List.of(usuarioId), -quantidade);
+    }
+
+    /**
+     * Reconta um lote de usuários a partir de notificacao. As linhas são travadas num comando e recontadas no
+     * seguinte, com snapshot novo: um ajuste concorrente ou já está na contagem ou espera a trava e soma depois.
+     */
+    public void recontar(Collection<Long> usuarioIds) {
+        Instant desde = notificacaoParticaoService.inicioRetencao();
+        transactionTemplate.executeWithoutResult(status -> {
+            usuarioRepository.bloquearContadores(new TreeSet<>(usuarioIds));
+            usuarioRepository.recontarNotificacoesNaoLidas(usuarioIds, desde);
+        });
+    }
+
+    /** Só contadores positivos podem estar acima do real: os ajustes são transacionais e só a retenção os desvia. */
+    @Scheduled(cron = "${b2fy.notificacoes.nao-lidas.reconciliacao-cron:0 30 4 * * *}")
+    public void reconciliar() {
+        long aposId = 0L;
+        int total = 0;
+        while (true) {
+            List<Long> lote = usuarioRepository.findIdsComNotificacoesNaoLidas(aposId, loteReconciliacao);
+            if (lote.isEmpty()) break;
+            recontar(lote);
+            total += lote.size();
+            aposId = lote.get(lote.size() - 1);
+        }
+        log.info("Contadores de não lidas reconciliados para {} usuário(s)", total);
+    }
+}
@@ -0,0 +1,78 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.dto.response.DashboardEmpresaResponse;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Cache do dashboard por empresa, limitado por tamanho e TTL (o TTL cobre "atrasadas" e o gasto do mês,
+ * que mudam com a data). As escritas que alteram o dashboard chamam {@link #invalidar} e a remoção
+ * acontece após o commit, para uma leitura concorrente não recolocar o valor antigo.
+ * Acertos, falhas e remoções ficam em cache.* (cache=dashboardEmpresa) no actuator.
+ */
+@Service
+public class DashboardCacheService {
+
+    private final AsyncCache<Long, DashboardEmpresaResponse> cache;
+
+    public DashboardCacheService(
+        MeterRegistry meterRegistry,
+        @Value("${b2fy.dashboard.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+        @Value("${b2fy.dashboard.cache.ttl:5m}") Duration ttl
+    ) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(tamanhoMaximo)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "dashboardEmpresa");
+    }
+
+    /**
+     * Só um cálculo por empresa por vez: o primeiro a errar o cache instala um future e calcula fora do lock
+     * do mapa; os demais esperam esse future (espera que não prende virtual threads). Um {@link #invalidar}
+     * durante o cálculo remove o future, e o resultado antigo não volta para o cache.
+     */
+    public DashboardEmpresaResponse obter(Long empresaId, Function<Long, DashboardEmpresaResponse> calcular) {
+        CompletableFuture<DashboardEmpresaResponse> novo = new CompletableFuture<>();
+        CompletableFuture<DashboardEmpresaResponse> futuro = cache.get(empresaId, (id, executor) -> novo);
+        if (futuro == novo) {
+            try {
+                novo.complete(calcular.apply(empresaId));
+            } catch (RuntimeException e) {
+                novo.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    public void invalidar(Long empresaId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.synchronous().invalidate(empresaId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.synchronous().invalidate(empresaId);
+            }
+        });
+    }
+}
@@ -1,10 +1,11 @@
 package com.b2fy.backend.service;
 
+import com.b2fy.backend.domain.ContadorEmpresa;
 import com.b2fy.backend.domain.FaseLicitacao;
-import com.b2fy.backend.domain.Nicho;
 import com.b2fy.backend.domain.Proposta;
 import com.b2fy.backend.domain.StatusProposta;
 import com.b2fy.backend.dto.response.DashboardEmpresaResponse;
+import com.b2fy.backend.repository.ContadorEmpresaRepository;
 import com.b2fy.backend.repository.LicitacaoRepository;
 import com.b2fy.backend.repository.PropostaRepository;
 import org.springframework.stereotype.Service;
@@ -23,32 +24,34 @@ public class DashboardService {
 
     private final LicitacaoRepository licitacaoRepository;
     private final PropostaRepository propostaRepository;
+    private final ContadorEmpresaRepository contadorEmpresaRepository;
+    private final DashboardCacheService dashboardCacheService;
 
-    public DashboardService(LicitacaoRepository licitacaoRepository, PropostaRepository propostaRepository) {
+    public DashboardService(
+        LicitacaoRepository licitacaoRepository,
+        PropostaRepository propostaRepository,
+        ContadorEmpresaRepository contadorEmpresaRepository,
+        DashboardCacheService dashboardCacheService
+    ) {
         this.licitacaoRepository = licitacaoRepository;
         this.propostaRepository = propostaRepository;
+        this.contadorEmpresaRepository = contadorEmpresaRepository;
+        this.dashboardCacheService = dashboardCacheService;
     }
 
     @Transactional(readOnly = true)
     public DashboardEmpresaResponse dashboardEmpresa() {
         Long empresaId = UsuarioService.getCurrentUserId();
+        return dashboardCacheService.obter(empresaId, this::calcular);
+    }
+
+    private DashboardEmpresaResponse calcular(Long empresaId) {
         LocalDate hoje = LocalDate.now();
 
-        long abertas = licitacaoRepository.countByEmpresaIdAndFase(empresaId, FaseLicitacao.ABERTA);
-        long segundaFase = licitacaoRepository.countByEmpresaIdAndFase(empresaId, FaseLicitacao.SEGUNDA_FASE);
-        long encerradas = licitacaoRepository.countByEmpresaIdAndFase(empresaId, FaseLicitacao.ENCERRADA);
+        ContadorEmpresa contador = contadorEmpresaRepository.findById(empresaId).orElseGet(ContadorEmpresa::new);
         long atrasadas = licitacaoRepository.countByEmpresaIdAndDataFechamentoBeforeAndFaseNot(empresaId, hoje, FaseLicitacao.ENCERRADA);
-
-        List<com.b2fy.backend.domain.Licitacao> licitacoesEncerradas = licitacaoRepository.findByEmpresaIdAndFaseEncerradaWithNichos(empresaId, FaseLicitacao.ENCERRADA);
-        Map<String, Long> nichoCount = new HashMap<>();
-        for (com.b2fy.backend.domain.Licitacao l : licitacoesEncerradas) {
-            for (Nicho n : l.getNichos()) {
-                nichoCount.merge(n.getNome(), 1L, Long::sum);
-            }
-        }
-        List<DashboardEmpresaResponse.NichoConcluidoItem> porNicho = nichoCount.entrySet().stream()
-            .map(e -> new DashboardEmpresaResponse.NichoConcluidoItem(e.getKey(), e.getValue()))
-            .sorted(Comparator.comparing(DashboardEmpresaResponse.NichoConcluidoItem::nichoNome))
+        List<DashboardEmpresaResponse.NichoConcluidoItem> porNicho = contadorEmpresaRepository.findPorNicho(empresaId).stream()
+            .map(c -> new DashboardEmpresaResponse.NichoConcluidoItem(c.nichoNome(), c.quantidade()))
             .collect(Collectors.toList());
 
         ZonedDateTime inicioMes = hoje.withDayOfMonth(1).atStartOfDay(ZoneId.systemDefault());
@@ -76,6 +79,6 @@ public class DashboardService {
             })
             .collect(Collectors.toList());
 
-        return new DashboardEmpresaResponse(abertas, segundaFase, encerradas, atrasadas, porNicho, gastoMesAtual, historicoGastos);
+        return new DashboardEmpresaResponse(contador.getAbertas(), contador.getSegundaFase(), contador.getEncerradas(), contador.getDesertas(), atrasadas, porNicho, gastoMesAtual, historicoGastos);
     }
 }
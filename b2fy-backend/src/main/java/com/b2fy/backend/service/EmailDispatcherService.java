@@ -0,0 +1,215 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.domain.EmailPendente;
+import com.b2fy.backend.domain.StatusEmail;
+import com.b2fy.backend.repository.EmailPendenteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Envia o outbox de emails. Cada ciclo reserva um lote com FOR UPDATE SKIP LOCKED (empurrando
+ * proximaTentativa para frente, o que vale como reserva caso o nó caia no meio), envia o lote inteiro
+ * numa única conexão SMTP e grava o resultado: ENVIADO, ou nova tentativa com backoff exponencial
+ * até {@code max-tentativas}, quando vira FALHOU. A reserva cobre o pior caso do lote com os timeouts SMTP
+ * configurados ({@link #reserva()}), para outro nó não pegar as mesmas linhas enquanto o envio ainda roda.
+ */
+@Service
+public class EmailDispatcherService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailDispatcherService.class);
+
+    /** Respostas que o servidor dá por mensagem (MAIL FROM, RCPT TO, DATA e o fim do DATA), cada uma sujeita ao timeout de leitura. */
+    private static final int RESPOSTAS_POR_MENSAGEM = 4;
+
+    private final EmailPendenteRepository emailPendenteRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter enviados;
+    private final Counter falhas;
+
+    @Value("${spring.mail.username:}")
+    private String from;
+
+    @Value("${b2fy.email.lote:100}")
+    private int tamanhoLote;
+
+    @Value("${b2fy.email.max-tentativas:8}")
+    private int maxTentativas;
+
+    @Value("${b2fy.email.backoff-inicial:PT1M}")
+    private Duration backoffInicial;
+
+    @Value("${b2fy.email.backoff-maximo:PT6H}")
+    private Duration backoffMaximo;
+
+    @Value("${spring.mail.properties.mail.smtp.connectiontimeout:10000}")
+    private long timeoutConexaoMs;
+
+    @Value("${spring.mail.properties.mail.smtp.timeout:10000}")
+    private long timeoutLeituraMs;
+
+    @Value("${spring.mail.properties.mail.smtp.writetimeout:10000}")
+    private long timeoutEscritaMs;
+
+    @Value("${b2fy.email.margem-reserva:PT1M}")
+    private Duration margemReserva;
+
+    @Value("${b2fy.email.retencao-enviados:P7D}")
+    private Duration retencaoEnviados;
+
+    public EmailDispatcherService(
+        EmailPendenteRepository emailPendenteRepository,
+        JavaMailSender mailSender,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.emailPendenteRepository = emailPendenteRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enviados = Counter.builder("b2fy.email.enviados")
+            .description("Emails do outbox entregues ao servidor SMTP")
+            .register(meterRegistry);
+        this.falhas = Counter.builder("b2fy.email.falhas")
+            .description("Tentativas de envio que falharam (serão retentadas ou marcadas FALHOU)")
+            .register(meterRegistry);
+    }
+
+    /** Processa lotes até esvaziar o que está pronto para envio. */
+    @Scheduled(fixedDelayString = "${b2fy.email.intervalo:PT10S}")
+    public void despachar() {
+        if (from == null || from.isBlank()) return;
+        while (true) {
+            List<EmailPendente> lote = reservar();
+            if (lote.isEmpty()) return;
+            Map<Long, String> erros = enviar(lote);
+            registrarResultado(lote, erros);
+            if (lote.size() < tamanhoLote) return;
+        }
+    }
+
+    @Scheduled(cron = "${b2fy.email.limpeza-cron:0 15 4 * * *}")
+    public void limparEnviados() {
+        Integer removidos = transactionTemplate.execute(status -> emailPendenteRepository.deleteByStatusAndEnviadoEmBefore(
+            StatusEmail.ENVIADO, Instant.now().minus(retencaoEnviados)
+        ));
+        log.info("{} email(s) enviados removidos do outbox", removidos);
+    }
+
+    private List<EmailPendente> reservar() {
+        return transactionTemplate.execute(status -> {
+            Instant agora = Instant.now();
+            List<EmailPendente> lote = emailPendenteRepository.reservarLote(agora, tamanhoLote);
+            Instant ate = agora.plus(reserva());
+            lote.forEach(e -> e.setProximaTentativa(ate));
+            return lote;
+        });
+    }
+
+    /**
+     * Tempo máximo que o envio de um lote cheio pode levar: conexão, mais as respostas e a escrita de cada
+     * mensagem com os timeouts SMTP, mais a margem para gravar o resultado.
+     */
+    Duration reserva() {
+        long porMensagem = RESPOSTAS_POR_MENSAGEM * timeoutLeituraMs + timeoutEscritaMs;
+        return Duration.ofMillis(timeoutConexaoMs + tamanhoLote * porMensagem).plus(margemReserva);
+    }
+
+    /**
+     * Envia o lote numa só sessão SMTP; devolve id -> erro das mensagens que falharam. As falhas voltam indexadas
+     * pela própria mensagem; MimeMessage não sobrescreve equals, então emails idênticos não se confundem.
+     */
+    private Map<Long, String> enviar(List<EmailPendente> lote) {
+        Map<Long, String> erros = new HashMap<>();
+        Map<MimeMessage, Long> idPorMensagem = new IdentityHashMap<>();
+        for (EmailPendente e : lote) {
+            MimeMessage message = mailSender.createMimeMessage();
+            try {
+                MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+                helper.setFrom(from);
+                helper.setTo(e.getDestinatario());
+                helper.setSubject(e.getAssunto());
+                helper.setText(e.getCorpo());
+            } catch (MessagingException ex) {
+                erros.put(e.getId(), descrever(ex));
+                continue;
+            }
+            idPorMensagem.put(message, e.getId());
+        }
+        if (!idPorMensagem.isEmpty()) {
+            try {
+                mailSender.send(idPorMensagem.keySet().toArray(MimeMessage[]::new));
+            } catch (MailSendException ex) {
+                Map<Object, Exception> falhas = ex.getFailedMessages();
+                falhas.forEach((mensagem, causa) -> {
+                    Long id = idPorMensagem.get(mensagem);
+                    if (id != null) erros.put(id, descrever(causa));
+                });
+                if (falhas.isEmpty()) {
+                    idPorMensagem.values().forEach(id -> erros.put(id, descrever(ex)));
+                }
+            } catch (MailException ex) {
+                idPorMensagem.values().forEach(id -> erros.put(id, descrever(ex)));
+            }
+        }
+        if (!erros.isEmpty()) {
+            log.warn("Falha ao enviar {} de {} email(s) do outbox", erros.size(), lote.size());
+        }
+        return erros;
+    }
+
+    private void registrarResultado(List<EmailPendente> lote, Map<Long, String> erros) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Instant agora = Instant.now();
+            List<Long> ids = lote.stream().map(EmailPendente::getId).toList();
+            for (EmailPendente e : emailPendenteRepository.findAllById(ids)) {
+                String erro = erros.get(e.getId());
+                if (erro == null) {
+                    e.setStatus(StatusEmail.ENVIADO);
+                    e.setEnviadoEm(agora);
+                    e.setUltimoErro(null);
+                    continue;
+                }
+                int tentativas = e.getTentativas() + 1;
+                e.setTentativas(tentativas);
+                e.setUltimoErro(erro.length() > 500 ? erro.substring(0, 500) : erro);
+                if (tentativas >= maxTentativas) {
+                    e.setStatus(StatusEmail.FALHOU);
+                } else {
+                    e.setProximaTentativa(agora.plus(backoff(tentativas)));
+                }
+            }
+        });
+        enviados.increment(lote.size() - erros.size());
+        falhas.increment(erros.size());
+    }
+
+    private static String descrever(Exception e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    private Duration backoff(int tentativas) {
+        Duration espera = backoffInicial.multipliedBy(1L << Math.min(tentativas - 1, 20));
+        return espera.compareTo(backoffMaximo) > 0 ? backoffMaximo : espera;
+    }
+}
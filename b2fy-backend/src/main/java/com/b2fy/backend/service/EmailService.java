@@ -1,24 +1,31 @@
 package com.b2fy.backend.service;
 
+import com.b2fy.backend.domain.EmailPendente;
+import com.b2fy.backend.repository.EmailPendenteRepository;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
+/**
+ * Monta os emails e os grava no outbox (email_pendente) na transação de quem chama: se ela for desfeita,
+ * o email também é. O envio é feito depois, em lotes, pelo {@link EmailDispatcherService}.
+ */
 @Service
 public class EmailService {
 
-    private final JavaMailSender mailSender;
+    private final EmailPendenteRepository emailPendenteRepository;
 
     @Value("${spring.mail.username:}")
     private String from;
 
-    public EmailService(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
+    public EmailService(EmailPendenteRepository emailPendenteRepository) {
+        this.emailPendenteRepository = emailPendenteRepository;
     }
 
-    @Async
+    @Transactional(propagation = Propagation.MANDATORY)
     public void enviarNovaLicitacaoParaFornecedores(String fornecedorEmail, String fornecedorNome, String licitacaoNome,
                                                      String descricao, String empresaNome, String empresaEndereco, String dataFechamento) {
         String assunto = "Nova licitação para você";
@@ -40,7 +47,7 @@ public class EmailService {
         enviar(fornecedorEmail, assunto, corpo);
     }
 
-    @Async
+    @Transactional(propagation = Propagation.MANDATORY)
     public void enviarRespostaFornecedorParaEmpresa(String empresaEmail, String empresaNome, String fornecedorNome,
                                                      String licitacaoNome, String descricao, String valorComTaxaStr) {
         String assunto = "Resposta do fornecedor na licitação " + licitacaoNome;
@@ -58,7 +65,7 @@ public class EmailService {
         enviar(empresaEmail, assunto, corpo);
     }
 
-    @Async
+    @Transactional(propagation = Propagation.MANDATORY)
     public void enviarSelecionadoSegundaFase(String fornecedorEmail, String fornecedorNome, String licitacaoNome) {
         String assunto = "Você foi selecionado para a segunda fase";
         String corpo = String.format(
@@ -70,7 +77,7 @@ public class EmailService {
         enviar(fornecedorEmail, assunto, corpo);
     }
 
-    @Async
+    @Transactional(propagation = Propagation.MANDATORY)
     public void enviarGanhadorLicitacao(String fornecedorEmail, String fornecedorNome, String licitacaoNome) {
         String assunto = "Você foi o ganhador da licitação " + licitacaoNome;
         String corpo = String.format(
@@ -82,17 +89,29 @@ public class EmailService {
         enviar(fornecedorEmail, assunto, corpo);
     }
 
+    /** Um email por fornecedor e janela, com uma linha por licitação ({@code total} pode passar do que foi listado). */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enviarResumoLicitacoes(String fornecedorEmail, String fornecedorNome, List<String> linhas, int total) {
+        String assunto = total == 1 ? "1 nova licitação para você" : total + " novas licitações para você";
+        StringBuilder corpo = new StringBuilder()
+            .append("Olá ").append(fornecedorNome).append(",\n\n")
+            .append("Novas licitações foram publicadas na B2FY nos seus nichos:\n\n");
+        for (String linha : linhas) {
+            corpo.append("- ").append(linha).append('\n');
+        }
+        if (total > linhas.size()) {
+            corpo.append("... e mais ").append(total - linhas.size()).append(".\n");
+        }
+        corpo.append("\nAcesse a plataforma para ver os detalhes e enviar suas propostas.");
+        enviar(fornecedorEmail, assunto, corpo.toString());
+    }
+
     private void enviar(String to, String subject, String text) {
         if (from == null || from.isBlank()) return; // skip if mail not configured
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(from);
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(text);
-        try {
-            mailSender.send(message);
-        } catch (Exception ignored) {
-            // log in production
-        }
+        EmailPendente email = new EmailPendente();
+        email.setDestinatario(to);
+        email.setAssunto(subject);
+        email.setCorpo(text);
+        emailPendenteRepository.save(email);
     }
 }
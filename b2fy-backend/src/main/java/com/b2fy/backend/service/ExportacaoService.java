@@ -0,0 +1,186 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.exception.BusinessException;
+import com.b2fy.backend.exception.ServicoSobrecarregadoException;
+import com.b2fy.backend.repository.LicitacaoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Exportação em CSV (separador ';', UTF-8 com BOM, para abrir direto no Excel) das licitações e propostas da empresa.
+ * As linhas vão do cursor JDBC (fetch size, dentro de uma transação somente leitura, única forma de o driver do
+ * PostgreSQL não trazer o resultado inteiro) direto para a resposta, sem montar entidades nem listas: o heap fica
+ * constante qualquer que seja o volume. Cada exportação segura uma conexão até terminar, por isso o número de
+ * exportações simultâneas é limitado; acima dele a requisição recebe 503. A vaga é reservada na thread da requisição
+ * (para o 503 sair antes de a resposta começar) e devolvida quando o corpo termina ou, se ele nunca rodar
+ * (timeout, executor recusou, cliente desconectou), quando o processamento assíncrono da requisição se encerra.
+ */
+@Service
+public class ExportacaoService {
+
+    private static final String SQL_LICITACOES =
+        "SELECT l.id, l.nome, l.fase, l.data_fechamento, l.created_at, l.encerrada_em, g.nome AS ganhador, " +
+        "(SELECT string_agg(n.nome, ', ' ORDER BY n.nome) FROM licitacao_nicho ln JOIN nicho n ON n.id = ln.nicho_id " +
+        "WHERE ln.licitacao_id = l.id) AS nichos, " +
+        "(SELECT COUNT(*) FROM proposta p WHERE p.licitacao_id = l.id) AS propostas " +
+        "FROM licitacao l LEFT JOIN usuario g ON g.id = l.ganhador_id WHERE l.empresa_id = ? ORDER BY l.id";
+
+    private static final String SQL_PROPOSTAS =
+        "SELECT l.id AS licitacao_id, l.nome AS licitacao, p.id, p.fase, p.status, f.nome AS fornecedor, f.cpf_ou_cnpj, " +
+        "f.email, p.valor_orcamento, p.valor_com_taxa, p.created_at, p.descricao_produtos_servicos " +
+        "FROM proposta p JOIN licitacao l ON l.id = p.licitacao_id JOIN usuario f ON f.id = p.fornecedor_id " +
+        "WHERE l.empresa_id = ? AND (CAST(? AS bigint) IS NULL OR l.id = CAST(? AS bigint)) ORDER BY p.licitacao_id, p.id";
+
+    private final LicitacaoRepository licitacaoRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate somenteLeitura;
+    private final Semaphore exportacoes;
+    private final long retryAfterSegundos;
+
+    public ExportacaoService(
+        LicitacaoRepository licitacaoRepository,
+        DataSource dataSource,
+        PlatformTransactionManager transactionManager,
+        @Value("${b2fy.exportacao.fetch-size:1000}") int fetchSize,
+        @Value("${b2fy.exportacao.max-simultaneas:2}") int maxSimultaneas,
+        @Value("${b2fy.exportacao.retry-after-segundos:30}") long retryAfterSegundos
+    ) {
+        this.licitacaoRepository = licitacaoRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.somenteLeitura = new TransactionTemplate(transactionManager);
+        this.somenteLeitura.setReadOnly(true);
+        this.exportacoes = new Semaphore(maxSimultaneas);
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    public StreamingResponseBody exportarLicitacoes() {
+        Long empresaId = UsuarioService.getCurrentUserId();
+        Runnable liberar = reservar();
+        return exportar(liberar,
+            new Object[] {"id", "nome", "fase", "data_fechamento", "criada_em", "encerrada_em", "ganhador", "nichos", "propostas"},
+            writer -> jdbcTemplate.query(SQL_LICITACOES, (RowCallbackHandler) rs -> linha(writer,
+                rs.getLong("id"), rs.getString("nome"), rs.getString("fase"), rs.getString("data_fechamento"),
+                instante(rs, "created_at"), instante(rs, "encerrada_em"), rs.getString("ganhador"), rs.getString("nichos"),
+                rs.getLong("propostas")
+            ), empresaId)
+        );
+    }
+
+    /** Propostas de todas as licitações da empresa, ou só da {@code licitacaoId} (que deve ser dela). */
+    public StreamingResponseBody exportarPropostas(Long licitacaoId) {
+        Long empresaId = UsuarioService.getCurrentUserId();
+        if (licitacaoId != null && !licitacaoRepository.existsByIdAndEmpresaId(licitacaoId, empresaId)) {
+            throw new BusinessException("Licitação não encontrada ou sem permissão.");
+        }
+        Runnable liberar = reservar();
+        return exportar(liberar,
+            new Object[] {"licitacao_id", "licitacao", "proposta_id", "fase", "status", "fornecedor", "cpf_cnpj", "email",
+                "valor_orcamento", "valor_com_taxa", "enviada_em", "descricao"},
+            writer -> jdbcTemplate.query(SQL_PROPOSTAS, (RowCallbackHandler) rs -> linha(writer,
+                rs.getLong("licitacao_id"), rs.getString("licitacao"), rs.getLong("id"), rs.getString("fase"),
+                rs.getString("status"), rs.getString("fornecedor"), rs.getString("cpf_ou_cnpj"), rs.getString("email"),
+                rs.getBigDecimal("valor_orcamento"), rs.getBigDecimal("valor_com_taxa"), instante(rs, "created_at"),
+                rs.getString("descricao_produtos_servicos")
+            ), empresaId, licitacaoId, licitacaoId)
+        );
+    }
+
+    /**
+     * Reserva uma vaga e devolve a ação (idempotente) que a libera. A liberação também fica registrada no
+     * WebAsyncManager da requisição: afterCompletion roda ao fim do processamento assíncrono, com ou sem o corpo.
+     */
+    private Runnable reservar() {
+        if (!exportacoes.tryAcquire()) {
+            throw new ServicoSobrecarregadoException("Muitas exportações em andamento. Tente novamente em instantes.", retryAfterSegundos);
+        }
+        AtomicBoolean liberada = new AtomicBoolean();
+        Runnable liberar = () -> {
+            if (liberada.compareAndSet(false, true)) exportacoes.release();
+        };
+        try {
+            HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+            WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(ExportacaoService.class.getName(),
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        liberar.run();
+                    }
+                });
+        } catch (RuntimeException e) {
+            liberar.run();
+            throw e;
+        }
+        return liberar;
+    }
+
+    /** O corpo roda na thread assíncrona do MVC e libera a vaga assim que termina de escrever. */
+    private StreamingResponseBody exportar(Runnable liberar, Object[] cabecalho, Consumer<Writer> consulta) {
+        return out -> {
+            try {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+                writer.write('\uFEFF');
+                linha(writer, cabecalho);
+                somenteLeitura.executeWithoutResult(status -> consulta.accept(writer));
+                writer.flush();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                liberar.run();
+            }
+        };
+    }
+
+    /** Uma linha CSV. Textos começando com = + - @ ganham um apóstrofo, para o Excel não tratá-los como fórmula. */
+    private static void linha(Writer writer, Object... valores) {
+        try {
+            for (int i = 0; i < valores.length; i++) {
+                if (i > 0) writer.write(';');
+                Object v = valores[i];
+                if (v != null) writer.write(v instanceof String s ? campo(s) : v.toString());
+            }
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String campo(String s) {
+        String valor = !s.isEmpty() && "=+-@".indexOf(s.charAt(0)) >= 0 ? "'" + s : s;
+        if (valor.indexOf(';') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    private static String instante(ResultSet rs, String coluna) throws SQLException {
+        Timestamp ts = rs.getTimestamp(coluna);
+        return ts != null ? ts.toInstant().toString() : null;
+    }
+}
@@ -0,0 +1,80 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.exception.BusinessException;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Respostas recentes por Idempotency-Key (por usuário, TTL curto), para a repetição de uma requisição — duplo clique,
+ * retry após timeout — receber o resultado original em vez de executar de novo. Uma repetição que chega enquanto
+ * a primeira ainda roda espera por ela; falhas não ficam guardadas. O cache é local ao nó: repetições que caem em
+ * outro nó dependem da verificação do próprio serviço (ex.: a chave gravada na proposta).
+ */
+@Service
+public class IdempotenciaService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int TAMANHO_MAXIMO_CHAVE = 100;
+
+    private final AsyncCache<String, Registro> cache;
+
+    public IdempotenciaService(
+        MeterRegistry meterRegistry,
+        @Value("${b2fy.idempotencia.tamanho-maximo:10000}") long tamanhoMaximo,
+        @Value("${b2fy.idempotencia.ttl:10m}") Duration ttl
+    ) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(tamanhoMaximo)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "idempotencia");
+    }
+
+    /**
+     * Executa {@code operacao} uma vez por chave. {@code requisicao} identifica o que foi pedido (igualdade por equals):
+     * a mesma chave com outra requisição é recusada. Sem chave, apenas executa.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T executar(String chave, Object requisicao, Supplier<T> operacao) {
+        if (chave == null || chave.isBlank()) return operacao.get();
+        if (chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new BusinessException(HEADER + " deve ter no máximo " + TAMANHO_MAXIMO_CHAVE + " caracteres.");
+        }
+        String id = UsuarioService.getCurrentUserId() + ":" + chave;
+        CompletableFuture<Registro> novo = new CompletableFuture<>();
+        CompletableFuture<Registro> futuro = cache.get(id, (k, executor) -> novo);
+        if (futuro == novo) {
+            try {
+                novo.complete(new Registro(requisicao, operacao.get()));
+            } catch (RuntimeException e) {
+                // Caffeine descarta o future que terminou com erro: a próxima tentativa executa de novo
+                novo.completeExceptionally(e);
+                throw e;
+            }
+        }
+        Registro registro;
+        try {
+            registro = futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+        if (!registro.requisicao().equals(requisicao)) {
+            throw new BusinessException(HEADER + " já usada em outra requisição.");
+        }
+        return (T) registro.resposta();
+    }
+
+    private record Registro(Object requisicao, Object resposta) {}
+}
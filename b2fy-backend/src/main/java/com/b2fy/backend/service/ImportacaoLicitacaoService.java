@@ -0,0 +1,276 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.domain.FaseLicitacao;
+import com.b2fy.backend.domain.Licitacao;
+import com.b2fy.backend.domain.Nicho;
+import com.b2fy.backend.domain.TipoUsuario;
+import com.b2fy.backend.domain.Usuario;
+import com.b2fy.backend.dto.request.NovaLicitacaoRequest;
+import com.b2fy.backend.dto.response.ImportacaoLicitacoesResponse;
+import com.b2fy.backend.exception.BusinessException;
+import com.b2fy.backend.repository.LicitacaoRepository;
+import com.b2fy.backend.repository.UsuarioRepository;
+import com.b2fy.backend.util.TextoUtil;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importação em lote de licitações (JSON ou CSV), para empresas que publicam a partir do ERP.
+ * Todas as linhas são validadas antes de gravar qualquer coisa; os nichos do lote inteiro são resolvidos numa consulta,
+ * as licitações entram com saveAll (insert em batch) e o fan-out roda uma vez para o lote, com uma notificação por
+ * fornecedor ({@link LicitacaoFanoutService#onLicitacoesImportadas}).
+ */
+@Service
+public class ImportacaoLicitacaoService {
+
+    private static final DateTimeFormatter DATA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final LicitacaoRepository licitacaoRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final NichoCatalogoService nichoCatalogoService;
+    private final ContadorEmpresaService contadorEmpresaService;
+    private final DashboardCacheService dashboardCacheService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+
+    @Value("${b2fy.licitacao.dias-minimos-fechamento:3}")
+    private int diasMinimosFechamento;
+
+    @Value("${b2fy.licitacao.importacao.max-linhas:500}")
+    private int maxLinhas;
+
+    public ImportacaoLicitacaoService(
+        LicitacaoRepository licitacaoRepository,
+        UsuarioRepository usuarioRepository,
+        NichoCatalogoService nichoCatalogoService,
+        ContadorEmpresaService contadorEmpresaService,
+        DashboardCacheService dashboardCacheService,
+        ApplicationEventPublisher eventPublisher,
+        Validator validator
+    ) {
+        this.licitacaoRepository = licitacaoRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.nichoCatalogoService = nichoCatalogoService;
+        this.contadorEmpresaService = contadorEmpresaService;
+        this.dashboardCacheService = dashboardCacheService;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+    }
+
+    @Transactional
+    public ImportacaoLicitacoesResponse importar(List<NovaLicitacaoRequest> requests) {
+        List<Linha> linhas = new ArrayList<>(requests.size());
+        for (NovaLicitacaoRequest request : requests) {
+            linhas.add(new Linha(request, new ArrayList<>()));
+        }
+        return importarLinhas(linhas);
+    }
+
+    /**
+     * CSV separado por ';' com cabeçalho: nome;descricao;dataFechamento;nichos (nichos separados por vírgula,
+     * data em yyyy-MM-dd ou dd/MM/yyyy). Campos com ';', aspas ou quebra de linha vão entre aspas.
+     */
+    @Transactional
+    public ImportacaoLicitacoesResponse importarCsv(String csv) {
+        List<List<String>> registros = lerCsv(csv);
+        if (registros.isEmpty()) {
+            throw new BusinessException("Arquivo vazio.");
+        }
+        Map<String, Integer> colunas = new HashMap<>();
+        List<String> cabecalho = registros.get(0);
+        for (int i = 0; i < cabecalho.size(); i++) {
+            colunas.put(TextoUtil.normalizar(cabecalho.get(i)), i);
+        }
+        for (String obrigatoria : List.of("nome", "datafechamento", "nichos")) {
+            if (!colunas.containsKey(obrigatoria)) {
+                throw new BusinessException("Coluna obrigatória ausente no cabeçalho: " + obrigatoria);
+            }
+        }
+        Integer colunaDescricao = colunas.getOrDefault("descricao", colunas.get("descricaoprodutosservicos"));
+        List<Linha> linhas = new ArrayList<>(registros.size() - 1);
+        for (List<String> registro : registros.subList(1, registros.size())) {
+            List<String> erros = new ArrayList<>();
+            LocalDate dataFechamento = null;
+            String data = valor(registro, colunas.get("datafechamento"));
+            if (data != null) {
+                try {
+                    dataFechamento = data.contains("/") ? LocalDate.parse(data, DATA_BR) : LocalDate.parse(data);
+                } catch (DateTimeParseException e) {
+                    erros.add("Data de fechamento inválida: " + data);
+                }
+            }
+            String nichos = valor(registro, colunas.get("nichos"));
+            List<String> listaNichos = new ArrayList<>();
+            if (nichos != null) {
+                for (String nicho : nichos.split(",")) {
+                    if (!nicho.isBlank()) listaNichos.add(nicho.trim());
+                }
+            }
+            NovaLicitacaoRequest request = new NovaLicitacaoRequest(
+                valor(registro, colunas.get("nome")),
+                valor(registro, colunaDescricao),
+                dataFechamento,
+                listaNichos
+            );
+            linhas.add(new Linha(request, erros));
+        }
+        return importarLinhas(linhas);
+    }
+
+    private ImportacaoLicitacoesResponse importarLinhas(List<Linha> linhas) {
+        if (linhas.isEmpty()) {
+            throw new BusinessException("Nenhuma licitação para importar.");
+        }
+        if (linhas.size() > maxLinhas) {
+            throw new BusinessException("Importe no máximo " + maxLinhas + " licitações por vez.");
+        }
+        Long empresaId = UsuarioService.getCurrentUserId();
+        Usuario empresa = usuarioRepository.findById(empresaId).orElseThrow(() -> new BusinessException("Usuário não encontrado."));
+        if (empresa.getTipo() != TipoUsuario.EMPRESA) {
+            throw new BusinessException("Apenas empresas podem criar licitações.");
+        }
+
+        Set<String> nomesNichos = new HashSet<>();
+        for (Linha linha : linhas) {
+            if (linha.request() != null && linha.request().nichos() != null) {
+                for (String nome : linha.request().nichos()) {
+                    if (nome != null && !nome.isBlank()) nomesNichos.add(nome);
+                }
+            }
+        }
+        Map<String, Nicho> nichos = nichoCatalogoService.resolverExistentes(nomesNichos);
+
+        LocalDate minData = LocalDate.now().plusDays(diasMinimosFechamento);
+        List<Licitacao> novas = new ArrayList<>(linhas.size());
+        boolean valido = true;
+        for (Linha linha : linhas) {
+            Licitacao licitacao = validar(linha, nichos, minData);
+            valido &= linha.erros().isEmpty();
+            if (valido) {
+                licitacao.setEmpresa(empresa);
+                novas.add(licitacao);
+            }
+        }
+        if (!valido) {
+            return resultado(0, linhas, List.of());
+        }
+
+        List<Licitacao> salvas = licitacaoRepository.saveAll(novas);
+        contadorEmpresaService.licitacoesCriadas(empresaId, salvas.size());
+        dashboardCacheService.invalidar(empresaId);
+        List<Long> ids = salvas.stream().map(Licitacao::getId).toList();
+        eventPublisher.publishEvent(new LicitacoesImportadasEvent(ids));
+        return resultado(salvas.size(), linhas, ids);
+    }
+
+    /** Acumula em {@code linha.erros()} os problemas da linha; devolve a licitação montada (sem empresa) quando não há. */
+    private Licitacao validar(Linha linha, Map<String, Nicho> nichos, LocalDate minData) {
+        NovaLicitacaoRequest request = linha.request();
+        if (request == null) {
+            linha.erros().add("Linha vazia.");
+            return null;
+        }
+        for (ConstraintViolation<NovaLicitacaoRequest> violacao : validator.validate(request)) {
+            linha.erros().add(violacao.getPropertyPath() + ": " + violacao.getMessage());
+        }
+        if (request.dataFechamento() != null && request.dataFechamento().isBefore(minData)) {
+            linha.erros().add("Data de fechamento deve ser no mínimo " + diasMinimosFechamento + " dias a partir de hoje.");
+        }
+        Set<Nicho> daLinha = new HashSet<>();
+        if (request.nichos() != null) {
+            if (request.nichos().isEmpty()) {
+                linha.erros().add("Pelo menos um nicho é obrigatório");
+            }
+            for (String nome : request.nichos()) {
+                if (nome == null || nome.isBlank()) continue;
+                Nicho nicho = nichos.get(TextoUtil.normalizar(nome));
+                if (nicho == null) {
+                    linha.erros().add("Nicho não encontrado: " + nome.trim());
+                } else {
+                    daLinha.add(nicho);
+                }
+            }
+        }
+        if (!linha.erros().isEmpty()) return null;
+        Licitacao licitacao = new Licitacao();
+        licitacao.setNome(request.nome());
+        licitacao.setDescricaoProdutosServicos(request.descricaoProdutosServicos());
+        licitacao.setDataFechamento(request.dataFechamento());
+        licitacao.setFase(FaseLicitacao.ABERTA);
+        licitacao.setNichos(daLinha);
+        return licitacao;
+    }
+
+    private static ImportacaoLicitacoesResponse resultado(int importadas, List<Linha> linhas, List<Long> ids) {
+        List<ImportacaoLicitacoesResponse.Linha> resultado = new ArrayList<>(linhas.size());
+        for (int i = 0; i < linhas.size(); i++) {
+            resultado.add(new ImportacaoLicitacoesResponse.Linha(i + 1, ids.isEmpty() ? null : ids.get(i), linhas.get(i).erros()));
+        }
+        return new ImportacaoLicitacoesResponse(importadas, resultado);
+    }
+
+    private static String valor(List<String> registro, Integer coluna) {
+        if (coluna == null || coluna >= registro.size()) return null;
+        String v = registro.get(coluna).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    /** Registros do CSV (';', aspas duplas com "" de escape); linhas em branco são ignoradas. */
+    private static List<List<String>> lerCsv(String csv) {
+        List<List<String>> registros = new ArrayList<>();
+        List<String> registro = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        int inicio = !csv.isEmpty() && csv.charAt(0) == '\uFEFF' ? 1 : 0;
+        for (int i = inicio; i < csv.length(); i++) {
+            char c = csv.charAt(i);
+            if (entreAspas) {
+                if (c != '"') {
+                    campo.append(c);
+                } else if (i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else {
+                    entreAspas = false;
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ';') {
+                registro.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < csv.length() && csv.charAt(i + 1) == '\n') i++;
+                fecharRegistro(registros, registro, campo);
+                registro = new ArrayList<>();
+            } else {
+                campo.append(c);
+            }
+        }
+        fecharRegistro(registros, registro, campo);
+        return registros;
+    }
+
+    private static void fecharRegistro(List<List<String>> registros, List<String> registro, StringBuilder campo) {
+        registro.add(campo.toString());
+        campo.setLength(0);
+        if (registro.size() > 1 || !registro.get(0).isBlank()) {
+            registros.add(registro);
+        }
+    }
+
+    private record Linha(NovaLicitacaoRequest request, List<String> erros) {}
+}
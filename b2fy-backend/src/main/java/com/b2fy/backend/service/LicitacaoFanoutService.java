@@ -0,0 +1,498 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.domain.AnuncioPendente;
+import com.b2fy.backend.domain.EtapaFanout;
+import com.b2fy.backend.domain.FanoutPendente;
+import com.b2fy.backend.domain.Licitacao;
+import com.b2fy.backend.domain.Nicho;
+import com.b2fy.backend.domain.PreferenciaEmail;
+import com.b2fy.backend.domain.StatusFanout;
+import com.b2fy.backend.domain.TipoUsuario;
+import com.b2fy.backend.repository.AnuncioPendenteRepository;
+import com.b2fy.backend.repository.FanoutPendenteRepository;
+import com.b2fy.backend.repository.FornecedorDestinatario;
+import com.b2fy.backend.repository.LicitacaoRepository;
+import com.b2fy.backend.repository.ResumoFila;
+import com.b2fy.backend.repository.UsuarioNicho;
+import com.b2fy.backend.repository.UsuarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fan-out de uma licitação recém-publicada para os fornecedores dos seus nichos.
+ * {@link LicitacaoService#criar} grava um {@link FanoutPendente} na própria transação; depois do commit um worker
+ * reserva a linha (FOR UPDATE SKIP LOCKED, seguro com vários nós) e percorre os destinatários em lotes (keyset por id),
+ * cada lote em sua própria transação: notificações inseridas com saveAll e emails enfileirados no {@link EmailService},
+ * ou guardados para o resumo de quem prefere não receber na hora, e o cursor da linha avançado junto.
+ * Em seguida o texto da licitação é percolado contra as buscas salvas ({@link BuscaSalvaIndiceService}) e quem casou,
+ * e não foi avisado pelo nicho, recebe uma notificação, também em lotes com cursor.
+ * Um lote que falha é retentado com backoff a partir do mesmo cursor, até {@code max-tentativas}, quando a linha vira
+ * FALHOU; um fan-out interrompido por restart é retomado por qualquer nó quando a reserva expira.
+ * Uma importação em lote ({@link ImportacaoLicitacaoService}) tem um único fan-out: os fornecedores da união dos nichos
+ * do lote são percorridos uma vez e cada um recebe uma notificação e um email cobrindo as licitações que o atendem.
+ */
+@Service
+public class LicitacaoFanoutService {
+
+    private static final Logger log = LoggerFactory.getLogger(LicitacaoFanoutService.class);
+
+    private final LicitacaoRepository licitacaoRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final NotificacaoService notificacaoService;
+    private final EmailService emailService;
+    private final AnuncioPendenteRepository anuncioPendenteRepository;
+    private final FanoutPendenteRepository fanoutPendenteRepository;
+    private final BuscaSalvaIndiceService buscaSalvaIndiceService;
+    private final TransactionTemplate novaTransacao;
+    private final ThreadPoolTaskExecutor executor;
+    private final int tamanhoLote;
+    private final int maxItensEmail;
+
+    @Value("${b2fy.fanout.max-tentativas:5}")
+    private int maxTentativas;
+
+    @Value("${b2fy.fanout.backoff-inicial:PT30S}")
+    private Duration backoffInicial;
+
+    @Value("${b2fy.fanout.backoff-maximo:PT30M}")
+    private Duration backoffMaximo;
+
+    @Value("${b2fy.fanout.reserva:PT5M}")
+    private Duration reserva;
+
+    /** Fila persistida, lida a cada ciclo do job (os gauges não consultam o banco). */
+    private volatile ResumoFila resumo = new ResumoFila(0L, null);
+
+    private volatile boolean encerrando;
+
+    private final Counter destinatariosProcessados;
+    private final Counter destinatariosBuscasSalvas;
+    private final Counter falhas;
+    private final Timer tempoLote;
+
+    public LicitacaoFanoutService(
+        LicitacaoRepository licitacaoRepository,
+        UsuarioRepository usuarioRepository,
+        NotificacaoService notificacaoService,
+        EmailService emailService,
+        AnuncioPendenteRepository anuncioPendenteRepository,
+        FanoutPendenteRepository fanoutPendenteRepository,
+        BuscaSalvaIndiceService buscaSalvaIndiceService,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        @Value("${b2fy.fanout.tamanho-lote:500}") int tamanhoLote,
+        @Value("${b2fy.fanout.threads:2}") int threads,
+        @Value("${b2fy.fanout.capacidade-fila:100}") int capacidadeFila,
+        @Value("${b2fy.email.resumo.max-itens:30}") int maxItensEmail
+    ) {
+        this.licitacaoRepository = licitacaoRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.notificacaoService = notificacaoService;
+        this.emailService = emailService;
+        this.anuncioPendenteRepository = anuncioPendenteRepository;
+        this.fanoutPendenteRepository = fanoutPendenteRepository;
+        this.buscaSalvaIndiceService = buscaSalvaIndiceService;
+        this.tamanhoLote = tamanhoLote;
+        this.maxItensEmail = maxItensEmail;
+        // REQUIRES_NEW: o worker pode ser acordado em afterCommit, quando a transação original ainda está vinculada à thread
+        this.novaTransacao = new TransactionTemplate(transactionManager);
+        this.novaTransacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // Fila limitada; quando cheia, a tarefa é recusada e a linha já gravada fica para o próximo ciclo do job
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(threads);
+        this.executor.setMaxPoolSize(threads);
+        this.executor.setQueueCapacity(capacidadeFila);
+        this.executor.setThreadNamePrefix("fanout-");
+        this.executor.setWaitForTasksToCompleteOnShutdown(true);
+        this.executor.setAwaitTerminationSeconds(30);
+        this.executor.initialize();
+
+        this.destinatariosProcessados = Counter.builder("b2fy.fanout.destinatarios")
+            .description("Fornecedores notificados pelo fan-out de licitações")
+            .register(meterRegistry);
+        this.destinatariosBuscasSalvas = Counter.builder("b2fy.fanout.buscas-salvas")
+            .description("Fornecedores notificados por uma busca salva (fora dos nichos da licitação)")
+            .register(meterRegistry);
+        this.falhas = Counter.builder("b2fy.fanout.falhas")
+            .description("Lotes do fan-out que falharam (serão retentados ou marcados FALHOU)")
+            .register(meterRegistry);
+        this.tempoLote = Timer.builder("b2fy.fanout.lote")
+            .description("Tempo de processamento de um lote de destinatários")
+            .register(meterRegistry);
+        Gauge.builder("b2fy.fanout.pendentes", this, s -> s.resumo.total())
+            .description("Fan-outs aguardando ou em processamento")
+            .register(meterRegistry);
+        Gauge.builder("b2fy.fanout.atraso", this, LicitacaoFanoutService::atrasoSegundos)
+            .description("Idade do fan-out pendente mais antigo")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    /** Roda na transação de {@link LicitacaoService#criar}: o fan-out é gravado junto com a licitação. */
+    @EventListener
+    public void onLicitacaoPublicada(LicitacaoPublicadaEvent event) {
+        agendar(List.of(event.licitacaoId()));
+    }
+
+    @EventListener
+    public void onLicitacoesImportadas(LicitacoesImportadasEvent event) {
+        agendar(event.licitacaoIds());
+    }
+
+    /** Retoma o que ficou para trás: fila cheia, lote aguardando nova tentativa ou reserva de um nó que caiu. */
+    @Scheduled(fixedDelayString = "${b2fy.fanout.intervalo:PT30S}")
+    public void retomarPendentes() {
+        resumo = fanoutPendenteRepository.resumir(StatusFanout.PENDENTE);
+        acordar();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        encerrando = true;
+        executor.shutdown();
+    }
+
+    private void agendar(List<Long> licitacaoIds) {
+        FanoutPendente fanout = new FanoutPendente();
+        fanout.setLicitacaoIds(licitacaoIds.toArray(Long[]::new));
+        fanoutPendenteRepository.save(fanout);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acordar();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acordar();
+            }
+        });
+    }
+
+    private void acordar() {
+        try {
+            executor.execute(this::processarPendentes);
+        } catch (TaskRejectedException e) {
+            log.debug("Fila do fan-out cheia; o próximo ciclo do job retoma as linhas pendentes");
+        }
+    }
+
+    /** Reserva e processa fan-outs até não haver nenhum pronto. */
+    void processarPendentes() {
+        while (!encerrando) {
+            FanoutPendente fanout = novaTransacao.execute(status -> reservar());
+            if (fanout == null) break;
+            processar(fanout);
+        }
+        resumo = fanoutPendenteRepository.resumir(StatusFanout.PENDENTE);
+    }
+
+    private FanoutPendente reservar() {
+        Instant agora = Instant.now();
+        return fanoutPendenteRepository.reservarProximo(agora)
+            .map(f -> {
+                f.setProximaTentativa(agora.plus(reserva));
+                return f;
+            })
+            .orElse(null);
+    }
+
+    private void processar(FanoutPendente fanout) {
+        Cursor cursor = new Cursor(fanout.getEtapa(), fanout.getUltimoDestinatarioId());
+        try {
+            Plano plano = novaTransacao.execute(status -> planejar(fanout.getLicitacaoIds()));
+            while (cursor != null && !encerrando) {
+                Cursor atual = cursor;
+                cursor = novaTransacao.execute(status -> avancar(fanout.getId(), atual, plano));
+            }
+        } catch (RuntimeException e) {
+            falhas.increment();
+            registrarFalha(fanout.getId(), cursor, e);
+        }
+    }
+
+    /**
+     * Processa o lote seguinte ao {@code atual} e grava o novo cursor na mesma transação; a linha é removida no
+     * último lote. Devolve null quando terminou ou quando outro nó avançou o cursor (a reserva expirou e ele assumiu).
+     */
+    private Cursor avancar(Long fanoutId, Cursor atual, Plano plano) {
+        FanoutPendente fanout = fanoutPendenteRepository.findParaAtualizar(fanoutId).orElse(null);
+        if (fanout == null || fanout.getEtapa() != atual.etapa() || fanout.getUltimoDestinatarioId() != atual.aposId()) {
+            return null;
+        }
+        Cursor proximo;
+        if (plano.licitacoes().isEmpty()) {
+            proximo = null;
+        } else if (atual.etapa() == EtapaFanout.NICHOS) {
+            proximo = loteNichos(plano, atual.aposId());
+        } else {
+            proximo = loteBuscasSalvas(plano, atual.aposId());
+        }
+        if (proximo == null) {
+            fanoutPendenteRepository.delete(fanout);
+            return null;
+        }
+        fanout.setEtapa(proximo.etapa());
+        fanout.setUltimoDestinatarioId(proximo.aposId());
+        fanout.setTentativas(0);
+        fanout.setUltimoErro(null);
+        fanout.setProximaTentativa(Instant.now().plus(reserva));
+        return proximo;
+    }
+
+    private Cursor loteNichos(Plano plano, long aposId) {
+        if (plano.nichoIds().isEmpty()) return new Cursor(EtapaFanout.BUSCAS_SALVAS, 0);
+        long inicio = System.nanoTime();
+        List<FornecedorDestinatario> lote = plano.licitacoes().size() == 1
+            ? processarLote(plano.licitacoes().get(0), aposId)
+            : processarLoteImportacao(plano.licitacoes(), plano.nichoIds(), aposId);
+        tempoLote.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        destinatariosProcessados.increment(lote.size());
+        if (lote.size() < tamanhoLote) return new Cursor(EtapaFanout.BUSCAS_SALVAS, 0);
+        return new Cursor(EtapaFanout.NICHOS, lote.get(lote.size() - 1).id());
+    }
+
+    /** Quem atende algum nicho do fan-out já recebeu a notificação por nicho; os demais recebem a da busca salva. */
+    private Cursor loteBuscasSalvas(Plano plano, long aposId) {
+        List<Long> lote = new ArrayList<>(tamanhoLote);
+        for (Long usuarioId : plano.buscasSalvas().tailMap(aposId, false).keySet()) {
+            if (lote.size() == tamanhoLote) break;
+            lote.add(usuarioId);
+        }
+        if (lote.isEmpty()) return null;
+        Set<Long> destinatarios = new LinkedHashSet<>(lote);
+        if (!plano.nichoIds().isEmpty()) {
+            usuarioRepository.findIdsQueAtendemNichos(lote, plano.nichoIds()).forEach(destinatarios::remove);
+        }
+        Map<Long, List<Long>> usuariosPorLicitacao = new LinkedHashMap<>();
+        for (Long usuarioId : destinatarios) {
+            usuariosPorLicitacao.computeIfAbsent(plano.buscasSalvas().get(usuarioId), k -> new ArrayList<>()).add(usuarioId);
+        }
+        Map<Long, DadosFanout> porId = new HashMap<>();
+        plano.licitacoes().forEach(l -> porId.put(l.licitacaoId(), l));
+        usuariosPorLicitacao.forEach((licitacaoId, usuarioIds) -> notificacaoService.criarBuscaSalvaEmLote(
+            usuarioIds,
+            licitacaoRepository.getReferenceById(licitacaoId),
+            "Nova licitação para a sua busca salva: " + porId.get(licitacaoId).licitacaoNome()
+        ));
+        destinatariosBuscasSalvas.increment(destinatarios.size());
+        if (lote.size() < tamanhoLote) return null;
+        return new Cursor(EtapaFanout.BUSCAS_SALVAS, lote.get(lote.size() - 1));
+    }
+
+    private void registrarFalha(Long fanoutId, Cursor cursor, RuntimeException erro) {
+        novaTransacao.executeWithoutResult(status -> fanoutPendenteRepository.findParaAtualizar(fanoutId).ifPresent(f -> {
+            int tentativas = f.getTentativas() + 1;
+            String descricao = erro.getMessage() != null ? erro.getMessage() : erro.getClass().getSimpleName();
+            f.setTentativas(tentativas);
+            f.setUltimoErro(descricao.length() > 500 ? descricao.substring(0, 500) : descricao);
+            if (tentativas >= maxTentativas) {
+                f.setStatus(StatusFanout.FALHOU);
+                log.error("Fan-out {} abandonado após {} tentativa(s), parado em {}", fanoutId, tentativas, cursor, erro);
+            } else {
+                f.setProximaTentativa(Instant.now().plus(backoff(tentativas)));
+                log.warn("Falha no fan-out {} em {} (tentativa {}); será retomado do mesmo lote", fanoutId, cursor, tentativas, erro);
+            }
+        }));
+    }
+
+    private Duration backoff(int tentativas) {
+        Duration espera = backoffInicial.multipliedBy(1L << Math.min(tentativas - 1, 20));
+        return espera.compareTo(backoffMaximo) > 0 ? backoffMaximo : espera;
+    }
+
+    /**
+     * Dados das licitações, união dos nichos e, por usuário com busca salva que casou, a licitação que o avisa
+     * (a primeira do lote que casou). A percolação é feita de novo a cada retomada; o cursor só pula quem já passou.
+     */
+    private Plano planejar(Long[] licitacaoIds) {
+        List<DadosFanout> licitacoes = licitacaoRepository.findAllById(Arrays.asList(licitacaoIds)).stream()
+            .sorted(Comparator.comparing(Licitacao::getId))
+            .map(this::dadosDe)
+            .toList();
+        Set<Long> nichoIds = new HashSet<>();
+        NavigableMap<Long, Long> buscasSalvas = new TreeMap<>();
+        for (DadosFanout l : licitacoes) {
+            nichoIds.addAll(l.nichoIds());
+            for (Long usuarioId : buscaSalvaIndiceService.percolar(l.licitacaoNome() + " " + l.descricao())) {
+                if (!usuarioId.equals(l.empresaId())) buscasSalvas.putIfAbsent(usuarioId, l.licitacaoId());
+            }
+        }
+        return new Plano(licitacoes, nichoIds, buscasSalvas);
+    }
+
+    /** Um lote dos fornecedores da união dos nichos de uma importação; cada um é avisado uma vez pelo lote todo. */
+    private List<FornecedorDestinatario> processarLoteImportacao(
+        List<DadosFanout> licitacoes, Set<Long> nichoIds, long aposId
+    ) {
+        Long empresaId = licitacoes.get(0).empresaId();
+        List<FornecedorDestinatario> lote = usuarioRepository.findDestinatariosByNichoIds(
+            TipoUsuario.FORNECEDOR, nichoIds, aposId, PageRequest.of(0, tamanhoLote)
+        );
+        List<FornecedorDestinatario> destinatarios = lote.stream()
+            .filter(f -> !f.id().equals(empresaId))
+            .toList();
+        if (destinatarios.isEmpty()) return lote;
+
+        Map<Long, Set<Long>> nichosPorUsuario = new HashMap<>();
+        List<Long> usuarioIds = destinatarios.stream().map(FornecedorDestinatario::id).toList();
+        for (UsuarioNicho un : usuarioRepository.findNichosDosUsuarios(usuarioIds, nichoIds)) {
+            nichosPorUsuario.computeIfAbsent(un.usuarioId(), k -> new HashSet<>()).add(un.nichoId());
+        }
+
+        // Uma notificação por fornecedor: a da licitação, se só uma o atende, ou um resumo apontando para a primeira
+        Map<Long, List<Long>> notificarPorLicitacao = new LinkedHashMap<>();
+        Map<Long, List<Long>> resumirPorLicitacao = new LinkedHashMap<>();
+        List<AnuncioPendente> paraResumo = new ArrayList<>();
+        for (FornecedorDestinatario f : destinatarios) {
+            Set<Long> nichosDoFornecedor = nichosPorUsuario.getOrDefault(f.id(), Set.of());
+            List<DadosFanout> atendidas = licitacoes.stream()
+                .filter(l -> l.nichoIds().stream().anyMatch(nichosDoFornecedor::contains))
+                .toList();
+            if (atendidas.isEmpty()) continue;
+            DadosFanout primeira = atendidas.get(0);
+            if (atendidas.size() == 1) {
+                notificarPorLicitacao.computeIfAbsent(primeira.licitacaoId(), k -> new ArrayList<>()).add(f.id());
+            } else {
+                resumirPorLicitacao.computeIfAbsent(primeira.licitacaoId(), k -> new ArrayList<>()).add(f.id());
+            }
+            if (f.preferenciaEmail() != PreferenciaEmail.IMEDIATO) {
+                for (DadosFanout l : atendidas) {
+                    AnuncioPendente anuncio = new AnuncioPendente();
+                    anuncio.setUsuario(usuarioRepository.getReferenceById(f.id()));
+                    anuncio.setLicitacao(licitacaoRepository.getReferenceById(l.licitacaoId()));
+                    paraResumo.add(anuncio);
+                }
+            } else if (atendidas.size() == 1) {
+                emailService.enviarNovaLicitacaoParaFornecedores(
+                    f.email(), f.nome(), primeira.licitacaoNome(), primeira.descricao(),
+                    primeira.empresaNome(), primeira.empresaEndereco(), primeira.dataFechamento()
+                );
+            } else {
+                List<String> linhas = atendidas.stream()
+                    .limit(maxItensEmail)
+                    .map(l -> l.licitacaoNome() + " — " + l.empresaNome() + " (fecha em " + l.dataFechamento() + ")")
+                    .toList();
+                emailService.enviarResumoLicitacoes(f.email(), f.nome(), linhas, atendidas.size());
+            }
+        }
+
+        Map<Long, DadosFanout> porId = new HashMap<>();
+        licitacoes.forEach(l -> porId.put(l.licitacaoId(), l));
+        notificarPorLicitacao.forEach((licitacaoId, ids) -> notificacaoService.criarLicitacaoAbertaEmLote(
+            ids, licitacaoRepository.getReferenceById(licitacaoId), porId.get(licitacaoId).mensagem()
+        ));
+        // O total varia por fornecedor; a mensagem agrupada não cita o número para não errar para ninguém
+        resumirPorLicitacao.forEach((licitacaoId, ids) -> notificacaoService.criarLicitacaoAbertaEmLote(
+            ids, licitacaoRepository.getReferenceById(licitacaoId),
+            "A empresa " + porId.get(licitacaoId).empresaNome() + " publicou novas licitações nos seus nichos, dê uma olhadinha!"
+        ));
+        anuncioPendenteRepository.saveAll(paraResumo);
+        return lote;
+    }
+
+    private DadosFanout dadosDe(Licitacao licitacao) {
+        String empresaNome = licitacao.getEmpresa().getNome();
+        String empresaEndereco = licitacao.getEmpresa().getEndereco();
+        String descricao = licitacao.getDescricaoProdutosServicos();
+        return new DadosFanout(
+            licitacao.getId(),
+            licitacao.getEmpresa().getId(),
+            licitacao.getNome(),
+            descricao != null ? descricao : "-",
+            empresaNome,
+            empresaEndereco != null ? empresaEndereco : "-",
+            licitacao.getDataFechamento().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
+            "Licitação foi aberta pela empresa " + empresaNome + ", dê uma olhadinha!",
+            licitacao.getNichos().stream().map(Nicho::getId).toList()
+        );
+    }
+
+    private List<FornecedorDestinatario> processarLote(DadosFanout dados, long aposId) {
+        List<FornecedorDestinatario> lote = usuarioRepository.findDestinatariosByNichoIds(
+            TipoUsuario.FORNECEDOR, dados.nichoIds(), aposId, PageRequest.of(0, tamanhoLote)
+        );
+        List<FornecedorDestinatario> destinatarios = lote.stream()
+            .filter(f -> !f.id().equals(dados.empresaId()))
+            .toList();
+        if (destinatarios.isEmpty()) return lote;
+        Licitacao licitacao = licitacaoRepository.getReferenceById(dados.licitacaoId());
+        notificacaoService.criarLicitacaoAbertaEmLote(
+            destinatarios.stream().map(FornecedorDestinatario::id).toList(),
+            licitacao,
+            dados.mensagem()
+        );
+        List<AnuncioPendente> paraResumo = new ArrayList<>();
+        for (FornecedorDestinatario f : destinatarios) {
+            if (f.preferenciaEmail() == PreferenciaEmail.IMEDIATO) {
+                emailService.enviarNovaLicitacaoParaFornecedores(
+                    f.email(), f.nome(), dados.licitacaoNome(), dados.descricao(),
+                    dados.empresaNome(), dados.empresaEndereco(), dados.dataFechamento()
+                );
+            } else {
+                AnuncioPendente anuncio = new AnuncioPendente();
+                anuncio.setUsuario(usuarioRepository.getReferenceById(f.id()));
+                anuncio.setLicitacao(licitacao);
+                paraResumo.add(anuncio);
+            }
+        }
+        anuncioPendenteRepository.saveAll(paraResumo);
+        return lote;
+    }
+
+    private double atrasoSegundos() {
+        Instant maisAntigo = resumo.maisAntigo();
+        return maisAntigo != null ? Duration.between(maisAntigo, Instant.now()).toMillis() / 1000.0 : 0.0;
+    }
+
+    /** Posição do fan-out: etapa e último destinatário (id de usuário) já processado nela. */
+    private record Cursor(EtapaFanout etapa, long aposId) {}
+
+    private record Plano(List<DadosFanout> licitacoes, Set<Long> nichoIds, NavigableMap<Long, Long> buscasSalvas) {}
+
+    private record DadosFanout(
+        Long licitacaoId,
+        Long empresaId,
+        String licitacaoNome,
+        String descricao,
+        String empresaNome,
+        String empresaEndereco,
+        String dataFechamento,
+        String mensagem,
+        List<Long> nichoIds
+    ) {}
+}
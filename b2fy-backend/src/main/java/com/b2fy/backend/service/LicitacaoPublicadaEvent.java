@@ -0,0 +1,4 @@
+package com.b2fy.backend.service;
+
+/** Publicado por {@link LicitacaoService#criar}; o fan-out é gravado na mesma transação e processado após o commit. */
+public record LicitacaoPublicadaEvent(Long licitacaoId) {}
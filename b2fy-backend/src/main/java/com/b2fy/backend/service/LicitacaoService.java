@@ -3,21 +3,33 @@ package com.b2fy.backend.service;
 import com.b2fy.backend.domain.*;
 import com.b2fy.backend.dto.request.AtualizarLicitacaoRequest;
 import com.b2fy.backend.dto.request.NovaLicitacaoRequest;
+import com.b2fy.backend.dto.request.OrdemPropostas;
 import com.b2fy.backend.dto.response.LicitacaoResponse;
+import com.b2fy.backend.dto.response.PaginaResponse;
 import com.b2fy.backend.dto.response.PropostaResponse;
 import com.b2fy.backend.exception.BusinessException;
+import com.b2fy.backend.exception.ConflitoException;
+import com.b2fy.backend.repository.ContagemPropostas;
+import com.b2fy.backend.repository.LicitacaoRelevancia;
 import com.b2fy.backend.repository.LicitacaoRepository;
-import com.b2fy.backend.repository.NichoRepository;
 import com.b2fy.backend.repository.PropostaRepository;
 import com.b2fy.backend.repository.UsuarioRepository;
+import com.b2fy.backend.util.CursorUtil;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -27,9 +39,13 @@ public class LicitacaoService {
     private final LicitacaoRepository licitacaoRepository;
     private final UsuarioRepository usuarioRepository;
     private final PropostaRepository propostaRepository;
-    private final NichoRepository nichoRepository;
+    private final NichoCatalogoService nichoCatalogoService;
     private final EmailService emailService;
     private final NotificacaoService notificacaoService;
+    private final ContadorEmpresaService contadorEmpresaService;
+    private final DashboardCacheService dashboardCacheService;
+    private final PaginacaoService paginacaoService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${b2fy.licitacao.dias-minimos-fechamento:3}")
     private int diasMinimosFechamento;
@@ -38,16 +54,24 @@ public class LicitacaoService {
         LicitacaoRepository licitacaoRepository,
         UsuarioRepository usuarioRepository,
         PropostaRepository propostaRepository,
-        NichoRepository nichoRepository,
+        NichoCatalogoService nichoCatalogoService,
         EmailService emailService,
-        NotificacaoService notificacaoService
+        NotificacaoService notificacaoService,
+        ContadorEmpresaService contadorEmpresaService,
+        DashboardCacheService dashboardCacheService,
+        PaginacaoService paginacaoService,
+        ApplicationEventPublisher eventPublisher
     ) {
         this.licitacaoRepository = licitacaoRepository;
         this.usuarioRepository = usuarioRepository;
         this.propostaRepository = propostaRepository;
-        this.nichoRepository = nichoRepository;
+        this.nichoCatalogoService = nichoCatalogoService;
         this.emailService = emailService;
         this.notificacaoService = notificacaoService;
+        this.contadorEmpresaService = contadorEmpresaService;
+        this.dashboardCacheService = dashboardCacheService;
+        this.paginacaoService = paginacaoService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -61,12 +85,7 @@ public class LicitacaoService {
         if (request.dataFechamento().isBefore(minData)) {
             throw new BusinessException("Data de fechamento deve ser no mínimo " + diasMinimosFechamento + " dias a partir de hoje.");
         }
-        Set<Nicho> nichos = new java.util.HashSet<>();
-        for (String nomeNicho : request.nichos()) {
-            Nicho n = nichoRepository.findByNomeIgnoreCase(nomeNicho.trim())
-                .orElseThrow(() -> new BusinessException("Nicho não encontrado: " + nomeNicho));
-            nichos.add(n);
-        }
+        Set<Nicho> nichos = nichoCatalogoService.resolver(request.nichos(), false);
         Licitacao licitacao = new Licitacao();
         licitacao.setEmpresa(empresa);
         licitacao.setNome(request.nome());
@@ -75,24 +94,9 @@ public class LicitacaoService {
         licitacao.setFase(FaseLicitacao.ABERTA);
         licitacao.setNichos(nichos);
         licitacao = licitacaoRepository.save(licitacao);
-        String licitacaoNome = licitacao.getNome();
-        String empresaNome = licitacao.getEmpresa().getNome();
-        String empresaEndereco = licitacao.getEmpresa().getEndereco();
-        String dataFechamentoStr = licitacao.getDataFechamento().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-        String descricao = licitacao.getDescricaoProdutosServicos();
-        String mensagemAberta = "Licitação foi aberta pela empresa " + empresaNome + ", dê uma olhadinha!";
-        List<String> nomesNicho = nichos.stream().map(Nicho::getNome).toList();
-        List<Usuario> fornecedores = usuarioRepository.findFornecedoresByNichoNomes(TipoUsuario.FORNECEDOR, nomesNicho);
-        for (Usuario fornecedor : fornecedores) {
-            if (!fornecedor.getId().equals(empresaId)) {
-                emailService.enviarNovaLicitacaoParaFornecedores(
-                    fornecedor.getEmail(), fornecedor.getNome(), licitacaoNome,
-                    descricao != null ? descricao : "-", empresaNome,
-                    empresaEndereco != null ? empresaEndereco : "-", dataFechamentoStr
-                );
-                notificacaoService.criarLicitacaoAberta(fornecedor, licitacao, mensagemAberta);
-            }
-        }
+        contadorEmpresaService.licitacaoCriada(empresaId);
+        dashboardCacheService.invalidar(empresaId);
+        eventPublisher.publishEvent(new LicitacaoPublicadaEvent(licitacao.getId()));
         return toResponse(licitacao);
     }
 
@@ -105,36 +109,90 @@ public class LicitacaoService {
         if (licitacao.getFase() != FaseLicitacao.ABERTA) {
             throw new BusinessException("Só é possível editar licitação na fase aberta.");
         }
+        if (licitacao.getPrazoEncerradoEm() != null) {
+            throw new BusinessException("O prazo para propostas já terminou; não é possível editar a licitação.");
+        }
         LocalDate minData = LocalDate.now().plusDays(diasMinimosFechamento);
         if (request.dataFechamento().isBefore(minData)) {
             throw new BusinessException("Data de fechamento deve ser no mínimo " + diasMinimosFechamento + " dias a partir de hoje.");
         }
-        Set<Nicho> nichos = new java.util.HashSet<>();
-        for (String nomeNicho : request.nichos()) {
-            Nicho n = nichoRepository.findByNomeIgnoreCase(nomeNicho.trim())
-                .orElseThrow(() -> new BusinessException("Nicho não encontrado: " + nomeNicho));
-            nichos.add(n);
-        }
+        Set<Nicho> nichos = nichoCatalogoService.resolver(request.nichos(), false);
         licitacao.setNome(request.nome());
         licitacao.setDescricaoProdutosServicos(request.descricaoProdutosServicos());
         licitacao.setDataFechamento(request.dataFechamento());
         licitacao.setNichos(nichos);
         licitacao = licitacaoRepository.save(licitacao);
+        dashboardCacheService.invalidar(licitacao.getEmpresa().getId());
         return toResponse(licitacao);
     }
 
     @Transactional(readOnly = true)
-    public List<LicitacaoResponse> listarPorEmpresa() {
+    public PaginaResponse<LicitacaoResponse> listarPorEmpresa(String cursor, int limite, boolean incluirTotal) {
         Long empresaId = UsuarioService.getCurrentUserId();
-        List<Licitacao> list = licitacaoRepository.findByEmpresaIdOrderByCreatedAtDesc(empresaId);
-        return list.stream().map(this::toResponse).collect(Collectors.toList());
+        CursorUtil.Posicao posicao = CursorUtil.decodificar(cursor);
+        int tamanho = paginacaoService.limitar(limite);
+        Pageable pageable = PageRequest.of(0, tamanho + 1);
+        List<Licitacao> list = posicao == null
+            ? licitacaoRepository.findByEmpresaIdOrderByCreatedAtDescIdDesc(empresaId, pageable)
+            : licitacaoRepository.findPaginaByEmpresaId(empresaId, posicao.createdAt(), posicao.id(), pageable);
+        Long total = incluirTotal ? licitacaoRepository.countByEmpresaId(empresaId) : null;
+        return toPagina(list, tamanho, total);
     }
 
     @Transactional(readOnly = true)
-    public List<LicitacaoResponse> listarPorFornecedor() {
+    public PaginaResponse<LicitacaoResponse> listarPorFornecedor(String cursor, int limite, boolean incluirTotal) {
         Long fornecedorId = UsuarioService.getCurrentUserId();
-        List<Licitacao> list = licitacaoRepository.findLicitacoesByFornecedorNichos(fornecedorId);
-        return list.stream().map(this::toResponse).collect(Collectors.toList());
+        CursorUtil.Posicao posicao = CursorUtil.decodificar(cursor);
+        int tamanho = paginacaoService.limitar(limite);
+        Pageable pageable = PageRequest.of(0, tamanho + 1);
+        List<Licitacao> list = posicao == null
+            ? licitacaoRepository.findLicitacoesByFornecedorNichos(fornecedorId, pageable)
+            : licitacaoRepository.findPaginaByFornecedorNichos(fornecedorId, posicao.createdAt(), posicao.id(), pageable);
+        Long total = incluirTotal ? licitacaoRepository.countByFornecedorNichos(fornecedorId) : null;
+        return toPagina(list, tamanho, total);
+    }
+
+    /**
+     * Busca textual (português, com stemming e sem acentos) em nome e descrição, ordenada por relevância.
+     * Vê o mesmo que {@link #buscarPorId}: licitações da própria empresa ou de nichos que o usuário atende.
+     */
+    @Transactional(readOnly = true)
+    public PaginaResponse<LicitacaoResponse> buscar(
+        String termo, FaseLicitacao fase, LocalDate fechamentoDe, LocalDate fechamentoAte, String nicho, String cursor, int limite
+    ) {
+        String consulta = termo != null ? termo.trim() : "";
+        if (consulta.length() < 2 || consulta.length() > 200) {
+            throw new BusinessException("Informe um termo de busca entre 2 e 200 caracteres.");
+        }
+        if (fechamentoDe != null && fechamentoAte != null && fechamentoDe.isAfter(fechamentoAte)) {
+            throw new BusinessException("Intervalo de datas de fechamento inválido.");
+        }
+        Long nichoId = nicho != null && !nicho.isBlank() ? nichoCatalogoService.buscarId(nicho) : null;
+        CursorUtil.PosicaoRelevancia posicao = CursorUtil.decodificarRelevancia(cursor);
+        int tamanho = paginacaoService.limitar(limite);
+        List<LicitacaoRelevancia> encontradas = licitacaoRepository.buscar(
+            consulta,
+            UsuarioService.getCurrentUserId(),
+            fase != null ? fase.name() : null,
+            fechamentoDe,
+            fechamentoAte,
+            nichoId,
+            posicao != null ? posicao.relevancia() : null,
+            posicao != null ? posicao.id() : null,
+            tamanho + 1
+        );
+        boolean temMais = encontradas.size() > tamanho;
+        List<LicitacaoRelevancia> pagina = temMais ? encontradas.subList(0, tamanho) : encontradas;
+        String proximoCursor = null;
+        if (temMais) {
+            LicitacaoRelevancia ultima = pagina.get(pagina.size() - 1);
+            proximoCursor = CursorUtil.codificarRelevancia(ultima.getRelevancia(), ultima.getId());
+        }
+        Map<Long, Licitacao> porId = licitacaoRepository.findAllById(pagina.stream().map(LicitacaoRelevancia::getId).toList())
+            .stream()
+            .collect(Collectors.toMap(Licitacao::getId, l -> l));
+        List<Licitacao> itens = pagina.stream().map(r -> porId.get(r.getId())).filter(Objects::nonNull).toList();
+        return new PaginaResponse<>(toResponses(itens), proximoCursor, null);
     }
 
     @Transactional(readOnly = true)
@@ -144,23 +202,47 @@ public class LicitacaoService {
         if (licitacao.getEmpresa().getId().equals(userId)) {
             return toResponse(licitacao);
         }
-        boolean fornecedorParticipa = licitacao.getNichos().stream()
-            .anyMatch(n -> n.getUsuarios().stream().anyMatch(u -> u.getId().equals(userId)));
-        if (!fornecedorParticipa) {
+        if (!licitacaoRepository.usuarioAtendeNichos(id, userId)) {
             throw new BusinessException("Licitação não encontrada ou sem permissão.");
         }
         return toResponse(licitacao);
     }
 
+    /**
+     * Propostas de uma fase (a atual, se {@code fase} for nulo), ordenadas e paginadas no banco: por valor com taxa
+     * (keyset sobre idx_proposta_licitacao_fase_valor, "as N mais baratas" lê só N entradas) ou pelas mais recentes.
+     */
     @Transactional(readOnly = true)
-    public List<PropostaResponse> listarPropostasDaFaseAtual(Long licitacaoId) {
+    public PaginaResponse<PropostaResponse> listarPropostas(
+        Long licitacaoId, FaseProposta fase, StatusProposta status, OrdemPropostas ordem, String cursor, int limite
+    ) {
         Licitacao licitacao = licitacaoRepository.findById(licitacaoId).orElseThrow(() -> new BusinessException("Licitação não encontrada."));
         if (!licitacao.getEmpresa().getId().equals(UsuarioService.getCurrentUserId())) {
             throw new BusinessException("Apenas a empresa dona da licitação pode ver as propostas.");
         }
-        FaseProposta fase = licitacao.getFase() == FaseLicitacao.SEGUNDA_FASE ? FaseProposta.FASE_2 : FaseProposta.FASE_1;
-        List<Proposta> propostas = propostaRepository.findByLicitacaoIdAndFaseWithFornecedor(licitacaoId, fase);
-        return propostas.stream().map(this::toPropostaResponse).collect(Collectors.toList());
+        FaseProposta faseConsulta = fase != null ? fase : fasePropostaAtual(licitacao);
+        int tamanho = paginacaoService.limitar(limite);
+        Pageable pageable = PageRequest.of(0, tamanho + 1);
+        List<Proposta> list;
+        if (ordem == OrdemPropostas.RECENTES) {
+            CursorUtil.Posicao posicao = CursorUtil.decodificar(cursor);
+            list = propostaRepository.findRecentes(licitacaoId, faseConsulta, status,
+                posicao != null ? posicao.createdAt() : null, posicao != null ? posicao.id() : null, pageable);
+        } else {
+            CursorUtil.PosicaoValor posicao = CursorUtil.decodificarValor(cursor);
+            list = propostaRepository.findPorValor(licitacaoId, faseConsulta, status,
+                posicao != null ? posicao.valor() : null, posicao != null ? posicao.id() : null, pageable);
+        }
+        boolean temMais = list.size() > tamanho;
+        List<Proposta> itens = temMais ? list.subList(0, tamanho) : list;
+        String proximoCursor = null;
+        if (temMais) {
+            Proposta ultima = itens.get(itens.size() - 1);
+            proximoCursor = ordem == OrdemPropostas.RECENTES
+                ? CursorUtil.codificar(ultima.getCreatedAt(), ultima.getId())
+                : CursorUtil.codificarValor(ultima.getValorComTaxa(), ultima.getId());
+        }
+        return new PaginaResponse<>(itens.stream().map(this::toPropostaResponse).toList(), proximoCursor, null);
     }
 
     @Transactional
@@ -180,12 +262,14 @@ public class LicitacaoService {
         if (proposta.getFase() != faseAtual) {
             throw new BusinessException("Proposta não é da fase atual.");
         }
-        licitacao.setFase(FaseLicitacao.ENCERRADA);
-        licitacao.setGanhador(proposta.getFornecedor());
-        licitacao.setEncerradaEm(java.time.Instant.now());
-        licitacaoRepository.save(licitacao);
+        FaseLicitacao faseAnterior = licitacao.getFase();
+        if (licitacaoRepository.encerrarComGanhador(licitacaoId, faseAnterior, proposta.getFornecedor(), Instant.now()) == 0) {
+            throw new ConflitoException("A licitação mudou de fase enquanto o ganhador era definido. Recarregue e tente novamente.");
+        }
         proposta.setStatus(StatusProposta.GANHADORA);
         propostaRepository.save(proposta);
+        contadorEmpresaService.licitacaoEncerrada(licitacao.getEmpresa().getId(), licitacaoId, faseAnterior);
+        dashboardCacheService.invalidar(licitacao.getEmpresa().getId());
         String licitacaoNome = licitacao.getNome();
         String empresaNome = licitacao.getEmpresa().getNome();
         String fornecedorEmail = proposta.getFornecedor().getEmail();
@@ -204,6 +288,10 @@ public class LicitacaoService {
         if (licitacao.getFase() != FaseLicitacao.ABERTA) {
             throw new BusinessException("Só é possível ir para a segunda fase quando a licitação está aberta.");
         }
+        // Primeiro a transição: a requisição que perder a corrida não marca propostas nem envia avisos
+        if (licitacaoRepository.mudarFase(licitacaoId, FaseLicitacao.ABERTA, FaseLicitacao.SEGUNDA_FASE) == 0) {
+            throw new ConflitoException("A licitação mudou de fase enquanto a segunda fase era iniciada. Recarregue e tente novamente.");
+        }
         String licitacaoNome = licitacao.getNome();
         String mensagem2Fase = "Você foi selecionado para a segunda fase da licitação \"" + licitacaoNome + "\". Parabéns!";
         for (Long propostaId : propostaIds) {
@@ -216,13 +304,45 @@ public class LicitacaoService {
             emailService.enviarSelecionadoSegundaFase(fornecedorEmail, fornecedorNome, licitacaoNome);
             notificacaoService.criarSelecionado2Fase(p.getFornecedor(), licitacao, mensagem2Fase);
         }
-        licitacao.setFase(FaseLicitacao.SEGUNDA_FASE);
-        licitacaoRepository.save(licitacao);
+        contadorEmpresaService.segundaFaseIniciada(licitacao.getEmpresa().getId());
+        dashboardCacheService.invalidar(licitacao.getEmpresa().getId());
+    }
+
+    /** {@code list} traz um item a mais que {@code limite}, só para saber se existe próxima página. */
+    private PaginaResponse<LicitacaoResponse> toPagina(List<Licitacao> list, int limite, Long total) {
+        boolean temMais = list.size() > limite;
+        List<Licitacao> itens = temMais ? list.subList(0, limite) : list;
+        String proximoCursor = null;
+        if (temMais) {
+            Licitacao ultima = itens.get(itens.size() - 1);
+            proximoCursor = CursorUtil.codificar(ultima.getCreatedAt(), ultima.getId());
+        }
+        return new PaginaResponse<>(toResponses(itens), proximoCursor, total);
     }
 
     private LicitacaoResponse toResponse(Licitacao l) {
-        FaseProposta faseProposta = l.getFase() == FaseLicitacao.SEGUNDA_FASE ? FaseProposta.FASE_2 : FaseProposta.FASE_1;
-        int total = propostaRepository.findByLicitacaoIdAndFase(l.getId(), faseProposta).size();
+        long total = propostaRepository.countByLicitacaoIdAndFase(l.getId(), fasePropostaAtual(l));
+        return toResponse(l, total);
+    }
+
+    /** Converte uma página de licitações contando as propostas de todas em uma única consulta agrupada. */
+    private List<LicitacaoResponse> toResponses(List<Licitacao> list) {
+        if (list.isEmpty()) return List.of();
+        List<Long> ids = list.stream().map(Licitacao::getId).toList();
+        Map<Long, Map<FaseProposta, Long>> contagens = new HashMap<>();
+        for (ContagemPropostas c : propostaRepository.countByLicitacaoIdsGroupByFase(ids)) {
+            contagens.computeIfAbsent(c.licitacaoId(), k -> new EnumMap<>(FaseProposta.class)).put(c.fase(), c.total());
+        }
+        return list.stream()
+            .map(l -> toResponse(l, contagens.getOrDefault(l.getId(), Map.of()).getOrDefault(fasePropostaAtual(l), 0L)))
+            .collect(Collectors.toList());
+    }
+
+    private static FaseProposta fasePropostaAtual(Licitacao l) {
+        return l.getFase() == FaseLicitacao.SEGUNDA_FASE ? FaseProposta.FASE_2 : FaseProposta.FASE_1;
+    }
+
+    private LicitacaoResponse toResponse(Licitacao l, long totalPropostas) {
         List<String> nichos = l.getNichos().stream().map(Nicho::getNome).collect(Collectors.toList());
         return new LicitacaoResponse(
             l.getId(),
@@ -236,7 +356,7 @@ public class LicitacaoService {
             l.getGanhador() != null ? l.getGanhador().getNome() : null,
             l.getCreatedAt(),
             nichos,
-            total
+            (int) totalPropostas
         );
     }
 
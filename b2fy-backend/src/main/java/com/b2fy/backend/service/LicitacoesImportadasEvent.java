@@ -0,0 +1,6 @@
+package com.b2fy.backend.service;
+
+import java.util.List;
+
+/** Publicado por {@link ImportacaoLicitacaoService#importar}; um único fan-out do lote, gravado na mesma transação. */
+public record LicitacoesImportadasEvent(List<Long> licitacaoIds) {}
@@ -0,0 +1,169 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.domain.Nicho;
+import com.b2fy.backend.dto.response.NichoResponse;
+import com.b2fy.backend.exception.BusinessException;
+import com.b2fy.backend.repository.NichoRepository;
+import com.b2fy.backend.util.TextoUtil;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Catálogo de nichos em memória, indexado pelo nome normalizado (sem acento e sem diferenciar maiúsculas).
+ * A tabela é pequena e muda pouco: um nome desconhecido recarrega o catálogo do banco antes de ser tratado
+ * como inexistente, e o catálogo é recarregado periodicamente ({@code b2fy.nichos.recarga}) para a listagem
+ * refletir nichos criados ou renomeados por outros nós.
+ */
+@Service
+public class NichoCatalogoService {
+
+    private final NichoRepository nichoRepository;
+
+    /** ReentrantLock em vez de synchronized: recarregar faz I/O e, com virtual threads, synchronized prende a carrier. */
+    private final Lock trava = new ReentrantLock();
+
+    private volatile Map<String, NichoResponse> porChave;
+
+    public NichoCatalogoService(NichoRepository nichoRepository) {
+        this.nichoRepository = nichoRepository;
+    }
+
+    public List<NichoResponse> listar() {
+        return catalogo().values().stream()
+            .sorted(Comparator.comparing(NichoResponse::id))
+            .toList();
+    }
+
+    /** Id do nicho com esse nome, sem consultar o banco se já estiver no catálogo. */
+    public Long buscarId(String nome) {
+        String chave = TextoUtil.normalizar(nome);
+        NichoResponse nicho = catalogo().get(chave);
+        if (nicho == null) nicho = recarregar().get(chave);
+        if (nicho == null) throw new BusinessException("Nicho não encontrado: " + nome.trim());
+        return nicho.id();
+    }
+
+    /**
+     * Resolve um conjunto de nomes em entidades Nicho com uma única consulta por id. Nomes ausentes geram
+     * {@link BusinessException}, ou são criados em lote quando {@code criarFaltantes} (deve rodar em transação).
+     */
+    public Set<Nicho> resolver(Collection<String> nomes, boolean criarFaltantes) {
+        Map<String, String> nomePorChave = new LinkedHashMap<>();
+        for (String nome : nomes) {
+            nomePorChave.putIfAbsent(TextoUtil.normalizar(nome), nome.trim());
+        }
+        Map<String, NichoResponse> atual = catalogo();
+        if (!atual.keySet().containsAll(nomePorChave.keySet())) {
+            atual = recarregar();
+        }
+        List<Long> ids = new ArrayList<>();
+        List<Nicho> novos = new ArrayList<>();
+        for (Map.Entry<String, String> e : nomePorChave.entrySet()) {
+            NichoResponse existente = atual.get(e.getKey());
+            if (existente != null) {
+                ids.add(existente.id());
+            } else if (criarFaltantes) {
+                Nicho novo = new Nicho();
+                novo.setNome(e.getValue());
+                novos.add(novo);
+            } else {
+                throw new BusinessException("Nicho não encontrado: " + e.getValue());
+            }
+        }
+        Set<Nicho> nichos = new HashSet<>();
+        if (!ids.isEmpty()) {
+            nichos.addAll(nichoRepository.findAllById(ids));
+        }
+        if (!novos.isEmpty()) {
+            List<Nicho> criados = nichoRepository.saveAll(novos);
+            nichos.addAll(criados);
+            registrarAposCommit(criados);
+        }
+        return nichos;
+    }
+
+    /**
+     * Nichos existentes entre os nomes informados, indexados pelo nome normalizado ({@link TextoUtil#normalizar}),
+     * com uma única consulta por id. Nomes desconhecidos ficam de fora, para quem precisa relatar erro por item.
+     */
+    public Map<String, Nicho> resolverExistentes(Collection<String> nomes) {
+        Set<String> chaves = new HashSet<>();
+        for (String nome : nomes) {
+            chaves.add(TextoUtil.normalizar(nome));
+        }
+        Map<String, NichoResponse> atual = catalogo();
+        if (!atual.keySet().containsAll(chaves)) {
+            atual = recarregar();
+        }
+        Map<Long, String> chavePorId = new HashMap<>();
+        for (String chave : chaves) {
+            NichoResponse existente = atual.get(chave);
+            if (existente != null) chavePorId.put(existente.id(), chave);
+        }
+        Map<String, Nicho> nichos = new HashMap<>();
+        if (!chavePorId.isEmpty()) {
+            for (Nicho n : nichoRepository.findAllById(chavePorId.keySet())) {
+                nichos.put(chavePorId.get(n.getId()), n);
+            }
+        }
+        return nichos;
+    }
+
+    @Scheduled(fixedDelayString = "${b2fy.nichos.recarga:PT5M}", initialDelayString = "${b2fy.nichos.recarga:PT5M}")
+    public void recarregarPeriodicamente() {
+        recarregar();
+    }
+
+    private Map<String, NichoResponse> catalogo() {
+        Map<String, NichoResponse> atual = porChave;
+        return atual != null ? atual : recarregar();
+    }
+
+    private Map<String, NichoResponse> recarregar() {
+        trava.lock();
+        try {
+            Map<String, NichoResponse> novo = new HashMap<>();
+            for (Nicho n : nichoRepository.findAll()) {
+                novo.put(TextoUtil.normalizar(n.getNome()), new NichoResponse(n.getId(), n.getNome()));
+            }
+            porChave = Collections.unmodifiableMap(novo);
+            return porChave;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /** Só publica os nichos criados no catálogo se a transação que os inseriu for confirmada. */
+    private void registrarAposCommit(List<Nicho> criados) {
+        List<NichoResponse> refs = criados.stream().map(n -> new NichoResponse(n.getId(), n.getNome())).toList();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            adicionar(refs);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                adicionar(refs);
+            }
+        });
+    }
+
+    private void adicionar(List<NichoResponse> refs) {
+        trava.lock();
+        try {
+            Map<String, NichoResponse> novo = new HashMap<>(catalogo());
+            for (NichoResponse ref : refs) {
+                novo.put(TextoUtil.normalizar(ref.nome()), ref);
+            }
+            porChave = Collections.unmodifiableMap(novo);
+        } finally {
+            trava.unlock();
+        }
+    }
+}
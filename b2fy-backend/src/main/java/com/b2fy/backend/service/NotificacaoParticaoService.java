@@ -0,0 +1,122 @@
+package com.b2fy.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Manutenção das partições mensais de notificacao (RANGE por created_at, em UTC; ver db/003_notificacao_particionada.sql).
+ * Cria as partições dos próximos meses e remove (ou desanexa, se {@code arquivar}) as que saíram da retenção.
+ * {@link #inicioRetencao()} é o limite inferior usado nas consultas por usuário, para o planner podar as partições antigas.
+ */
+@Service
+public class NotificacaoParticaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificacaoParticaoService.class);
+    private static final String PREFIXO = "notificacao_p";
+    private static final DateTimeFormatter SUFIXO = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${b2fy.notificacoes.particoes.retencao-meses:12}")
+    private int retencaoMeses;
+
+    @Value("${b2fy.notificacoes.particoes.meses-a-frente:3}")
+    private int mesesAFrente;
+
+    @Value("${b2fy.notificacoes.particoes.arquivar:false}")
+    private boolean arquivar;
+
+    public NotificacaoParticaoService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Início (UTC) do mês mais antigo ainda retido; notificações anteriores não são consultadas. */
+    public Instant inicioRetencao() {
+        return primeiroMesRetido().atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    @Scheduled(cron = "${b2fy.notificacoes.particoes.cron:0 0 4 * * *}")
+    public void manter() {
+        if (!particionada()) {
+            log.warn("Tabela notificacao não é particionada; rode db/003_notificacao_particionada.sql para ativar a retenção");
+            return;
+        }
+        YearMonth atual = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= mesesAFrente; i++) {
+            criarParticao(atual.plusMonths(i));
+        }
+        YearMonth primeiroRetido = primeiroMesRetido();
+        for (String particao : listarParticoes()) {
+            YearMonth mes = mesDaParticao(particao);
+            if (mes != null && mes.isBefore(primeiroRetido)) {
+                removerParticao(particao);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void manterAoIniciar() {
+        manter();
+    }
+
+    private YearMonth primeiroMesRetido() {
+        return YearMonth.now(ZoneOffset.UTC).minusMonths(Math.max(1, retencaoMeses) - 1L);
+    }
+
+    private boolean particionada() {
+        Boolean existe = jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('notificacao'))",
+            Boolean.class
+        );
+        return Boolean.TRUE.equals(existe);
+    }
+
+    private List<String> listarParticoes() {
+        return jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'notificacao'::regclass",
+            String.class
+        );
+    }
+
+    private void criarParticao(YearMonth mes) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + PREFIXO + mes.format(SUFIXO) +
+            " PARTITION OF notificacao FOR VALUES FROM ('" + limite(mes) + "') TO ('" + limite(mes.plusMonths(1)) + "')");
+    }
+
+    private void removerParticao(String particao) {
+        if (arquivar) {
+            jdbcTemplate.execute("ALTER TABLE notificacao DETACH PARTITION " + particao);
+            log.info("Partição {} desanexada de notificacao (arquivada)", particao);
+        } else {
+            jdbcTemplate.execute("DROP TABLE " + particao);
+            log.info("Partição {} removida de notificacao", particao);
+        }
+    }
+
+    private static String limite(YearMonth mes) {
+        return mes.atDay(1) + " 00:00:00+00";
+    }
+
+    private static YearMonth mesDaParticao(String particao) {
+        if (!particao.startsWith(PREFIXO)) return null;
+        try {
+            return YearMonth.parse(particao.substring(PREFIXO.length()), SUFIXO);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
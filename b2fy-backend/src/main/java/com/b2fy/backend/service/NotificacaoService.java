@@ -2,45 +2,107 @@ package com.b2fy.backend.service;
 
 import com.b2fy.backend.domain.*;
 import com.b2fy.backend.dto.response.NotificacaoResponse;
+import com.b2fy.backend.dto.response.PaginaResponse;
 import com.b2fy.backend.exception.BusinessException;
 import com.b2fy.backend.repository.NotificacaoRepository;
+import com.b2fy.backend.repository.UsuarioRepository;
+import com.b2fy.backend.util.CursorUtil;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class NotificacaoService {
 
     private final NotificacaoRepository notificacaoRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final ContadorNaoLidasService contadorNaoLidasService;
+    private final NotificacaoSinalService notificacaoSinalService;
+    private final NotificacaoParticaoService notificacaoParticaoService;
+    private final PaginacaoService paginacaoService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public NotificacaoService(NotificacaoRepository notificacaoRepository) {
+    public NotificacaoService(
+        NotificacaoRepository notificacaoRepository,
+        UsuarioRepository usuarioRepository,
+        ContadorNaoLidasService contadorNaoLidasService,
+        NotificacaoSinalService notificacaoSinalService,
+        NotificacaoParticaoService notificacaoParticaoService,
+        PaginacaoService paginacaoService,
+        ApplicationEventPublisher eventPublisher
+    ) {
         this.notificacaoRepository = notificacaoRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.contadorNaoLidasService = contadorNaoLidasService;
+        this.notificacaoSinalService = notificacaoSinalService;
+        this.notificacaoParticaoService = notificacaoParticaoService;
+        this.paginacaoService = paginacaoService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
-    public List<NotificacaoResponse> listarPorUsuario() {
+    public PaginaResponse<NotificacaoResponse> listarPorUsuario(String cursor, int limite) {
         Long userId = UsuarioService.getCurrentUserId();
-        List<Notificacao> list = notificacaoRepository.findByUsuarioIdOrderByCreatedAtDesc(userId);
-        return list.stream().map(this::toResponse).collect(Collectors.toList());
+        CursorUtil.Posicao posicao = CursorUtil.decodificar(cursor);
+        int tamanho = paginacaoService.limitar(limite);
+        Pageable pageable = PageRequest.of(0, tamanho + 1);
+        Instant desde = notificacaoParticaoService.inicioRetencao();
+        List<Notificacao> list = posicao == null
+            ? notificacaoRepository.findByUsuarioIdOrderByCreatedAtDescIdDesc(userId, desde, pageable)
+            : notificacaoRepository.findPaginaByUsuarioId(userId, desde, posicao.createdAt(), posicao.id(), pageable);
+        boolean temMais = list.size() > tamanho;
+        List<Notificacao> itens = temMais ? list.subList(0, tamanho) : list;
+        String proximoCursor = null;
+        if (temMais) {
+            Notificacao ultima = itens.get(itens.size() - 1);
+            proximoCursor = CursorUtil.codificar(ultima.getCreatedAt(), ultima.getId());
+        }
+        return new PaginaResponse<>(itens.stream().map(NotificacaoService::toResponse).collect(Collectors.toList()), proximoCursor, null);
     }
 
-    @Transactional(readOnly = true)
     public long countNaoLidas() {
-        Long userId = UsuarioService.getCurrentUserId();
-        return notificacaoRepository.countByUsuarioIdAndLidaFalse(userId);
+        return contadorNaoLidasService.obter(UsuarioService.getCurrentUserId());
     }
 
     @Transactional
     public void marcarComoLida(Long id) {
-        Notificacao n = notificacaoRepository.findById(id)
-            .orElseThrow(() -> new BusinessException("Notificação não encontrada."));
-        if (!n.getUsuario().getId().equals(UsuarioService.getCurrentUserId())) {
-            throw new BusinessException("Notificação não encontrada.");
+        Long userId = UsuarioService.getCurrentUserId();
+        contadorNaoLidasService.travar(userId);
+        int atualizadas = notificacaoRepository.marcarComoLida(id, userId, notificacaoParticaoService.inicioRetencao());
+        if (atualizadas == 0) {
+            // Já lida (inclusive por uma requisição concorrente) ou não é do usuário
+            if (!notificacaoRepository.existsByIdAndUsuarioId(id, userId)) {
+                throw new BusinessException("Notificação não encontrada.");
+            }
+            return;
+        }
+        contadorNaoLidasService.notificacoesLidas(userId, 1);
+        eventPublisher.publishEvent(new NotificacoesLidasEvent(userId, 1));
+    }
+
+    /** Marca como lidas, num único UPDATE, todas as notificações do usuário ou só as do cursor {@code ate} para trás. */
+    @Transactional
+    public void marcarComoLidas(String ate) {
+        Long userId = UsuarioService.getCurrentUserId();
+        CursorUtil.Posicao posicao = CursorUtil.decodificar(ate);
+        contadorNaoLidasService.travar(userId);
+        Instant desde = notificacaoParticaoService.inicioRetencao();
+        int atualizadas = posicao == null
+            ? notificacaoRepository.marcarTodasComoLidas(userId, desde)
+            : notificacaoRepository.marcarComoLidasAte(userId, desde, posicao.createdAt(), posicao.id());
+        if (atualizadas > 0) {
+            contadorNaoLidasService.notificacoesLidas(userId, atualizadas);
+            eventPublisher.publishEvent(new NotificacoesLidasEvent(userId, atualizadas));
         }
-        n.setLida(true);
-        notificacaoRepository.save(n);
     }
 
     @Transactional
@@ -48,6 +110,27 @@ public class NotificacaoService {
         criar(fornecedor, licitacao, TipoNotificacao.LICITACAO_ABERTA, mensagem);
     }
 
+    /** Cria uma notificação de licitação aberta por fornecedor, usando referências (sem carregar os usuários). */
+    @Transactional
+    public void criarLicitacaoAbertaEmLote(Collection<Long> fornecedorIds, Licitacao licitacao, String mensagem) {
+        criarEmLote(fornecedorIds, licitacao, TipoNotificacao.LICITACAO_ABERTA, mensagem);
+    }
+
+    /** Licitação nova que casou com uma busca salva de cada fornecedor. */
+    @Transactional
+    public void criarBuscaSalvaEmLote(Collection<Long> fornecedorIds, Licitacao licitacao, String mensagem) {
+        criarEmLote(fornecedorIds, licitacao, TipoNotificacao.BUSCA_SALVA, mensagem);
+    }
+
+    /** Prazo de propostas vencido: avisa a empresa dona de cada licitação, com a mensagem correspondente. */
+    @Transactional
+    public void criarPrazoEncerradoEmLote(Map<Licitacao, String> mensagens) {
+        List<Notificacao> lote = new ArrayList<>(mensagens.size());
+        mensagens.forEach((licitacao, mensagem) -> lote.add(nova(licitacao.getEmpresa(), licitacao, TipoNotificacao.PRAZO_ENCERRADO, mensagem)));
+        notificacaoRepository.saveAll(lote);
+        registrarCriadas(lote);
+    }
+
     @Transactional
     public void criarSelecionado2Fase(Usuario fornecedor, Licitacao licitacao, String mensagem) {
         criar(fornecedor, licitacao, TipoNotificacao.SELECIONADO_2FASE, mensagem);
@@ -58,16 +141,41 @@ public class NotificacaoService {
         criar(fornecedor, licitacao, TipoNotificacao.GANHADOR, mensagem);
     }
 
+    private void criarEmLote(Collection<Long> usuarioIds, Licitacao licitacao, TipoNotificacao tipo, String mensagem) {
+        List<Notificacao> lote = new ArrayList<>(usuarioIds.size());
+        for (Long usuarioId : usuarioIds) {
+            lote.add(nova(usuarioRepository.getReferenceById(usuarioId), licitacao, tipo, mensagem));
+        }
+        notificacaoRepository.saveAll(lote);
+        registrarCriadas(lote);
+    }
+
     private void criar(Usuario usuario, Licitacao licitacao, TipoNotificacao tipo, String mensagem) {
+        Notificacao n = notificacaoRepository.save(nova(usuario, licitacao, tipo, mensagem));
+        registrarCriadas(List.of(n));
+    }
+
+    /** Soma ao contador de não lidas e sinaliza os outros nós na mesma transação; avisa o stream local após o commit. */
+    private void registrarCriadas(List<Notificacao> notificacoes) {
+        List<Long> usuarioIds = notificacoes.stream().map(n -> n.getUsuario().getId()).toList();
+        contadorNaoLidasService.notificacoesCriadas(usuarioIds);
+        notificacaoSinalService.sinalizar(usuarioIds);
+        List<NotificacoesCriadasEvent.Item> itens = notificacoes.stream()
+            .map(n -> new NotificacoesCriadasEvent.Item(n.getUsuario().getId(), toResponse(n)))
+            .toList();
+        eventPublisher.publishEvent(new NotificacoesCriadasEvent(itens));
+    }
+
+    private Notificacao nova(Usuario usuario, Licitacao licitacao, TipoNotificacao tipo, String mensagem) {
         Notificacao n = new Notificacao();
         n.setUsuario(usuario);
         n.setLicitacao(licitacao);
         n.setTipo(tipo);
         n.setMensagem(mensagem);
-        notificacaoRepository.save(n);
+        return n;
     }
 
-    private NotificacaoResponse toResponse(Notificacao n) {
+    static NotificacaoResponse toResponse(Notificacao n) {
         return new NotificacaoResponse(
             n.getId(),
             n.getLicitacao().getId(),
@@ -0,0 +1,144 @@
+package com.b2fy.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Avisa os outros nós de que há notificações novas para certos usuários, por LISTEN/NOTIFY do PostgreSQL. O NOTIFY
+ * roda na transação que grava as notificações, então só é entregue depois do commit (e some num rollback), na ordem
+ * dos commits. Um nó só escuta depois da primeira conexão SSE, numa conexão JDBC própria, fora do pool; os sinais
+ * recebidos viram {@link NotificacoesSinalizadasEvent}. Os sinais do próprio nó são ignorados: o stream já recebeu
+ * {@link NotificacoesCriadasEvent} após o commit.
+ */
+@Service
+public class NotificacaoSinalService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificacaoSinalService.class);
+    private static final String CANAL = "b2fy_notificacoes";
+
+    /** O payload do NOTIFY tem limite de 8000 bytes; 400 ids cabem com folga. */
+    private static final int IDS_POR_SINAL = 400;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String origem = UUID.randomUUID().toString();
+    private final Duration espera;
+    private final Duration reconexao;
+
+    private Thread escuta;
+    private volatile boolean encerrado;
+
+    public NotificacaoSinalService(
+        JdbcTemplate jdbcTemplate,
+        DataSourceProperties dataSourceProperties,
+        ApplicationEventPublisher eventPublisher,
+        @Value("${b2fy.notificacoes.sinal.espera:PT1S}") Duration espera,
+        @Value("${b2fy.notificacoes.sinal.reconexao:PT5S}") Duration reconexao
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.eventPublisher = eventPublisher;
+        this.espera = espera;
+        this.reconexao = reconexao;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sinalizar(Collection<Long> usuarioIds) {
+        List<Long> ids = new ArrayList<>(new HashSet<>(usuarioIds));
+        for (int i = 0; i < ids.size(); i += IDS_POR_SINAL) {
+            String payload = origem + ":" + ids.subList(i, Math.min(i + IDS_POR_SINAL, ids.size())).stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", (RowCallbackHandler) rs -> { }, CANAL, payload);
+        }
+    }
+
+    /** Começa a escutar, se ainda não escuta. Chamado a cada conexão SSE; só a primeira cria a thread. */
+    public synchronized void escutar() {
+        if (escuta != null || encerrado) return;
+        escuta = new Thread(this::escutarEmLoop, "notificacoes-sinal");
+        escuta.setDaemon(true);
+        escuta.start();
+    }
+
+    @PreDestroy
+    public synchronized void encerrar() {
+        encerrado = true;
+        if (escuta != null) escuta.interrupt();
+    }
+
+    private void escutarEmLoop() {
+        boolean reconexaoPendente = false;
+        while (!encerrado) {
+            try (Connection conexao = DriverManager.getConnection(
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword()
+            )) {
+                try (Statement st = conexao.createStatement()) {
+                    st.execute("LISTEN " + CANAL);
+                }
+                if (reconexaoPendente) {
+                    // sinais enviados enquanto a escuta estava fora se perderam
+                    eventPublisher.publishEvent(new NotificacoesSinalizadasEvent(Set.of()));
+                    reconexaoPendente = false;
+                }
+                PGConnection pg = conexao.unwrap(PGConnection.class);
+                while (!encerrado) {
+                    PGNotification[] sinais = pg.getNotifications((int) espera.toMillis());
+                    Set<Long> usuarioIds = new HashSet<>();
+                    if (sinais != null) {
+                        for (PGNotification sinal : sinais) {
+                            ler(sinal.getParameter(), usuarioIds);
+                        }
+                    }
+                    if (!usuarioIds.isEmpty()) {
+                        eventPublisher.publishEvent(new NotificacoesSinalizadasEvent(usuarioIds));
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (encerrado) return;
+                log.warn("Escuta de sinais de notificação interrompida; reconectando em {}", reconexao, e);
+                reconexaoPendente = true;
+                try {
+                    Thread.sleep(reconexao.toMillis());
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void ler(String payload, Set<Long> usuarioIds) {
+        int separador = payload.indexOf(':');
+        if (separador < 0 || payload.substring(0, separador).equals(origem)) return;
+        for (String id : payload.substring(separador + 1).split(",")) {
+            if (!id.isEmpty()) usuarioIds.add(Long.parseLong(id));
+        }
+    }
+}
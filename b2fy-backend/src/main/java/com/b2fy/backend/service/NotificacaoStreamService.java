@@ -0,0 +1,285 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.domain.Notificacao;
+import com.b2fy.backend.dto.response.NotificacaoResponse;
+import com.b2fy.backend.exception.BusinessException;
+import com.b2fy.backend.repository.NotificacaoRepository;
+import com.b2fy.backend.util.CursorUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Conexões SSE de notificações por usuário. Eventos "notificacao" levam como id SSE o cursor (createdAt, id)
+ * da notificação ({@link CursorUtil}); eventos "nao-lidas" levam a contagem atual e não têm id. As conexões mais
+ * antigas de um usuário são fechadas acima do limite.
+ * Os ids vêm de sequences com blocos por nó e as transações confirmam fora de ordem, então nem id nem createdAt
+ * dizem o que já foi visto: o replay de Last-Event-ID recomeça {@code margem} antes do cursor (o cliente descarta
+ * repetidas pelo id da notificação). Se houver mais que {@code limite-replay} notificações a reenviar, nenhuma é
+ * enviada: um evento "resync" (com o cursor da mais recente como id) manda o cliente recarregar a caixa pela API.
+ * As notificações são enviadas após o commit no nó que as gravou; as gravadas em outro nó chegam pelo sinal de
+ * {@link NotificacaoSinalService}, e só então este nó lê as recentes dos usuários sinalizados que estão conectados
+ * aqui. Uma sondagem lenta ({@code sondagem}) cobre sinais perdidos e só roda com conexões abertas.
+ */
+@Service
+public class NotificacaoStreamService {
+
+    private static final String EVENTO_NOTIFICACAO = "notificacao";
+    private static final String EVENTO_NAO_LIDAS = "nao-lidas";
+    private static final String EVENTO_RESYNC = "resync";
+
+    private final NotificacaoRepository notificacaoRepository;
+    private final ContadorNaoLidasService contadorNaoLidasService;
+    private final NotificacaoParticaoService notificacaoParticaoService;
+    private final NotificacaoSinalService notificacaoSinalService;
+    private final Map<Long, List<SseEmitter>> conexoes = new ConcurrentHashMap<>();
+
+    /** Por usuário conectado: notificações já enviadas por este nó (id -> createdAt), dentro da margem. */
+    private final Map<Long, Map<Long, Instant>> enviadas = new ConcurrentHashMap<>();
+
+    @Value("${b2fy.notificacoes.stream.max-conexoes-por-usuario:3}")
+    private int maxConexoesPorUsuario;
+
+    @Value("${b2fy.notificacoes.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${b2fy.notificacoes.stream.limite-replay:100}")
+    private int limiteReplay;
+
+    @Value("${b2fy.notificacoes.stream.reconexao-ms:3000}")
+    private long reconexaoMs;
+
+    /** Maior atraso esperado entre o createdAt de uma notificação e o commit da sua transação. */
+    @Value("${b2fy.notificacoes.stream.margem:PT2M}")
+    private Duration margem;
+
+    @Value("${b2fy.notificacoes.stream.lote-sondagem:500}")
+    private int loteSondagem;
+
+    public NotificacaoStreamService(
+        NotificacaoRepository notificacaoRepository,
+        ContadorNaoLidasService contadorNaoLidasService,
+        NotificacaoParticaoService notificacaoParticaoService,
+        NotificacaoSinalService notificacaoSinalService
+    ) {
+        this.notificacaoRepository = notificacaoRepository;
+        this.contadorNaoLidasService = contadorNaoLidasService;
+        this.notificacaoParticaoService = notificacaoParticaoService;
+        this.notificacaoSinalService = notificacaoSinalService;
+    }
+
+    public SseEmitter conectar(String lastEventId) {
+        Long usuarioId = UsuarioService.getCurrentUserId();
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitter.onCompletion(() -> remover(usuarioId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remover(usuarioId, emitter));
+
+        List<SseEmitter> excedentes = new ArrayList<>();
+        enviadas.computeIfAbsent(usuarioId, id -> new ConcurrentHashMap<>());
+        conexoes.compute(usuarioId, (id, lista) -> {
+            List<SseEmitter> atual = lista != null ? lista : new CopyOnWriteArrayList<>();
+            atual.add(emitter);
+            while (atual.size() > maxConexoesPorUsuario) {
+                excedentes.add(atual.remove(0));
+            }
+            return atual;
+        });
+        excedentes.forEach(SseEmitter::complete);
+        notificacaoSinalService.escutar();
+
+        enviar(usuarioId, emitter, SseEmitter.event().reconnectTime(reconexaoMs).comment("conectado"));
+        CursorUtil.Posicao ultimo = parseLastEventId(lastEventId);
+        if (ultimo != null) {
+            reenviar(usuarioId, emitter, ultimo);
+        }
+        enviar(usuarioId, emitter, eventoNaoLidas(contadorNaoLidasService.obter(usuarioId)));
+        return emitter;
+    }
+
+    /**
+     * Reenvia, em ordem de (createdAt, id), as notificações desde {@code margem} antes do último cursor visto. Com mais
+     * de {@code limiteReplay} (cliente desconectado por muito tempo), um replay parcial deixaria de fora justamente as
+     * mais recentes; nesse caso vai só o "resync", com o cursor da mais recente, e o cliente recarrega pela API.
+     */
+    private void reenviar(Long usuarioId, SseEmitter emitter, CursorUtil.Posicao ultimo) {
+        Instant inicioRetencao = notificacaoParticaoService.inicioRetencao();
+        Instant desde = ultimo.createdAt().minus(margem);
+        if (desde.isBefore(inicioRetencao)) desde = inicioRetencao;
+        List<Notificacao> pendentes = notificacaoRepository.findRecentesByUsuarioIds(
+            List.of(usuarioId), desde, desde, 0L, PageRequest.of(0, limiteReplay + 1)
+        );
+        if (pendentes.size() > limiteReplay) {
+            Notificacao maisRecente = notificacaoRepository
+                .findByUsuarioIdOrderByCreatedAtDescIdDesc(usuarioId, inicioRetencao, PageRequest.of(0, 1))
+                .get(0);
+            enviar(usuarioId, emitter, SseEmitter.event()
+                .id(CursorUtil.codificar(maisRecente.getCreatedAt(), maisRecente.getId()))
+                .name(EVENTO_RESYNC)
+                .data(Map.of(), MediaType.APPLICATION_JSON));
+            return;
+        }
+        for (Notificacao n : pendentes) {
+            registrarEnviada(usuarioId, n.getId(), n.getCreatedAt());
+            enviar(usuarioId, emitter, eventoNotificacao(NotificacaoService.toResponse(n)));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onNotificacoesCriadas(NotificacoesCriadasEvent event) {
+        Map<Long, List<NotificacaoResponse>> porUsuario = new HashMap<>();
+        for (NotificacoesCriadasEvent.Item item : event.itens()) {
+            if (conexoes.containsKey(item.usuarioId())) {
+                porUsuario.computeIfAbsent(item.usuarioId(), k -> new ArrayList<>()).add(item.notificacao());
+            }
+        }
+        porUsuario.forEach((usuarioId, notificacoes) -> {
+            notificacoes.stream()
+                .filter(n -> registrarEnviada(usuarioId, n.id(), n.createdAt()))
+                .forEach(n -> enviarParaUsuario(usuarioId, () -> eventoNotificacao(n)));
+            enviarContagem(usuarioId);
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onNotificacoesLidas(NotificacoesLidasEvent event) {
+        if (conexoes.containsKey(event.usuarioId())) {
+            enviarContagem(event.usuarioId());
+        }
+    }
+
+    /** Comentário periódico para manter a conexão viva em proxies e detectar clientes que já saíram. */
+    @Scheduled(fixedDelayString = "${b2fy.notificacoes.stream.heartbeat:PT25S}")
+    public void heartbeat() {
+        conexoes.forEach((usuarioId, emitters) ->
+            emitters.forEach(emitter -> enviar(usuarioId, emitter, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    /** Notificações gravadas em outro nó: lê as recentes só dos usuários sinalizados que estão conectados aqui. */
+    @EventListener
+    public void onNotificacoesSinalizadas(NotificacoesSinalizadasEvent event) {
+        List<Long> usuarioIds = event.usuarioIds().isEmpty()
+            ? new ArrayList<>(conexoes.keySet())
+            : event.usuarioIds().stream().filter(conexoes::containsKey).toList();
+        enviarRecentes(usuarioIds);
+    }
+
+    /** Rede de segurança para sinais perdidos; também limpa o registro de enviadas que já saíram da margem. */
+    @Scheduled(fixedDelayString = "${b2fy.notificacoes.stream.sondagem:PT1M}")
+    public void sondar() {
+        if (conexoes.isEmpty()) return;
+        Instant desde = Instant.now().minus(margem);
+        enviadas.values().forEach(porId -> porId.values().removeIf(createdAt -> createdAt.isBefore(desde)));
+        enviarRecentes(new ArrayList<>(conexoes.keySet()));
+    }
+
+    /**
+     * Envia as notificações dos últimos {@code margem} dos usuários informados que ainda não foram enviadas daqui,
+     * com a contagem atual de quem recebeu alguma (a coluna já inclui o que outros nós gravaram).
+     */
+    private void enviarRecentes(List<Long> usuarioIds) {
+        if (usuarioIds.isEmpty()) return;
+        Instant desde = Instant.now().minus(margem);
+        for (int i = 0; i < usuarioIds.size(); i += loteSondagem) {
+            List<Long> lote = usuarioIds.subList(i, Math.min(i + loteSondagem, usuarioIds.size()));
+            Set<Long> comNovas = new LinkedHashSet<>();
+            Instant createdAt = desde;
+            Long id = 0L;
+            while (true) {
+                List<Notificacao> pagina = notificacaoRepository.findRecentesByUsuarioIds(
+                    lote, desde, createdAt, id, PageRequest.of(0, limiteReplay)
+                );
+                for (Notificacao n : pagina) {
+                    Long usuarioId = n.getUsuario().getId();
+                    if (registrarEnviada(usuarioId, n.getId(), n.getCreatedAt())) {
+                        NotificacaoResponse resposta = NotificacaoService.toResponse(n);
+                        enviarParaUsuario(usuarioId, () -> eventoNotificacao(resposta));
+                        comNovas.add(usuarioId);
+                    }
+                }
+                if (pagina.size() < limiteReplay) break;
+                Notificacao ultima = pagina.get(pagina.size() - 1);
+                createdAt = ultima.getCreatedAt();
+                id = ultima.getId();
+            }
+            for (Long usuarioId : comNovas) {
+                enviarContagem(usuarioId);
+            }
+        }
+    }
+
+    /** Marca a notificação como enviada ao usuário; false se já tinha sido (ou se ele não está conectado). */
+    private boolean registrarEnviada(Long usuarioId, Long notificacaoId, Instant createdAt) {
+        Map<Long, Instant> porId = enviadas.get(usuarioId);
+        return porId != null && porId.putIfAbsent(notificacaoId, createdAt) == null;
+    }
+
+    private void enviarContagem(Long usuarioId) {
+        long count = contadorNaoLidasService.obter(usuarioId);
+        enviarParaUsuario(usuarioId, () -> eventoNaoLidas(count));
+    }
+
+    /** Um builder por conexão: SseEventBuilder acumula estado em build() e não pode ser reaproveitado. */
+    private void enviarParaUsuario(Long usuarioId, Supplier<SseEmitter.SseEventBuilder> evento) {
+        List<SseEmitter> emitters = conexoes.get(usuarioId);
+        if (emitters == null) return;
+        emitters.forEach(emitter -> enviar(usuarioId, emitter, evento.get()));
+    }
+
+    private void enviar(Long usuarioId, SseEmitter emitter, SseEmitter.SseEventBuilder evento) {
+        try {
+            emitter.send(evento);
+        } catch (IOException | IllegalStateException e) {
+            remover(usuarioId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void remover(Long usuarioId, SseEmitter emitter) {
+        conexoes.computeIfPresent(usuarioId, (id, lista) -> {
+            lista.remove(emitter);
+            if (!lista.isEmpty()) return lista;
+            enviadas.remove(id);
+            return null;
+        });
+    }
+
+    private static SseEmitter.SseEventBuilder eventoNotificacao(NotificacaoResponse n) {
+        return SseEmitter.event()
+            .id(CursorUtil.codificar(n.createdAt(), n.id()))
+            .name(EVENTO_NOTIFICACAO)
+            .data(n, MediaType.APPLICATION_JSON);
+    }
+
+    private static SseEmitter.SseEventBuilder eventoNaoLidas(long count) {
+        return SseEmitter.event().name(EVENTO_NAO_LIDAS).data(Map.of("count", count), MediaType.APPLICATION_JSON);
+    }
+
+    /** Um Last-Event-ID inválido (ex.: id numérico de versões anteriores) só dispensa o replay. */
+    private static CursorUtil.Posicao parseLastEventId(String lastEventId) {
+        try {
+            return CursorUtil.decodificar(lastEventId != null ? lastEventId.trim() : null);
+        } catch (BusinessException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.dto.response.NotificacaoResponse;
+
+import java.util.List;
+
+/** Notificações gravadas na transação corrente; após o commit atualizam o contador e o stream SSE. */
+public record NotificacoesCriadasEvent(List<Item> itens) {
+
+    public record Item(Long usuarioId, NotificacaoResponse notificacao) {}
+}
@@ -0,0 +1,4 @@
+package com.b2fy.backend.service;
+
+/** Notificações de um usuário que passaram a lidas; após o commit atualizam o contador e o stream SSE. */
+public record NotificacoesLidasEvent(Long usuarioId, long quantidade) {}
@@ -0,0 +1,9 @@
+package com.b2fy.backend.service;
+
+import java.util.Set;
+
+/**
+ * Outro nó gravou notificações para estes usuários (sinal de {@link NotificacaoSinalService}, já após o commit dele).
+ * Vazio quando a escuta foi refeita e sinais podem ter se perdido: vale para todos os usuários conectados.
+ */
+public record NotificacoesSinalizadasEvent(Set<Long> usuarioIds) {}
@@ -0,0 +1,20 @@
+package com.b2fy.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/** Tamanho de página das listagens paginadas por cursor (licitações, propostas, notificações). */
+@Service
+public class PaginacaoService {
+
+    private final int limiteMaximo;
+
+    public PaginacaoService(@Value("${b2fy.paginacao.limite-maximo:100}") int limiteMaximo) {
+        this.limiteMaximo = limiteMaximo;
+    }
+
+    /** O {@code limite} pedido pelo cliente, ajustado para o intervalo [1, b2fy.paginacao.limite-maximo]. */
+    public int limitar(int limite) {
+        return Math.max(1, Math.min(limite, limiteMaximo));
+    }
+}
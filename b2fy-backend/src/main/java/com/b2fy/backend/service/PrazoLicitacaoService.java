@@ -0,0 +1,137 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.domain.FaseLicitacao;
+import com.b2fy.backend.domain.FaseProposta;
+import com.b2fy.backend.domain.Licitacao;
+import com.b2fy.backend.repository.ContagemPropostas;
+import com.b2fy.backend.repository.LicitacaoRepository;
+import com.b2fy.backend.repository.PropostaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fecha a primeira fase das licitações cuja dataFechamento passou. Cada lote é uma transação que reserva as
+ * licitações com FOR UPDATE SKIP LOCKED (seguro com vários nós) e as atualiza em bloco: as que não receberam
+ * proposta são encerradas (desertas, com os contadores do dashboard ajustados); as demais só deixam de aceitar
+ * propostas, aguardando a escolha do ganhador ou a segunda fase. A empresa dona recebe uma notificação.
+ */
+@Service
+public class PrazoLicitacaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(PrazoLicitacaoService.class);
+
+    private final LicitacaoRepository licitacaoRepository;
+    private final PropostaRepository propostaRepository;
+    private final ContadorEmpresaService contadorEmpresaService;
+    private final DashboardCacheService dashboardCacheService;
+    private final NotificacaoService notificacaoService;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter prazosEncerrados;
+    private final Counter desertas;
+
+    @Value("${b2fy.licitacao.prazo.lote:100}")
+    private int tamanhoLote;
+
+    public PrazoLicitacaoService(
+        LicitacaoRepository licitacaoRepository,
+        PropostaRepository propostaRepository,
+        ContadorEmpresaService contadorEmpresaService,
+        DashboardCacheService dashboardCacheService,
+        NotificacaoService notificacaoService,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.licitacaoRepository = licitacaoRepository;
+        this.propostaRepository = propostaRepository;
+        this.contadorEmpresaService = contadorEmpresaService;
+        this.dashboardCacheService = dashboardCacheService;
+        this.notificacaoService = notificacaoService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.prazosEncerrados = Counter.builder("b2fy.licitacao.prazos-encerrados")
+            .description("Licitações cuja primeira fase foi fechada por prazo vencido")
+            .register(meterRegistry);
+        this.desertas = Counter.builder("b2fy.licitacao.desertas")
+            .description("Licitações encerradas por prazo vencido sem nenhuma proposta")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${b2fy.licitacao.prazo.intervalo:PT5M}")
+    public void encerrarVencidas() {
+        LocalDate hoje = LocalDate.now();
+        int total = 0;
+        while (true) {
+            Resultado resultado = transactionTemplate.execute(status -> processarLote(hoje));
+            if (resultado == null) break;
+            prazosEncerrados.increment(resultado.comPropostas());
+            desertas.increment(resultado.semPropostas());
+            int n = resultado.comPropostas() + resultado.semPropostas();
+            total += n;
+            if (n < tamanhoLote) break;
+        }
+        if (total > 0) {
+            log.info("Prazo encerrado para {} licitação(ões)", total);
+        }
+    }
+
+    private Resultado processarLote(LocalDate hoje) {
+        List<Long> ids = licitacaoRepository.reservarComPrazoVencido(hoje, tamanhoLote);
+        if (ids.isEmpty()) return new Resultado(0, 0);
+        Map<Long, Long> propostasPorLicitacao = new HashMap<>();
+        for (ContagemPropostas c : propostaRepository.countByLicitacaoIdsGroupByFase(ids)) {
+            if (c.fase() == FaseProposta.FASE_1) propostasPorLicitacao.put(c.licitacaoId(), c.total());
+        }
+        List<Long> semPropostas = new ArrayList<>();
+        List<Long> comPropostas = new ArrayList<>();
+        for (Long id : ids) {
+            if (propostasPorLicitacao.getOrDefault(id, 0L) == 0) {
+                semPropostas.add(id);
+            } else {
+                comPropostas.add(id);
+            }
+        }
+        // Carregadas antes dos UPDATEs em bloco, só para ler empresa e nome (não são alteradas nem salvas)
+        List<Licitacao> licitacoes = licitacaoRepository.findAllById(ids);
+        Instant agora = Instant.now();
+        if (!comPropostas.isEmpty()) {
+            licitacaoRepository.marcarPrazoEncerrado(comPropostas, agora);
+        }
+        if (!semPropostas.isEmpty()) {
+            licitacaoRepository.encerrarDesertas(semPropostas, FaseLicitacao.ENCERRADA, agora);
+        }
+        Set<Long> empresasAlteradas = new LinkedHashSet<>();
+        Map<Licitacao, String> mensagens = new LinkedHashMap<>();
+        for (Licitacao l : licitacoes) {
+            long propostas = propostasPorLicitacao.getOrDefault(l.getId(), 0L);
+            Long empresaId = l.getEmpresa().getId();
+            if (propostas == 0) {
+                contadorEmpresaService.licitacaoDeserta(empresaId);
+                empresasAlteradas.add(empresaId);
+                mensagens.put(l, "O prazo terminou sem propostas e a licitação foi encerrada.");
+            } else {
+                mensagens.put(l, "O prazo terminou com " + propostas + " proposta(s). Escolha o ganhador ou avance para a segunda fase.");
+            }
+        }
+        empresasAlteradas.forEach(dashboardCacheService::invalidar);
+        notificacaoService.criarPrazoEncerradoEmLote(mensagens);
+        return new Resultado(semPropostas.size(), comPropostas.size());
+    }
+
+    private record Resultado(int semPropostas, int comPropostas) {}
+}
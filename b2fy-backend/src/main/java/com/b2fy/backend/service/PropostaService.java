@@ -2,17 +2,27 @@ package com.b2fy.backend.service;
 
 import com.b2fy.backend.domain.*;
 import com.b2fy.backend.dto.request.NovaPropostaRequest;
+import com.b2fy.backend.dto.response.PaginaResponse;
 import com.b2fy.backend.dto.response.PropostaResponse;
 import com.b2fy.backend.exception.BusinessException;
+import com.b2fy.backend.exception.ConflitoException;
 import com.b2fy.backend.repository.LicitacaoRepository;
 import com.b2fy.backend.repository.PropostaRepository;
 import com.b2fy.backend.repository.UsuarioRepository;
+import com.b2fy.backend.util.CursorUtil;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,6 +33,9 @@ public class PropostaService {
     private final LicitacaoRepository licitacaoRepository;
     private final UsuarioRepository usuarioRepository;
     private final EmailService emailService;
+    private final PaginacaoService paginacaoService;
+    private final TransactionTemplate transacao;
+    private final TransactionTemplate somenteLeitura;
 
     @Value("${b2fy.taxa-plataforma:0.10}")
     private java.math.BigDecimal taxaPlataforma;
@@ -31,44 +44,70 @@ public class PropostaService {
         PropostaRepository propostaRepository,
         LicitacaoRepository licitacaoRepository,
         UsuarioRepository usuarioRepository,
-        EmailService emailService
+        EmailService emailService,
+        PaginacaoService paginacaoService,
+        PlatformTransactionManager transactionManager
     ) {
         this.propostaRepository = propostaRepository;
         this.licitacaoRepository = licitacaoRepository;
         this.usuarioRepository = usuarioRepository;
         this.emailService = emailService;
+        this.paginacaoService = paginacaoService;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.somenteLeitura = new TransactionTemplate(transactionManager);
+        this.somenteLeitura.setReadOnly(true);
     }
 
-    @Transactional
-    public PropostaResponse enviar(Long licitacaoId, NovaPropostaRequest request, boolean segundaFase) {
+    /**
+     * Grava a proposta numa transação própria. O envio repetido para a mesma fase é barrado pela constraint
+     * {@link Proposta#UK_FORNECEDOR_FASE}, sem consulta prévia; só depois da violação a proposta existente é lida:
+     * se tiver a mesma {@code chaveIdempotencia}, é a repetição de um envio que deu certo e ela é o resultado.
+     */
+    public PropostaResponse enviar(Long licitacaoId, NovaPropostaRequest request, boolean segundaFase, String chaveIdempotencia) {
         Long fornecedorId = UsuarioService.getCurrentUserId();
-        Licitacao licitacao = licitacaoRepository.findById(licitacaoId).orElseThrow(() -> new BusinessException("Licitação não encontrada."));
+        FaseProposta fase = segundaFase ? FaseProposta.FASE_2 : FaseProposta.FASE_1;
+        try {
+            return transacao.execute(status -> gravar(licitacaoId, fornecedorId, fase, request, chaveIdempotencia));
+        } catch (DataIntegrityViolationException e) {
+            if (!violou(e, Proposta.UK_FORNECEDOR_FASE)) throw e;
+            if (chaveIdempotencia != null) {
+                PropostaResponse original = somenteLeitura.execute(status -> propostaRepository
+                    .findByLicitacaoAndFornecedorAndFase(licitacaoId, fornecedorId, fase)
+                    .filter(p -> chaveIdempotencia.equals(p.getChaveIdempotencia()))
+                    .map(this::toResponse)
+                    .orElse(null));
+                if (original != null) return original;
+            }
+            throw new ConflitoException("Você já enviou proposta para esta fase. Edição não permitida nesta versão.");
+        }
+    }
+
+    private PropostaResponse gravar(Long licitacaoId, Long fornecedorId, FaseProposta fase, NovaPropostaRequest request,
+                                    String chaveIdempotencia) {
+        boolean segundaFase = fase == FaseProposta.FASE_2;
+        // FOR SHARE: a fase validada abaixo não muda até o commit (transições esperam), sem enfileirar as propostas
+        Licitacao licitacao = licitacaoRepository.findParaProposta(licitacaoId).orElseThrow(() -> new BusinessException("Licitação não encontrada."));
         if (licitacao.getFase() == FaseLicitacao.ENCERRADA) {
             throw new BusinessException("Licitação já encerrada.");
         }
-        FaseProposta fase = segundaFase ? FaseProposta.FASE_2 : FaseProposta.FASE_1;
         if (segundaFase && licitacao.getFase() != FaseLicitacao.SEGUNDA_FASE) {
             throw new BusinessException("Licitação não está na segunda fase.");
         }
         if (!segundaFase && licitacao.getFase() != FaseLicitacao.ABERTA) {
             throw new BusinessException("Licitação não está aberta para novas propostas.");
         }
-        boolean fornecedorParticipa = licitacao.getNichos().stream()
-            .anyMatch(n -> n.getUsuarios().stream().anyMatch(u -> u.getId().equals(fornecedorId)));
-        if (!fornecedorParticipa) {
+        // O job de prazos pode ainda não ter passado: a data vencida já basta para recusar
+        if (!segundaFase && (licitacao.getPrazoEncerradoEm() != null || licitacao.getDataFechamento().isBefore(LocalDate.now()))) {
+            throw new BusinessException("O prazo para propostas desta licitação já terminou.");
+        }
+        if (!licitacaoRepository.usuarioAtendeNichos(licitacaoId, fornecedorId)) {
             throw new BusinessException("Seu perfil não atende aos nichos desta licitação.");
         }
-        if (segundaFase) {
-            boolean selecionado = propostaRepository.findByLicitacaoIdAndFase(licitacaoId, FaseProposta.FASE_1).stream()
-                .anyMatch(p -> p.getFornecedor().getId().equals(fornecedorId) && p.getStatus() == StatusProposta.SELECIONADA_2FASE);
-            if (!selecionado) {
-                throw new BusinessException("Você não foi selecionado para a segunda fase.");
-            }
+        if (segundaFase && !propostaRepository.existsByLicitacaoIdAndFornecedorIdAndFaseAndStatus(
+            licitacaoId, fornecedorId, FaseProposta.FASE_1, StatusProposta.SELECIONADA_2FASE)) {
+            throw new BusinessException("Você não foi selecionado para a segunda fase.");
         }
         Usuario fornecedor = usuarioRepository.findById(fornecedorId).orElseThrow(() -> new BusinessException("Fornecedor não encontrado."));
-        if (propostaRepository.existsByLicitacaoIdAndFornecedorIdAndFase(licitacaoId, fornecedorId, fase)) {
-            throw new BusinessException("Você já enviou proposta para esta fase. Edição não permitida nesta versão.");
-        }
         BigDecimal valorOrcamento = request.valorOrcamento().setScale(2, RoundingMode.HALF_UP);
         BigDecimal valorComTaxa = valorOrcamento.multiply(BigDecimal.ONE.add(taxaPlataforma)).setScale(2, RoundingMode.HALF_UP);
         Proposta proposta = new Proposta();
@@ -79,7 +118,9 @@ public class PropostaService {
         proposta.setValorOrcamento(valorOrcamento);
         proposta.setValorComTaxa(valorComTaxa);
         proposta.setStatus(StatusProposta.ENVIADA);
-        proposta = propostaRepository.save(proposta);
+        proposta.setChaveIdempotencia(chaveIdempotencia);
+        // flush aqui: uma violação da constraint aparece antes de enfileirar o email
+        proposta = propostaRepository.saveAndFlush(proposta);
         String empresaEmail = licitacao.getEmpresa().getEmail();
         String empresaNome = licitacao.getEmpresa().getNome();
         String fornecedorNome = fornecedor.getNome();
@@ -96,14 +137,36 @@ public class PropostaService {
         return toResponse(proposta);
     }
 
-    public List<PropostaResponse> listarPorLicitacao(Long licitacaoId) {
+    /** Propostas de todas as fases, das mais recentes para as mais antigas, paginadas por cursor. */
+    @Transactional(readOnly = true)
+    public PaginaResponse<PropostaResponse> listarPorLicitacao(Long licitacaoId, String cursor, int limite) {
         Licitacao licitacao = licitacaoRepository.findById(licitacaoId).orElseThrow(() -> new BusinessException("Licitação não encontrada."));
         Long userId = UsuarioService.getCurrentUserId();
         if (!licitacao.getEmpresa().getId().equals(userId)) {
             throw new BusinessException("Apenas a empresa dona da licitação pode listar propostas.");
         }
-        List<Proposta> propostas = propostaRepository.findByLicitacaoIdOrderByCreatedAtDesc(licitacaoId);
-        return propostas.stream().map(this::toResponse).collect(Collectors.toList());
+        CursorUtil.Posicao posicao = CursorUtil.decodificar(cursor);
+        int tamanho = paginacaoService.limitar(limite);
+        Pageable pageable = PageRequest.of(0, tamanho + 1);
+        List<Proposta> list = propostaRepository.findTodasRecentes(licitacaoId,
+            posicao != null ? posicao.createdAt() : null, posicao != null ? posicao.id() : null, pageable);
+        boolean temMais = list.size() > tamanho;
+        List<Proposta> itens = temMais ? list.subList(0, tamanho) : list;
+        String proximoCursor = null;
+        if (temMais) {
+            Proposta ultima = itens.get(itens.size() - 1);
+            proximoCursor = CursorUtil.codificar(ultima.getCreatedAt(), ultima.getId());
+        }
+        return new PaginaResponse<>(itens.stream().map(this::toResponse).collect(Collectors.toList()), proximoCursor, null);
+    }
+
+    private static boolean violou(DataIntegrityViolationException e, String constraint) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException c && constraint.equalsIgnoreCase(c.getConstraintName())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private PropostaResponse toResponse(Proposta p) {
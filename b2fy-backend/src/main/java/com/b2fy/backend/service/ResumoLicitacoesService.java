@@ -0,0 +1,115 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.domain.AnuncioPendente;
+import com.b2fy.backend.domain.FaseLicitacao;
+import com.b2fy.backend.domain.Licitacao;
+import com.b2fy.backend.domain.PreferenciaEmail;
+import com.b2fy.backend.domain.Usuario;
+import com.b2fy.backend.repository.AnuncioPendenteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resumo de novas licitações para fornecedores com preferência RESUMO_HORARIO / RESUMO_DIARIO: junta os
+ * anúncios pendentes de cada um num único email por janela. Cada lote de usuários é uma transação que
+ * grava os emails no outbox e apaga os anúncios consumidos, então um resumo não sai duas vezes.
+ */
+@Service
+public class ResumoLicitacoesService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumoLicitacoesService.class);
+    private static final DateTimeFormatter DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final AnuncioPendenteRepository anuncioPendenteRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter resumosEnviados;
+
+    @Value("${b2fy.email.resumo.lote-usuarios:200}")
+    private int loteUsuarios;
+
+    @Value("${b2fy.email.resumo.max-itens:30}")
+    private int maxItens;
+
+    public ResumoLicitacoesService(
+        AnuncioPendenteRepository anuncioPendenteRepository,
+        EmailService emailService,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.anuncioPendenteRepository = anuncioPendenteRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.resumosEnviados = Counter.builder("b2fy.email.resumos")
+            .description("Emails de resumo de licitações gerados")
+            .register(meterRegistry);
+    }
+
+    /** Inclui IMEDIATO para escoar o que ficou pendente de quem mudou a preferência depois do anúncio. */
+    @Scheduled(cron = "${b2fy.email.resumo.cron-horario:0 0 * * * *}")
+    public void enviarResumosHorarios() {
+        enviarResumos(Set.of(PreferenciaEmail.RESUMO_HORARIO, PreferenciaEmail.IMEDIATO));
+    }
+
+    @Scheduled(cron = "${b2fy.email.resumo.cron-diario:0 0 8 * * *}")
+    public void enviarResumosDiarios() {
+        enviarResumos(Set.of(PreferenciaEmail.RESUMO_DIARIO));
+    }
+
+    private void enviarResumos(Set<PreferenciaEmail> preferencias) {
+        Long aposId = 0L;
+        int total = 0;
+        while (true) {
+            List<Long> usuarioIds = anuncioPendenteRepository.findUsuarioIdsComAnuncios(
+                preferencias, aposId, PageRequest.of(0, loteUsuarios)
+            );
+            if (usuarioIds.isEmpty()) break;
+            Integer enviados = transactionTemplate.execute(status -> processarLote(usuarioIds));
+            total += enviados != null ? enviados : 0;
+            aposId = usuarioIds.get(usuarioIds.size() - 1);
+            if (usuarioIds.size() < loteUsuarios) break;
+        }
+        resumosEnviados.increment(total);
+        log.info("{} resumo(s) de licitações gerados para {}", total, preferencias);
+    }
+
+    private int processarLote(List<Long> usuarioIds) {
+        List<AnuncioPendente> anuncios = anuncioPendenteRepository.reservarPorUsuarios(usuarioIds);
+        Map<Usuario, List<Licitacao>> porUsuario = new LinkedHashMap<>();
+        for (AnuncioPendente a : anuncios) {
+            Licitacao l = a.getLicitacao();
+            List<Licitacao> licitacoes = porUsuario.computeIfAbsent(a.getUsuario(), u -> new ArrayList<>());
+            if (l.getFase() != FaseLicitacao.ENCERRADA) {
+                licitacoes.add(l);
+            }
+        }
+        int enviados = 0;
+        for (Map.Entry<Usuario, List<Licitacao>> e : porUsuario.entrySet()) {
+            List<Licitacao> licitacoes = e.getValue();
+            if (licitacoes.isEmpty()) continue;
+            List<String> linhas = licitacoes.stream()
+                .limit(maxItens)
+                .map(l -> l.getNome() + " — " + l.getEmpresa().getNome() + " (fecha em " + l.getDataFechamento().format(DATA) + ")")
+                .toList();
+            emailService.enviarResumoLicitacoes(e.getKey().getEmail(), e.getKey().getNome(), linhas, licitacoes.size());
+            enviados++;
+        }
+        anuncioPendenteRepository.deleteAllInBatch(anuncios);
+        return enviados;
+    }
+}
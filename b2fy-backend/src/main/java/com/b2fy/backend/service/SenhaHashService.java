@@ -0,0 +1,106 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.exception.ServicoSobrecarregadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt em um executor próprio, de tamanho e fila limitados, para que um pico de logins não ocupe
+ * todas as threads do Tomcat com hashing. Com a fila cheia a chamada falha na hora com
+ * {@link ServicoSobrecarregadoException} (503 + Retry-After) em vez de enfileirar sem limite.
+ */
+@Service
+public class SenhaHashService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor executor;
+    private final long retryAfterSegundos;
+
+    private final Timer tempoHash;
+    private final Counter rejeicoes;
+
+    public SenhaHashService(
+        PasswordEncoder passwordEncoder,
+        MeterRegistry meterRegistry,
+        @Value("${b2fy.senha.threads:0}") int threads,
+        @Value("${b2fy.senha.capacidade-fila:50}") int capacidadeFila,
+        @Value("${b2fy.senha.retry-after-segundos:2}") long retryAfterSegundos
+    ) {
+        this.passwordEncoder = passwordEncoder;
+        this.retryAfterSegundos = retryAfterSegundos;
+        // 0 = metade dos processadores: o hashing é CPU-bound e deve deixar núcleos para o resto da API
+        int tamanho = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(tamanho);
+        this.executor.setMaxPoolSize(tamanho);
+        this.executor.setQueueCapacity(capacidadeFila);
+        this.executor.setThreadNamePrefix("senha-hash-");
+        this.executor.initialize();
+
+        this.tempoHash = Timer.builder("b2fy.senha.hash")
+            .description("Tempo de BCrypt (encode/matches), sem a espera na fila")
+            .register(meterRegistry);
+        this.rejeicoes = Counter.builder("b2fy.senha.rejeicoes")
+            .description("Operações de senha recusadas com o executor saturado")
+            .register(meterRegistry);
+        Gauge.builder("b2fy.senha.fila", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+            .description("Operações de senha aguardando na fila")
+            .register(meterRegistry);
+        Gauge.builder("b2fy.senha.ativas", executor, ThreadPoolTaskExecutor::getActiveCount)
+            .description("Threads de hashing ocupadas")
+            .register(meterRegistry);
+    }
+
+    public String codificar(String senha) {
+        return executar(() -> passwordEncoder.encode(senha));
+    }
+
+    public boolean confere(String senha, String hash) {
+        return executar(() -> passwordEncoder.matches(senha, hash));
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+
+    private <T> T executar(Callable<T> operacao) {
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(() -> {
+                long inicio = System.nanoTime();
+                try {
+                    return operacao.call();
+                } finally {
+                    tempoHash.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            rejeicoes.increment();
+            throw new ServicoSobrecarregadoException("Muitas requisições de autenticação. Tente novamente em instantes.", retryAfterSegundos);
+        }
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando o hash da senha", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
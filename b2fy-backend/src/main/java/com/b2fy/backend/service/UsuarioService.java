@@ -5,14 +5,11 @@ import com.b2fy.backend.domain.Usuario;
 import com.b2fy.backend.dto.request.AtualizarPerfilRequest;
 import com.b2fy.backend.dto.response.UsuarioResponse;
 import com.b2fy.backend.exception.BusinessException;
-import com.b2fy.backend.repository.NichoRepository;
 import com.b2fy.backend.repository.UsuarioRepository;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -21,17 +18,17 @@ import java.util.stream.Collectors;
 public class UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
-    private final NichoRepository nichoRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final NichoCatalogoService nichoCatalogoService;
+    private final SenhaHashService senhaHashService;
 
     public UsuarioService(
         UsuarioRepository usuarioRepository,
-        NichoRepository nichoRepository,
-        PasswordEncoder passwordEncoder
+        NichoCatalogoService nichoCatalogoService,
+        SenhaHashService senhaHashService
     ) {
         this.usuarioRepository = usuarioRepository;
-        this.nichoRepository = nichoRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.nichoCatalogoService = nichoCatalogoService;
+        this.senhaHashService = senhaHashService;
     }
 
     public static Long getCurrentUserId() {
@@ -50,7 +47,7 @@ public class UsuarioService {
     public UsuarioResponse atualizarPerfil(AtualizarPerfilRequest request) {
         Long userId = getCurrentUserId();
         Usuario u = usuarioRepository.findById(userId).orElseThrow(() -> new BusinessException("Usuário não encontrado."));
-        if (!passwordEncoder.matches(request.senhaAtual(), u.getSenhaHash())) {
+        if (!senhaHashService.confere(request.senhaAtual(), u.getSenhaHash())) {
             throw new BusinessException("Senha atual incorreta.");
         }
         u.setEmail(request.email());
@@ -60,17 +57,11 @@ public class UsuarioService {
         u.setEndereco(request.endereco());
         u.setEstado(request.estado());
         u.setFotoPerfilUrl(request.fotoPerfilUrl());
+        if (request.preferenciaEmail() != null) {
+            u.setPreferenciaEmail(request.preferenciaEmail());
+        }
         if (request.nichos() != null && !request.nichos().isEmpty()) {
-            Set<Nicho> nichos = new HashSet<>();
-            for (String nomeNicho : request.nichos()) {
-                Nicho nicho = nichoRepository.findByNomeIgnoreCase(nomeNicho.trim())
-                    .orElseGet(() -> {
-                        Nicho novo = new Nicho();
-                        novo.setNome(nomeNicho.trim());
-                        return nichoRepository.save(novo);
-                    });
-                nichos.add(nicho);
-            }
+            Set<Nicho> nichos = nichoCatalogoService.resolver(request.nichos(), true);
             u.setNichos(nichos);
         }
         u = usuarioRepository.save(u);
@@ -89,7 +80,8 @@ public class UsuarioService {
             u.getEndereco(),
             u.getEstado(),
             u.getFotoPerfilUrl(),
-            nichos
+            nichos,
+            u.getPreferenciaEmail()
         );
     }
 }
@@ -0,0 +1,77 @@
+package com.b2fy.backend.util;
+
+import com.b2fy.backend.exception.BusinessException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Cursor opaco de paginação keyset sobre (createdAt, id), ordenado do mais recente para o mais antigo,
+ * ou sobre (relevancia, id) na busca textual e (valor, id) nas propostas do menor para o maior valor.
+ */
+public final class CursorUtil {
+
+    private CursorUtil() {}
+
+    public record Posicao(Instant createdAt, Long id) {}
+
+    public record PosicaoRelevancia(float relevancia, Long id) {}
+
+    public record PosicaoValor(BigDecimal valor, Long id) {}
+
+    public static String codificar(Instant createdAt, Long id) {
+        String raw = createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Posicao decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3) throw new BusinessException("Cursor inválido.");
+            Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new Posicao(createdAt, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new BusinessException("Cursor inválido.", e);
+        }
+    }
+
+    /** A relevância vai como bits do float, para a comparação com o ts_rank (real) do banco ser exata. */
+    public static String codificarRelevancia(float relevancia, Long id) {
+        String raw = "r:" + Float.floatToIntBits(relevancia) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PosicaoRelevancia decodificarRelevancia(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3 || !parts[0].equals("r")) throw new BusinessException("Cursor inválido.");
+            return new PosicaoRelevancia(Float.intBitsToFloat(Integer.parseInt(parts[1])), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Cursor inválido.", e);
+        }
+    }
+
+    public static String codificarValor(BigDecimal valor, Long id) {
+        String raw = "v:" + valor.toPlainString() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PosicaoValor decodificarValor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3 || !parts[0].equals("v")) throw new BusinessException("Cursor inválido.");
+            return new PosicaoValor(new BigDecimal(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Cursor inválido.", e);
+        }
+    }
+}
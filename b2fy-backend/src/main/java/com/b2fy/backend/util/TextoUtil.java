@@ -0,0 +1,51 @@
+package com.b2fy.backend.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+public final class TextoUtil {
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOPWORDS = Set.of(
+        "a", "o", "as", "os", "e", "ou", "de", "da", "do", "das", "dos", "em", "no", "na", "nos", "nas",
+        "um", "uma", "uns", "umas", "ao", "aos", "para", "por", "com", "sem", "que", "se"
+    );
+
+    private TextoUtil() {}
+
+    /** Chave de comparação: sem acentos, minúscula, espaços colapsados ("  Construção Civil" -> "construcao civil"). */
+    public static String normalizar(String texto) {
+        if (texto == null) return null;
+        String semAcento = ACENTOS.matcher(Normalizer.normalize(texto.trim(), Normalizer.Form.NFD)).replaceAll("");
+        return ESPACOS.matcher(semAcento).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Palavras significativas do texto para busca em memória: normalizadas, sem stopwords e com o plural reduzido
+     * ("Licitações de Computadores" -> [licitacao, computador]). Sem repetição, na ordem em que aparecem.
+     */
+    public static List<String> termos(String texto) {
+        if (texto == null) return List.of();
+        Set<String> termos = new LinkedHashSet<>();
+        for (String palavra : SEPARADORES.split(normalizar(texto))) {
+            if (palavra.length() < 2 || STOPWORDS.contains(palavra)) continue;
+            termos.add(singular(palavra));
+        }
+        return new ArrayList<>(termos);
+    }
+
+    private static String singular(String palavra) {
+        if (palavra.length() <= 3 || !palavra.endsWith("s")) return palavra;
+        if (palavra.endsWith("oes") || palavra.endsWith("aes")) return palavra.substring(0, palavra.length() - 3) + "ao";
+        if (palavra.endsWith("ns")) return palavra.substring(0, palavra.length() - 2) + "m";
+        if (palavra.endsWith("res") || palavra.endsWith("zes") || palavra.endsWith("ses")) return palavra.substring(0, palavra.length() - 2);
+        return palavra.substring(0, palavra.length() - 1);
+    }
+}
@@ -0,0 +1,116 @@
+package com.b2fy.backend;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Driver JDBC dos testes ({@code jdbc:contador:postgresql:...}) que repassa tudo ao driver do PostgreSQL e conta as
+ * idas ao banco: cada execute/executeQuery/executeUpdate e cada executeBatch (um lote inteiro) conta uma. Vale para
+ * tudo que passa pelo pool, Hibernate e JdbcTemplate.
+ */
+public class IdasAoBanco implements Driver {
+
+    private static final String PREFIXO = "jdbc:contador:";
+    private static final AtomicLong IDAS = new AtomicLong();
+
+    static {
+        try {
+            DriverManager.registerDriver(new IdasAoBanco());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public static String url(String urlPostgres) {
+        return PREFIXO + urlPostgres.substring("jdbc:".length());
+    }
+
+    public static void zerar() {
+        IDAS.set(0);
+    }
+
+    public static long total() {
+        return IDAS.get();
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) return null;
+        Connection conexao = DriverManager.getConnection("jdbc:" + url.substring(PREFIXO.length()), info);
+        return envolver(Connection.class, conexao, (alvo, metodo, args) -> {
+            Object resultado = metodo.invoke(alvo, args);
+            if (resultado instanceof CallableStatement cs) return envolver(CallableStatement.class, cs, IdasAoBanco::contar);
+            if (resultado instanceof PreparedStatement ps) return envolver(PreparedStatement.class, ps, IdasAoBanco::contar);
+            if (resultado instanceof Statement st) return envolver(Statement.class, st, IdasAoBanco::contar);
+            return resultado;
+        });
+    }
+
+    private static Object contar(Object alvo, Method metodo, Object[] args) throws Exception {
+        if (metodo.getName().startsWith("execute")) IDAS.incrementAndGet();
+        return metodo.invoke(alvo, args);
+    }
+
+    private interface Chamada {
+        Object invocar(Object alvo, Method metodo, Object[] args) throws Exception;
+    }
+
+    /** unwrap/isWrapperFor vão direto ao objeto real, para quem precisa da classe do driver (PGConnection). */
+    private static <T> T envolver(Class<T> tipo, T alvo, Chamada chamada) {
+        InvocationHandler handler = (proxy, metodo, args) -> {
+            try {
+                if (metodo.getName().equals("unwrap") || metodo.getName().equals("isWrapperFor")) {
+                    return metodo.invoke(alvo, args);
+                }
+                return chamada.invocar(alvo, metodo, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return tipo.cast(Proxy.newProxyInstance(IdasAoBanco.class.getClassLoader(), new Class<?>[] {tipo}, handler));
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(PREFIXO);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+}
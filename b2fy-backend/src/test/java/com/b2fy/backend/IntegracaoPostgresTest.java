@@ -0,0 +1,125 @@
+package com.b2fy.backend;
+
+import com.b2fy.backend.domain.FaseLicitacao;
+import com.b2fy.backend.domain.Licitacao;
+import com.b2fy.backend.domain.Nicho;
+import com.b2fy.backend.domain.TipoUsuario;
+import com.b2fy.backend.domain.Usuario;
+import com.b2fy.backend.repository.LicitacaoRepository;
+import com.b2fy.backend.repository.NichoRepository;
+import com.b2fy.backend.repository.UsuarioRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Base dos testes de integração: um PostgreSQL embutido por JVM (o schema vem do ddl-auto), contexto Spring
+ * compartilhado entre as classes e jobs agendados desligados, para que só o teste mexa nas tabelas. As conexões passam
+ * por {@link IdasAoBanco}, que conta as idas ao banco.
+ */
+@SpringBootTest(properties = {
+    "b2fy.agendamento.habilitado=false",
+    "spring.mail.username=b2fy@teste.b2fy",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+public abstract class IntegracaoPostgresTest {
+
+    private static final EmbeddedPostgres POSTGRES = iniciar();
+
+    /** Os testes compartilham o banco; nomes, emails e documentos únicos evitam colisões entre eles. */
+    private static final AtomicLong SEQUENCIA = new AtomicLong();
+
+    @Autowired
+    protected UsuarioRepository usuarioRepository;
+
+    @Autowired
+    protected NichoRepository nichoRepository;
+
+    @Autowired
+    protected LicitacaoRepository licitacaoRepository;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> IdasAoBanco.url(POSTGRES.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true"));
+        registry.add("spring.datasource.driver-class-name", IdasAoBanco.class::getName);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    private static EmbeddedPostgres iniciar() {
+        try {
+            // commit timestamps: os testes de concorrência comparam a ordem em que as transações confirmaram
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().setServerConfig("track_commit_timestamp", "on").start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // a JVM já está saindo
+                }
+            }));
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Executa {@code operacao} autenticado como {@code usuario} na thread atual (o que UsuarioService.getCurrentUserId lê). */
+    protected static <T> T comoUsuario(Usuario usuario, Supplier<T> operacao) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(usuario.getId(), null, List.of()));
+        try {
+            return operacao.get();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    protected Nicho novoNicho() {
+        Nicho nicho = new Nicho();
+        nicho.setNome("Nicho " + SEQUENCIA.incrementAndGet());
+        return nichoRepository.save(nicho);
+    }
+
+    protected Usuario novaEmpresa() {
+        return usuarioRepository.save(usuario(TipoUsuario.EMPRESA, Set.of()));
+    }
+
+    protected Usuario novoFornecedor(Nicho... nichos) {
+        return usuarioRepository.save(usuario(TipoUsuario.FORNECEDOR, Set.of(nichos)));
+    }
+
+    protected Usuario usuario(TipoUsuario tipo, Set<Nicho> nichos) {
+        long n = SEQUENCIA.incrementAndGet();
+        Usuario usuario = new Usuario();
+        usuario.setTipo(tipo);
+        usuario.setCpfOuCnpj(String.format("%014d", n));
+        usuario.setEmail("usuario" + n + "@teste.b2fy");
+        usuario.setSenhaHash("-");
+        usuario.setNome((tipo == TipoUsuario.EMPRESA ? "Empresa " : "Fornecedor ") + n);
+        usuario.getNichos().addAll(nichos);
+        return usuario;
+    }
+
+    protected Licitacao novaLicitacao(Usuario empresa, Nicho... nichos) {
+        Licitacao licitacao = new Licitacao();
+        licitacao.setEmpresa(empresa);
+        licitacao.setNome("Licitação " + SEQUENCIA.incrementAndGet());
+        licitacao.setDescricaoProdutosServicos("Materiais de escritório");
+        licitacao.setDataFechamento(LocalDate.now().plusDays(10));
+        licitacao.setFase(FaseLicitacao.ABERTA);
+        licitacao.getNichos().addAll(Set.of(nichos));
+        return licitacaoRepository.save(licitacao);
+    }
+}
@@ -0,0 +1,184 @@
+package com.b2fy.backend.config;
+
+import com.b2fy.backend.IntegracaoPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * O pool do Hikari como único limite de conexões (sem semáforo na frente): com o pool esgotado a espera termina em
+ * {@code connection-timeout}, uma rajada maior que o pool aguenta pelo tempo do timeout e falha rápido depois dele,
+ * e quem espera recebe as conexões devolvidas quase na ordem de chegada (a fila de entrega do Hikari não é estritamente
+ * justa como era o semáforo: quem chega junto com uma devolução pode trocar de lugar com o vizinho).
+ */
+class PoolConexoesTest extends IntegracaoPostgresTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PoolConexoesTest.class);
+    private static final long MARGEM_MS = 2000;
+    private static final int DESLOCAMENTO_MAXIMO = 2;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size}")
+    private int tamanhoPool;
+
+    @Value("${spring.datasource.hikari.connection-timeout}")
+    private long connectionTimeout;
+
+    @Test
+    void poolEsgotadoFalhaNoConnectionTimeout() throws Exception {
+        List<Connection> presas = new ArrayList<>();
+        try {
+            for (int i = 0; i < tamanhoPool; i++) presas.add(dataSource.getConnection());
+
+            long inicio = System.nanoTime();
+            SQLTransientConnectionException erro = assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+            long esperaMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+            log.info("Pool esgotado: getConnection falhou após {} ms (connection-timeout {} ms): {}", esperaMs, connectionTimeout, erro.getMessage());
+            assertTrue(esperaMs >= connectionTimeout && esperaMs < connectionTimeout + MARGEM_MS, "espera " + esperaMs + " ms");
+        } finally {
+            for (Connection c : presas) c.close();
+        }
+    }
+
+    /**
+     * Duas rajadas de 400 tarefas simultâneas (cada uma segura a conexão por {@code ms}): uma cabe no timeout e é
+     * toda atendida; a outra pede três vezes o que o pool entrega no timeout, e o excedente falha sem esperar mais.
+     */
+    @Test
+    void rajadasMaioresQueOPool() throws Exception {
+        Rajada cabe = rajada(400, 20);
+        Rajada excede = rajada(400, connectionTimeout * 3 * tamanhoPool / 400);
+
+        assertEquals(0, cabe.falhas);
+        assertTrue(excede.falhas > 0, "a rajada excedente deveria ter falhas");
+        assertTrue(excede.maiorEsperaFalhaMs < connectionTimeout + MARGEM_MS, "falha após " + excede.maiorEsperaFalhaMs + " ms");
+        assertTrue(cabe.maiorEsperaMs < connectionTimeout && excede.maiorEsperaMs < connectionTimeout + MARGEM_MS);
+    }
+
+    @Test
+    void conexoesDevolvidasVaoParaQuemChegouPrimeiro() throws Exception {
+        int esperando = 2 * tamanhoPool;
+        List<Connection> presas = new ArrayList<>();
+        List<Integer> atendidas = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(esperando);
+        try {
+            for (int i = 0; i < tamanhoPool; i++) presas.add(dataSource.getConnection());
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int i = 0; i < esperando; i++) {
+                int ordem = i;
+                CountDownLatch chegou = new CountDownLatch(1);
+                tarefas.add(executor.submit(() -> {
+                    chegou.countDown();
+                    try (Connection c = dataSource.getConnection()) {
+                        atendidas.add(ordem);
+                        Thread.sleep(20);
+                    }
+                    return null;
+                }));
+                chegou.await();
+                // dá tempo de a tarefa entrar na fila do Hikari antes da próxima
+                Thread.sleep(20);
+            }
+            for (Connection c : presas) {
+                c.close();
+                Thread.sleep(5);
+            }
+            presas.clear();
+            for (Future<?> t : tarefas) t.get(connectionTimeout + MARGEM_MS, TimeUnit.MILLISECONDS);
+        } finally {
+            for (Connection c : presas) c.close();
+            executor.shutdownNow();
+        }
+
+        int inversoes = 0;
+        int deslocamento = 0;
+        for (int i = 0; i < atendidas.size(); i++) {
+            deslocamento = Math.max(deslocamento, Math.abs(atendidas.get(i) - i));
+            for (int j = i + 1; j < atendidas.size(); j++) {
+                if (atendidas.get(i) > atendidas.get(j)) inversoes++;
+            }
+        }
+        log.info("{} esperando por {} conexões: ordem de atendimento {}, {} inversões, deslocamento máximo {}",
+            esperando, tamanhoPool, atendidas, inversoes, deslocamento);
+        assertEquals(esperando, atendidas.size());
+        // ninguém é passado para trás por mais que um vizinho ou dois
+        assertTrue(deslocamento <= DESLOCAMENTO_MAXIMO, "ordem de atendimento " + atendidas);
+    }
+
+    private Rajada rajada(int tarefas, long ms) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(tarefas);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<long[]>> resultados = new ArrayList<>();
+        try {
+            for (int i = 0; i < tarefas; i++) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    long inicio = System.nanoTime();
+                    try (Connection c = dataSource.getConnection()) {
+                        long espera = System.nanoTime() - inicio;
+                        try (PreparedStatement ps = c.prepareStatement("SELECT pg_sleep(?)")) {
+                            ps.setDouble(1, ms / 1000.0);
+                            ps.execute();
+                        }
+                        return new long[] {0, espera};
+                    } catch (SQLTransientConnectionException e) {
+                        return new long[] {1, System.nanoTime() - inicio};
+                    }
+                }));
+            }
+            long inicio = System.nanoTime();
+            largada.countDown();
+            Rajada r = new Rajada();
+            List<Long> esperas = new ArrayList<>();
+            for (Future<long[]> f : resultados) {
+                long[] resultado = f.get(connectionTimeout * 4, TimeUnit.MILLISECONDS);
+                long esperaMs = TimeUnit.NANOSECONDS.toMillis(resultado[1]);
+                if (resultado[0] == 1) {
+                    r.falhas++;
+                    r.maiorEsperaFalhaMs = Math.max(r.maiorEsperaFalhaMs, esperaMs);
+                } else {
+                    esperas.add(esperaMs);
+                }
+                r.maiorEsperaMs = Math.max(r.maiorEsperaMs, esperaMs);
+            }
+            long totalMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            Collections.sort(esperas);
+            log.info("Rajada de {} x {} ms com pool {}: {} atendidas em {} ms (espera p50 {} ms, p99 {} ms), {} falhas após até {} ms",
+                tarefas, ms, tamanhoPool, esperas.size(), totalMs,
+                esperas.isEmpty() ? 0 : esperas.get(esperas.size() / 2),
+                esperas.isEmpty() ? 0 : esperas.get(esperas.size() * 99 / 100),
+                r.falhas, r.maiorEsperaFalhaMs);
+            return r;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class Rajada {
+        private int falhas;
+        private long maiorEsperaMs;
+        private long maiorEsperaFalhaMs;
+    }
+}
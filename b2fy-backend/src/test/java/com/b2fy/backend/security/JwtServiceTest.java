@@ -0,0 +1,104 @@
+package com.b2fy.backend.security;
+
+import com.b2fy.backend.IntegracaoPostgresTest;
+import com.b2fy.backend.domain.TipoUsuario;
+import com.b2fy.backend.domain.Usuario;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cache de tokens verificados: requisições repetidas com o mesmo token só o verificam (assinatura e claims) uma vez,
+ * e uma entrada em cache não autentica depois do {@code exp} do token. Os misses do cache ({@code cache.gets} do
+ * Micrometer) contam as verificações.
+ */
+@AutoConfigureMockMvc
+class JwtServiceTest extends IntegracaoPostgresTest {
+
+    private static final int REQUISICOES = 50;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${b2fy.jwt.secret}")
+    private String secret;
+
+    @Test
+    void tokenRepetidoEVerificadoUmaVez() throws Exception {
+        Usuario fornecedor = novoFornecedor(novoNicho());
+        String token = jwtService.generateToken(fornecedor.getId(), fornecedor.getEmail(), TipoUsuario.FORNECEDOR);
+
+        double antes = verificacoes();
+        double hitsAntes = consultas("hit");
+        for (int i = 0; i < REQUISICOES; i++) {
+            requisicao(token).andExpect(status().isOk());
+        }
+
+        assertEquals(1.0, verificacoes() - antes);
+        assertEquals(REQUISICOES - 1.0, consultas("hit") - hitsAntes);
+    }
+
+    @Test
+    void entradaEmCacheNaoPassaDoExpDoToken() throws Exception {
+        Usuario fornecedor = novoFornecedor(novoNicho());
+        // exp tem resolução de segundos: o token vale entre 1 e 2 segundos a partir daqui
+        Date exp = new Date((System.currentTimeMillis() / 1000 + 2) * 1000);
+        String token = Jwts.builder()
+            .subject(String.valueOf(fornecedor.getId()))
+            .claim("email", fornecedor.getEmail())
+            .claim("tipo", TipoUsuario.FORNECEDOR.name())
+            .claim("roles", List.of("ROLE_FORNECEDOR"))
+            .issuedAt(new Date())
+            .expiration(exp)
+            .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+            .compact();
+
+        requisicao(token).andExpect(status().isOk());
+        requisicao(token).andExpect(status().isOk());
+        Thread.sleep(Math.max(0, exp.getTime() - System.currentTimeMillis()) + 100);
+
+        double antes = verificacoes();
+        double hitsAntes = consultas("hit");
+        requisicao(token).andExpect(status().isForbidden());
+        // a entrada expirou com o token: ele é verificado de novo e recusado pelo exp, e a recusa não fica guardada
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verificar(token));
+        assertEquals(2.0, verificacoes() - antes);
+        assertEquals(0.0, consultas("hit") - hitsAntes);
+    }
+
+    private ResultActions requisicao(String token) throws Exception {
+        return mockMvc.perform(get("/notificacoes/nao-lidas").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+
+    /** Misses do cache de tokens: cada um é uma verificação completa (assinatura e claims). */
+    private double verificacoes() {
+        return consultas("miss");
+    }
+
+    private double consultas(String resultado) {
+        return meterRegistry.get("cache.gets").tags("cache", "jwtVerificados", "result", resultado).functionCounter().count();
+    }
+}
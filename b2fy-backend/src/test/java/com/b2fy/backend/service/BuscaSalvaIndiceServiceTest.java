@@ -0,0 +1,194 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.repository.BuscaSalvaRepository;
+import com.b2fy.backend.repository.BuscaSalvaTermo;
+import com.b2fy.backend.util.TextoUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Percolação pelo índice invertido contra a varredura de todas as buscas salvas (a definição: casa quem tem todos os
+ * termos no texto), com 100 mil buscas e textos sorteados de dois vocabulários: um concentrado (poucas palavras em
+ * quase todo texto e busca, milhares de usuários casados por texto) e um disperso. Sem banco: o repositório só
+ * alimenta a recarga em lotes.
+ */
+class BuscaSalvaIndiceServiceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BuscaSalvaIndiceServiceTest.class);
+    private static final int BUSCAS = 100_000;
+    private static final int USUARIOS = 20_000;
+    private static final int TEXTOS = 1_000;
+
+    /** Palavras do vocabulário e viés do sorteio (expoente sobre um uniforme: quanto maior, mais concentrado). */
+    private enum Perfil {
+        CONCENTRADO(2_000, 3),
+        DISPERSO(20_000, 1);
+
+        private final int vocabulario;
+        private final double vies;
+
+        Perfil(int vocabulario, double vies) {
+            this.vocabulario = vocabulario;
+            this.vies = vies;
+        }
+    }
+
+    private Random random;
+    private Perfil perfil;
+    private List<String> palavras;
+    private List<BuscaSalvaTermo> buscas;
+    private BuscaSalvaIndiceService indiceService;
+
+    @Test
+    void percolacaoCasaComAVarreduraDeTodasAsBuscas() {
+        for (Perfil p : Perfil.values()) {
+            montar(p);
+            conferirComAlteracoes();
+        }
+    }
+
+    @Test
+    void vazaoComCemMilBuscas() {
+        for (Perfil p : Perfil.values()) {
+            montar(p);
+            medir();
+        }
+    }
+
+    private void montar(Perfil perfil) {
+        this.random = new Random(42);
+        this.perfil = perfil;
+        Set<String> distintas = new LinkedHashSet<>();
+        while (distintas.size() < perfil.vocabulario) distintas.add(palavra());
+        palavras = new ArrayList<>(distintas);
+        buscas = new ArrayList<>();
+        for (long id = 1; id <= BUSCAS; id++) {
+            // algumas com acento e plural, como o fornecedor digita
+            String termo = id % 100 == 0 ? "Licitações " + frase(1) : frase(1 + random.nextInt(3));
+            buscas.add(new BuscaSalvaTermo(id, 1 + (long) random.nextInt(USUARIOS), termo));
+        }
+        BuscaSalvaRepository repository = mock(BuscaSalvaRepository.class);
+        when(repository.findTermosAposId(anyLong(), any(Pageable.class))).thenAnswer(chamada -> {
+            long aposId = chamada.getArgument(0);
+            Pageable pagina = chamada.getArgument(1);
+            return buscas.stream().filter(b -> b.id() > aposId).limit(pagina.getPageSize()).toList();
+        });
+        indiceService = new BuscaSalvaIndiceService(repository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(indiceService, "loteCarga", 5000);
+        indiceService.recarregar();
+    }
+
+    private void conferirComAlteracoes() {
+        List<String> textos = textos();
+        conferir(textos, buscas);
+
+        // alterações incrementais: remove 10% e troca o termo de outros 10%
+        List<BuscaSalvaTermo> atuais = new ArrayList<>();
+        for (BuscaSalvaTermo b : buscas) {
+            int sorteio = random.nextInt(10);
+            if (sorteio == 0) {
+                indiceService.remover(b.id());
+            } else if (sorteio == 1) {
+                BuscaSalvaTermo nova = new BuscaSalvaTermo(b.id(), b.usuarioId(), frase(1 + random.nextInt(3)));
+                indiceService.adicionar(nova.id(), nova.usuarioId(), nova.termo());
+                atuais.add(nova);
+            } else {
+                atuais.add(b);
+            }
+        }
+        conferir(textos, atuais);
+    }
+
+    private void medir() {
+        List<String> textos = textos();
+        for (String texto : textos) indiceService.percolar(texto);
+
+        long casamentos = 0;
+        long inicio = System.nanoTime();
+        for (String texto : textos) casamentos += indiceService.percolar(texto).size();
+        long indice = System.nanoTime() - inicio;
+
+        List<List<String>> termos = buscas.stream().map(b -> TextoUtil.termos(b.termo())).toList();
+        inicio = System.nanoTime();
+        for (String texto : textos) varredura(texto, buscas, termos);
+        long varredura = System.nanoTime() - inicio;
+
+        log.info("{}: {} textos contra {} buscas salvas: índice {} us/texto ({} textos/s), varredura {} us/texto; {} usuários casados",
+            perfil, TEXTOS, BUSCAS, TimeUnit.NANOSECONDS.toMicros(indice) / TEXTOS, TEXTOS * 1_000_000_000L / indice,
+            TimeUnit.NANOSECONDS.toMicros(varredura) / TEXTOS, casamentos);
+        assertTrue(casamentos > 0);
+    }
+
+    private void conferir(List<String> textos, List<BuscaSalvaTermo> esperadas) {
+        List<List<String>> termos = esperadas.stream().map(b -> TextoUtil.termos(b.termo())).toList();
+        long casamentos = 0;
+        for (String texto : textos) {
+            Set<Long> esperado = varredura(texto, esperadas, termos);
+            assertEquals(esperado, indiceService.percolar(texto), texto);
+            casamentos += esperado.size();
+        }
+        // os textos casam com uma parte das buscas, não com nenhuma nem com todas
+        assertTrue(casamentos > 0 && casamentos < (long) textos.size() * USUARIOS, "casamentos: " + casamentos);
+    }
+
+    private static Set<Long> varredura(String texto, List<BuscaSalvaTermo> buscas, List<List<String>> termos) {
+        Set<String> termosTexto = new HashSet<>(TextoUtil.termos(texto));
+        Set<Long> usuarioIds = new HashSet<>();
+        for (int i = 0; i < buscas.size(); i++) {
+            if (termosTexto.containsAll(termos.get(i))) usuarioIds.add(buscas.get(i).usuarioId());
+        }
+        return usuarioIds;
+    }
+
+    /** Nome e descrição de licitação: 30 a 60 palavras; um terço cita "Licitação", que casa com "Licitações" das buscas. */
+    private List<String> textos() {
+        List<String> textos = new ArrayList<>();
+        for (int i = 0; i < TEXTOS; i++) {
+            StringBuilder texto = new StringBuilder(frase(30 + random.nextInt(31)));
+            if (i % 3 == 0) texto.append(" Licitação");
+            textos.add(texto.toString());
+        }
+        return textos;
+    }
+
+    /** Palavras sorteadas com viés para o começo do vocabulário: poucas comuns, muitas raras. */
+    private String frase(int tamanho) {
+        StringBuilder frase = new StringBuilder();
+        for (int i = 0; i < tamanho; i++) {
+            if (i > 0) frase.append(i % 4 == 0 ? " de " : " ");
+            frase.append(palavras.get((int) (perfil.vocabulario * Math.pow(random.nextDouble(), perfil.vies))));
+        }
+        return frase.toString();
+    }
+
+    private String palavra() {
+        String consoantes = "bcdfgjlmnprtv";
+        String vogais = "aeiou";
+        StringBuilder palavra = new StringBuilder();
+        int silabas = 2 + random.nextInt(3);
+        for (int i = 0; i < silabas; i++) {
+            palavra.append(consoantes.charAt(random.nextInt(consoantes.length())));
+            palavra.append(vogais.charAt(random.nextInt(vogais.length())));
+        }
+        return palavra.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.IntegracaoPostgresTest;
+import com.b2fy.backend.domain.ContadorEmpresa;
+import com.b2fy.backend.domain.FaseLicitacao;
+import com.b2fy.backend.domain.FaseProposta;
+import com.b2fy.backend.domain.Licitacao;
+import com.b2fy.backend.domain.Nicho;
+import com.b2fy.backend.domain.Proposta;
+import com.b2fy.backend.domain.Usuario;
+import com.b2fy.backend.repository.ContadorEmpresaRepository;
+import com.b2fy.backend.repository.ContagemNicho;
+import com.b2fy.backend.repository.PropostaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Contadores do dashboard com uma licitação deserta (encerrada pelo job de prazo) e outra com ganhador: os incrementos
+ * batem com a reconstrução, "encerradas" é a contagem de fase ENCERRADA e o histograma por nicho só conta a com ganhador.
+ */
+class ContadorEmpresaServiceTest extends IntegracaoPostgresTest {
+
+    @Autowired
+    private ContadorEmpresaService contadorEmpresaService;
+
+    @Autowired
+    private ContadorEmpresaRepository contadorEmpresaRepository;
+
+    @Autowired
+    private PrazoLicitacaoService prazoLicitacaoService;
+
+    @Autowired
+    private LicitacaoService licitacaoService;
+
+    @Autowired
+    private PropostaRepository propostaRepository;
+
+    @Test
+    void desertaContaComoEncerradaEForaDoHistograma() {
+        Nicho nicho = novoNicho();
+        Usuario empresa = novaEmpresa();
+        Usuario fornecedor = novoFornecedor(nicho);
+        Licitacao deserta = novaLicitacao(empresa, nicho);
+        Licitacao comGanhador = novaLicitacao(empresa, nicho);
+        contadorEmpresaService.recalcular(empresa.getId());
+
+        deserta.setDataFechamento(LocalDate.now().minusDays(1));
+        licitacaoRepository.save(deserta);
+        prazoLicitacaoService.encerrarVencidas();
+
+        Proposta proposta = new Proposta();
+        proposta.setLicitacao(comGanhador);
+        proposta.setFornecedor(fornecedor);
+        proposta.setFase(FaseProposta.FASE_1);
+        proposta.setValorOrcamento(new BigDecimal("100.00"));
+        proposta.setValorComTaxa(new BigDecimal("105.00"));
+        propostaRepository.save(proposta);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(empresa.getId(), null, List.of()));
+        try {
+            licitacaoService.definirGanhador(comGanhador.getId(), proposta.getId());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        assertEquals(FaseLicitacao.ENCERRADA, licitacaoRepository.findById(deserta.getId()).orElseThrow().getFase());
+        ContadorEmpresa incremental = contadorEmpresaRepository.findById(empresa.getId()).orElseThrow();
+        List<ContagemNicho> nichosIncremental = contadorEmpresaRepository.findPorNicho(empresa.getId());
+        assertEquals(0, incremental.getAbertas());
+        assertEquals(2, incremental.getEncerradas());
+        assertEquals(1, incremental.getDesertas());
+        assertEquals(List.of(new ContagemNicho(nicho.getNome(), 1L)), nichosIncremental);
+
+        contadorEmpresaService.recalcular(empresa.getId());
+
+        ContadorEmpresa reconstruido = contadorEmpresaRepository.findById(empresa.getId()).orElseThrow();
+        assertEquals(incremental.getAbertas(), reconstruido.getAbertas());
+        assertEquals(incremental.getSegundaFase(), reconstruido.getSegundaFase());
+        assertEquals(incremental.getEncerradas(), reconstruido.getEncerradas());
+        assertEquals(incremental.getDesertas(), reconstruido.getDesertas());
+        assertEquals(nichosIncremental, contadorEmpresaRepository.findPorNicho(empresa.getId()));
+    }
+}
@@ -0,0 +1,102 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.IntegracaoPostgresTest;
+import com.b2fy.backend.domain.Licitacao;
+import com.b2fy.backend.domain.Nicho;
+import com.b2fy.backend.domain.Usuario;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Contador de não lidas na coluna de usuario: criações, leituras e recontagens concorrentes terminam com o valor da
+ * tabela notificacao, e a reconciliação desconta as notificações que saíram da janela de retenção.
+ */
+class ContadorNaoLidasServiceTest extends IntegracaoPostgresTest {
+
+    private static final int CRIACOES = 40;
+
+    @Autowired
+    private ContadorNaoLidasService contadorNaoLidasService;
+
+    @Autowired
+    private NotificacaoService notificacaoService;
+
+    @Autowired
+    private NotificacaoParticaoService notificacaoParticaoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void ajustesConcorrentesNaoSePerdem() throws Exception {
+        Nicho nicho = novoNicho();
+        Licitacao licitacao = novaLicitacao(novaEmpresa(), nicho);
+        Usuario leitor = novoFornecedor(nicho);
+        Usuario outro = novoFornecedor(nicho);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int i = 0; i < CRIACOES; i++) {
+                // duas para o leitor e uma para o outro: dois UPDATEs com quantidades diferentes na mesma transação
+                tarefas.add(executor.submit(() -> notificacaoService.criarLicitacaoAbertaEmLote(
+                    List.of(leitor.getId(), outro.getId(), leitor.getId()), licitacao, "Nova licitação")));
+                if (i % 4 == 0) {
+                    tarefas.add(executor.submit(() -> comoUsuario(leitor, () -> {
+                        notificacaoService.marcarComoLidas(null);
+                        return null;
+                    })));
+                    tarefas.add(executor.submit(() -> contadorNaoLidasService.recontar(List.of(leitor.getId(), outro.getId()))));
+                }
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(naoLidasNaTabela(leitor), contadorNaoLidasService.obter(leitor.getId()));
+        assertEquals(CRIACOES, naoLidasNaTabela(outro));
+        assertEquals(CRIACOES, contadorNaoLidasService.obter(outro.getId()));
+    }
+
+    @Test
+    void reconciliacaoDescontaAsForaDaRetencao() {
+        Nicho nicho = novoNicho();
+        Licitacao licitacao = novaLicitacao(novaEmpresa(), nicho);
+        Usuario fornecedor = novoFornecedor(nicho);
+        for (int i = 0; i < 3; i++) {
+            notificacaoService.criarLicitacaoAbertaEmLote(List.of(fornecedor.getId()), licitacao, "Nova licitação");
+        }
+        jdbcTemplate.update(
+            "UPDATE notificacao SET created_at = ? WHERE id = (SELECT MIN(id) FROM notificacao WHERE usuario_id = ?)",
+            Timestamp.from(notificacaoParticaoService.inicioRetencao().minus(Duration.ofDays(1))), fornecedor.getId());
+        assertEquals(3, contadorNaoLidasService.obter(fornecedor.getId()));
+
+        contadorNaoLidasService.reconciliar();
+
+        assertEquals(2, contadorNaoLidasService.obter(fornecedor.getId()));
+        assertEquals(0, comoUsuario(fornecedor, () -> {
+            notificacaoService.marcarComoLidas(null);
+            return notificacaoService.countNaoLidas();
+        }));
+    }
+
+    private long naoLidasNaTabela(Usuario usuario) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM notificacao WHERE usuario_id = ? AND lida = false", Long.class, usuario.getId());
+    }
+}
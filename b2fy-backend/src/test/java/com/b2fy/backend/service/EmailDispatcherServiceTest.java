@@ -0,0 +1,185 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.IntegracaoPostgresTest;
+import com.b2fy.backend.domain.EmailPendente;
+import com.b2fy.backend.domain.StatusEmail;
+import com.b2fy.backend.repository.EmailPendenteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dispatcher contra um servidor SMTP de mentira que recusa os destinatários "recusado@": o lote é enviado numa
+ * sessão, só as mensagens recusadas voltam com backoff e, esgotadas as tentativas, viram FALHOU.
+ */
+@TestPropertySource(properties = {
+    "b2fy.email.max-tentativas=2",
+    "b2fy.email.backoff-inicial=PT10M"
+})
+class EmailDispatcherServiceTest extends IntegracaoPostgresTest {
+
+    private static final String ACEITO = "aceito@dispatcher.b2fy";
+    private static final String RECUSADO = "recusado@dispatcher.b2fy";
+    private static final Duration BACKOFF_INICIAL = Duration.ofMinutes(10);
+
+    private static final SmtpStub SMTP = new SmtpStub();
+
+    @Autowired
+    private EmailDispatcherService emailDispatcherService;
+
+    @Autowired
+    private EmailPendenteRepository emailPendenteRepository;
+
+    @DynamicPropertySource
+    static void smtp(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.host", () -> "127.0.0.1");
+        registry.add("spring.mail.port", SMTP::porta);
+    }
+
+    @Test
+    void falhaParcialRetentaSoAsRecusadasAteFalhou() {
+        // emails idênticos dois a dois: cada linha precisa receber o próprio resultado
+        List<EmailPendente> linhas = emailPendenteRepository.saveAll(List.of(
+            email(ACEITO), email(ACEITO), email(RECUSADO), email(RECUSADO)
+        ));
+        List<Long> ids = linhas.stream().map(EmailPendente::getId).toList();
+
+        Instant antes = Instant.now();
+        emailDispatcherService.despachar();
+        Instant depois = Instant.now();
+
+        List<EmailPendente> aposPrimeiro = emailPendenteRepository.findAllById(ids);
+        for (EmailPendente e : aposPrimeiro) {
+            if (e.getDestinatario().equals(ACEITO)) {
+                assertEquals(StatusEmail.ENVIADO, e.getStatus());
+                assertNotNull(e.getEnviadoEm());
+                assertNull(e.getUltimoErro());
+            } else {
+                assertEquals(StatusEmail.PENDENTE, e.getStatus());
+                assertEquals(1, e.getTentativas());
+                assertNotNull(e.getUltimoErro());
+                assertFalse(e.getProximaTentativa().isBefore(antes.plus(BACKOFF_INICIAL)), "backoff aplicado");
+                assertFalse(e.getProximaTentativa().isAfter(depois.plus(BACKOFF_INICIAL)), "backoff aplicado");
+            }
+        }
+        assertEquals(2, SMTP.entregues(ACEITO));
+        assertEquals(0, SMTP.entregues(RECUSADO));
+
+        // antecipa a nova tentativa em vez de esperar o backoff
+        List<EmailPendente> recusados = aposPrimeiro.stream().filter(e -> e.getDestinatario().equals(RECUSADO)).toList();
+        recusados.forEach(e -> e.setProximaTentativa(Instant.now().minusSeconds(1)));
+        emailPendenteRepository.saveAll(recusados);
+
+        emailDispatcherService.despachar();
+
+        for (EmailPendente e : emailPendenteRepository.findAllById(ids)) {
+            if (e.getDestinatario().equals(RECUSADO)) {
+                assertEquals(StatusEmail.FALHOU, e.getStatus());
+                assertEquals(2, e.getTentativas());
+            } else {
+                assertEquals(StatusEmail.ENVIADO, e.getStatus());
+            }
+        }
+        assertEquals(2, SMTP.entregues(ACEITO), "os já enviados não são reenviados");
+        assertTrue(emailDispatcherService.reserva().compareTo(Duration.ofMinutes(1)) > 0);
+    }
+
+    private static EmailPendente email(String destinatario) {
+        EmailPendente e = new EmailPendente();
+        e.setDestinatario(destinatario);
+        e.setAssunto("Teste do dispatcher");
+        e.setCorpo("Mesmo corpo para todos");
+        return e;
+    }
+
+    /** SMTP mínimo: aceita tudo, menos RCPT para endereços "recusado@", e guarda os destinatários entregues. */
+    private static final class SmtpStub {
+
+        private final ServerSocket servidor;
+        private final Queue<String> entregues = new ConcurrentLinkedQueue<>();
+
+        SmtpStub() {
+            try {
+                servidor = new ServerSocket(0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Thread aceitar = new Thread(this::aceitar, "smtp-stub");
+            aceitar.setDaemon(true);
+            aceitar.start();
+        }
+
+        int porta() {
+            return servidor.getLocalPort();
+        }
+
+        long entregues(String destinatario) {
+            return entregues.stream().filter(destinatario::equals).count();
+        }
+
+        private void aceitar() {
+            while (!servidor.isClosed()) {
+                try (Socket socket = servidor.accept()) {
+                    atender(socket);
+                } catch (IOException ignored) {
+                    // cliente desconectou; espera o próximo
+                }
+            }
+        }
+
+        private void atender(Socket socket) throws IOException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII);
+            responder(out, "220 stub");
+            String destinatario = null;
+            String linha;
+            while ((linha = in.readLine()) != null) {
+                String comando = linha.toUpperCase();
+                if (comando.startsWith("RCPT TO:")) {
+                    destinatario = linha.substring(linha.indexOf('<') + 1, linha.indexOf('>'));
+                    responder(out, destinatario.startsWith("recusado@") ? "550 destinatario recusado" : "250 ok");
+                } else if (comando.equals("DATA")) {
+                    responder(out, "354 fim com .");
+                    while ((linha = in.readLine()) != null && !linha.equals(".")) {
+                        // descarta o conteúdo
+                    }
+                    entregues.add(destinatario);
+                    responder(out, "250 ok");
+                } else if (comando.equals("QUIT")) {
+                    responder(out, "221 tchau");
+                    return;
+                } else {
+                    // EHLO, MAIL FROM, RSET, NOOP
+                    responder(out, "250 ok");
+                }
+            }
+        }
+
+        private static void responder(PrintWriter out, String resposta) {
+            out.print(resposta + "\r\n");
+            out.flush();
+        }
+    }
+}
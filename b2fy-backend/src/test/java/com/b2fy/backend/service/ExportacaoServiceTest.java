@@ -0,0 +1,151 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.IntegracaoPostgresTest;
+import com.b2fy.backend.domain.Licitacao;
+import com.b2fy.backend.domain.Nicho;
+import com.b2fy.backend.domain.TipoUsuario;
+import com.b2fy.backend.domain.Usuario;
+import com.b2fy.backend.security.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exportação CSV pelo endpoint: escape de ';', aspas e quebras de linha, proteção contra fórmulas, 503 com Retry-After
+ * acima do limite de exportações simultâneas e devolução das vagas.
+ */
+@AutoConfigureMockMvc
+class ExportacaoServiceTest extends IntegracaoPostgresTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${b2fy.exportacao.max-simultaneas}")
+    private int maxSimultaneas;
+
+    @Value("${b2fy.exportacao.retry-after-segundos}")
+    private long retryAfterSegundos;
+
+    @Test
+    void escapaCamposEProtegeContraFormulas() throws Exception {
+        Usuario empresa = novaEmpresa();
+        Nicho nicho = novoNicho();
+        Licitacao formula = renomear(novaLicitacao(empresa, nicho), "=HYPERLINK(\"http://x\")");
+        Licitacao separador = renomear(novaLicitacao(empresa, nicho), "Cadeiras; mesas");
+        Licitacao quebra = renomear(novaLicitacao(empresa, nicho), "Linha 1\nLinha 2");
+        Licitacao arroba = renomear(novaLicitacao(empresa, nicho), "@SOMA(1;2)");
+        Licitacao comum = renomear(novaLicitacao(empresa, nicho), "Papel A4");
+
+        String csv = exportarLicitacoes(empresa);
+
+        assertTrue(csv.startsWith("\uFEFFid;nome;fase;data_fechamento;criada_em;encerrada_em;ganhador;nichos;propostas\r\n"), csv);
+        assertTrue(csv.contains("\r\n" + formula.getId() + ";\"'=HYPERLINK(\"\"http://x\"\")\";ABERTA;"), csv);
+        assertTrue(csv.contains("\r\n" + separador.getId() + ";\"Cadeiras; mesas\";ABERTA;"), csv);
+        assertTrue(csv.contains("\r\n" + quebra.getId() + ";\"Linha 1\nLinha 2\";ABERTA;"), csv);
+        assertTrue(csv.contains("\r\n" + arroba.getId() + ";\"'@SOMA(1;2)\";ABERTA;"), csv);
+        assertTrue(csv.contains("\r\n" + comum.getId() + ";Papel A4;ABERTA;"), csv);
+        assertTrue(csv.contains(";" + nicho.getNome() + ";0\r\n"), csv);
+    }
+
+    @Test
+    void exportacoesTerminadasDevolvemAVaga() throws Exception {
+        Usuario empresa = novaEmpresa();
+        Licitacao licitacao = novaLicitacao(empresa, novoNicho());
+        // mais exportações seguidas que vagas: cada uma precisa devolver a sua, senão a última levaria 503
+        for (int i = 0; i <= maxSimultaneas; i++) {
+            assertTrue(exportarLicitacoes(empresa).contains("\r\n" + licitacao.getId() + ";"));
+        }
+    }
+
+    @Test
+    void acimaDoLimiteDeSimultaneasResponde503() throws Exception {
+        Usuario empresa = novaEmpresa();
+        novaLicitacao(empresa, novoNicho());
+        List<MvcResult> emAndamento = new ArrayList<>();
+        try (Connection trava = dataSource.getConnection()) {
+            // a consulta de cada exportação para na tabela travada, segurando a vaga
+            trava.setAutoCommit(false);
+            try (Statement st = trava.createStatement()) {
+                st.execute("LOCK TABLE licitacao IN ACCESS EXCLUSIVE MODE");
+            }
+            for (int i = 0; i < maxSimultaneas; i++) {
+                emAndamento.add(iniciarExportacao(empresa).andExpect(request().asyncStarted()).andReturn());
+            }
+            aguardarExportacoesBloqueadas(maxSimultaneas);
+
+            iniciarExportacao(empresa)
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSegundos)));
+
+            trava.commit();
+        }
+        for (MvcResult inicio : emAndamento) {
+            mockMvc.perform(asyncDispatch(inicio)).andExpect(status().isOk());
+        }
+        // vagas devolvidas: a próxima passa
+        exportarLicitacoes(empresa);
+    }
+
+    /** Espera até {@code quantidade} consultas de exportação estarem paradas no lock da tabela. */
+    private void aguardarExportacoesBloqueadas(int quantidade) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < limite) {
+            Integer bloqueadas = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_stat_activity WHERE datname = current_database() AND wait_event_type = 'Lock' " +
+                "AND query ILIKE 'select l.id, l.nome%'", Integer.class);
+            if (bloqueadas != null && bloqueadas >= quantidade) return;
+            Thread.sleep(20);
+        }
+        fail(quantidade + " exportações não chegaram à consulta");
+    }
+
+    private Licitacao renomear(Licitacao licitacao, String nome) {
+        licitacao.setNome(nome);
+        return licitacaoRepository.save(licitacao);
+    }
+
+    private String exportarLicitacoes(Usuario empresa) throws Exception {
+        MvcResult inicio = iniciarExportacao(empresa).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(inicio))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private ResultActions iniciarExportacao(Usuario empresa) throws Exception {
+        String token = jwtService.generateToken(empresa.getId(), empresa.getEmail(), TipoUsuario.EMPRESA);
+        return mockMvc.perform(get("/licitacoes/exportacao").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+}
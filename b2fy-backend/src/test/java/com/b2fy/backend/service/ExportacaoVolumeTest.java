@@ -0,0 +1,127 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.IntegracaoPostgresTest;
+import com.b2fy.backend.domain.FaseLicitacao;
+import com.b2fy.backend.domain.Licitacao;
+import com.b2fy.backend.domain.Nicho;
+import com.b2fy.backend.domain.TipoUsuario;
+import com.b2fy.backend.domain.Usuario;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exportação de um milhão de propostas com heap limitado: roda na execução "volume" do surefire (JVM própria, com
+ * -Xmx bem abaixo do tamanho do CSV), fora da execução padrão. Se a exportação acumulasse linhas ou entidades, a JVM
+ * estouraria o heap; o corpo é escrito num OutputStream que só conta bytes e linhas.
+ */
+@Tag("volume")
+class ExportacaoVolumeTest extends IntegracaoPostgresTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportacaoVolumeTest.class);
+    private static final int LICITACOES = 1000;
+    private static final int FORNECEDORES = 1000;
+
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void milhaoDePropostasComHeapLimitado() throws Exception {
+        Usuario empresa = empresaComUmMilhaoDePropostas();
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        ContadorDeSaida saida = new ContadorDeSaida();
+        List<MemoryPoolMXBean> heap = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(p -> p.getType() == MemoryType.HEAP)
+            .toList();
+        heap.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long inicio = System.nanoTime();
+        try {
+            StreamingResponseBody corpo = comoUsuario(empresa, () -> exportacaoService.exportarPropostas(null));
+            corpo.writeTo(saida);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        long picoHeap = heap.stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum();
+
+        log.info("Exportadas {} linhas ({} MB) em {} ms; pico de heap {} MB de {} MB",
+            saida.linhas - 1, saida.bytes >> 20, ms, picoHeap >> 20, Runtime.getRuntime().maxMemory() >> 20);
+        // cabeçalho + uma linha por proposta
+        assertEquals((long) LICITACOES * FORNECEDORES + 1, saida.linhas);
+        assertTrue(picoHeap < saida.bytes, "pico de heap " + picoHeap + " bytes para um CSV de " + saida.bytes);
+    }
+
+    /** Fornecedores e licitações pelo JPA; o milhão de propostas (todas contra todas) num único INSERT ... SELECT. */
+    private Usuario empresaComUmMilhaoDePropostas() {
+        Nicho nicho = novoNicho();
+        Usuario empresa = novaEmpresa();
+        List<Usuario> fornecedores = new ArrayList<>();
+        for (int i = 0; i < FORNECEDORES; i++) {
+            fornecedores.add(usuario(TipoUsuario.FORNECEDOR, Set.of(nicho)));
+        }
+        usuarioRepository.saveAll(fornecedores);
+        List<Licitacao> licitacoes = new ArrayList<>();
+        for (int i = 0; i < LICITACOES; i++) {
+            Licitacao l = new Licitacao();
+            l.setEmpresa(empresa);
+            l.setNome("Licitação em volume " + i);
+            l.setDescricaoProdutosServicos("Materiais de escritório");
+            l.setDataFechamento(LocalDate.now().plusDays(10));
+            l.setFase(FaseLicitacao.ABERTA);
+            l.getNichos().add(nicho);
+            licitacoes.add(l);
+        }
+        licitacaoRepository.saveAll(licitacoes);
+        jdbcTemplate.update(
+            "INSERT INTO proposta (id, licitacao_id, fornecedor_id, fase, status, descricao_produtos_servicos, " +
+            "valor_orcamento, valor_com_taxa, created_at) " +
+            "SELECT nextval('proposta_seq'), l.id, f.id, 'FASE_1', 'ENVIADA', 'Proposta de ' || f.nome, 1000.00, 1050.00, now() " +
+            "FROM licitacao l CROSS JOIN usuario f WHERE l.empresa_id = ? AND f.id IN (SELECT usuario_id FROM usuario_nicho WHERE nicho_id = ?)",
+            empresa.getId(), nicho.getId());
+        return empresa;
+    }
+
+    private static final class ContadorDeSaida extends OutputStream {
+        private long bytes;
+        private long linhas;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') linhas++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') linhas++;
+            }
+        }
+    }
+}
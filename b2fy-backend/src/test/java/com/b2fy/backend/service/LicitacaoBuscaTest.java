@@ -0,0 +1,168 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.IntegracaoPostgresTest;
+import com.b2fy.backend.domain.FaseLicitacao;
+import com.b2fy.backend.domain.Licitacao;
+import com.b2fy.backend.domain.Nicho;
+import com.b2fy.backend.domain.Usuario;
+import com.b2fy.backend.dto.response.LicitacaoResponse;
+import com.b2fy.backend.dto.response.PaginaResponse;
+import com.b2fy.backend.repository.LicitacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Busca textual ({@link LicitacaoRepository#buscar}) sobre a coluna e o índice de db/004_licitacao_busca.sql, aplicado
+ * aqui porque o ddl-auto não cria colunas geradas: radicais e acentos (pt_busca), ordem por ts_rank (nome pesa mais
+ * que descrição), os filtros opcionais que o CAST deixa nulos, visibilidade por nicho e o uso do índice GIN.
+ */
+class LicitacaoBuscaTest extends IntegracaoPostgresTest {
+
+    private static final int VOLUME_EXPLAIN = 5000;
+
+    @Autowired
+    private LicitacaoService licitacaoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void aplicarScriptDeBusca() throws Exception {
+        // idempotente; o driver aceita o script inteiro (com o bloco DO) num único comando
+        jdbcTemplate.execute(Files.readString(Path.of("db/004_licitacao_busca.sql")));
+    }
+
+    @Test
+    void encontraPorRadicalESemAcento() {
+        Usuario empresa = novaEmpresa();
+        Nicho nicho = novoNicho();
+        Licitacao cadeiras = licitacao(empresa, nicho, "Aquisição de cadeiras ergonômicas", "Para o escritório central");
+        Licitacao mesas = licitacao(empresa, nicho, "Aquisição de mesas e cadeiras", "Mobiliário");
+
+        // plural e acento do texto contra singular sem acento da busca, e vice-versa
+        assertEquals(List.of(cadeiras.getId()), ids(empresa, "cadeira ergonomica"));
+        assertEquals(List.of(cadeiras.getId()), ids(empresa, "ERGONÔMICAS"));
+        assertEquals(2, ids(empresa, "aquisicao").size());
+        // sintaxe do websearch_to_tsquery: exclusão e frase
+        assertEquals(List.of(cadeiras.getId()), ids(empresa, "cadeiras -mesas"));
+        assertEquals(List.of(mesas.getId()), ids(empresa, "\"mesas e cadeiras\""));
+        assertEquals(List.of(), ids(empresa, "poltronas"));
+    }
+
+    @Test
+    void ordenaPorRelevanciaEPaginaPeloCursor() {
+        Usuario empresa = novaEmpresa();
+        Nicho nicho = novoNicho();
+        Licitacao soDescricao = licitacao(empresa, nicho, "Materiais diversos", "Resmas de papel sulfite");
+        Licitacao noNome = licitacao(empresa, nicho, "Papel A4", "Caixas com dez resmas");
+        Licitacao nosDois = licitacao(empresa, nicho, "Papel reciclado", "Papel reciclado em resmas");
+
+        List<Long> esperado = List.of(nosDois.getId(), noNome.getId(), soDescricao.getId());
+        assertEquals(esperado, ids(empresa, "papel"));
+        assertEquals(esperado, relevanciasDoBanco("papel", esperado));
+
+        // um por página: o cursor (relevância, id) percorre a mesma ordem sem repetir nem pular
+        List<Long> paginado = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaResponse<LicitacaoResponse> pagina = buscar(empresa, "papel", null, null, null, null, cursor, 1);
+            pagina.itens().forEach(l -> paginado.add(l.id()));
+            cursor = pagina.proximoCursor();
+        } while (cursor != null);
+        assertEquals(esperado, paginado);
+    }
+
+    @Test
+    void filtrosOpcionaisNulosNaoRestringem() {
+        Usuario empresa = novaEmpresa();
+        Nicho nicho = novoNicho();
+        Nicho outro = novoNicho();
+        Licitacao aberta = licitacao(empresa, nicho, "Toner para impressoras", "Cartuchos");
+        Licitacao encerrada = licitacao(empresa, outro, "Toner colorido", "Cartuchos");
+        jdbcTemplate.update("UPDATE licitacao SET fase = 'ENCERRADA', data_fechamento = ? WHERE id = ?",
+            LocalDate.now().plusDays(30), encerrada.getId());
+
+        assertEquals(2, buscar(empresa, "toner", null, null, null, null, null, 20).itens().size());
+        assertEquals(List.of(aberta.getId()), ids(buscar(empresa, "toner", FaseLicitacao.ABERTA, null, null, null, null, 20)));
+        assertEquals(List.of(encerrada.getId()),
+            ids(buscar(empresa, "toner", null, LocalDate.now().plusDays(20), null, null, null, 20)));
+        assertEquals(List.of(aberta.getId()),
+            ids(buscar(empresa, "toner", null, null, LocalDate.now().plusDays(20), null, null, 20)));
+        assertEquals(List.of(encerrada.getId()), ids(buscar(empresa, "toner", null, null, null, outro.getNome(), null, 20)));
+        assertEquals(List.of(), ids(buscar(empresa, "toner", FaseLicitacao.ABERTA, null, null, outro.getNome(), null, 20)));
+
+        // fornecedor vê só as licitações dos seus nichos; outra empresa não vê nenhuma
+        assertEquals(List.of(aberta.getId()), ids(novoFornecedor(nicho), "toner"));
+        assertEquals(List.of(), ids(novaEmpresa(), "toner"));
+    }
+
+    @Test
+    void consultaUsaOIndiceGin() throws Exception {
+        Usuario empresa = novaEmpresa();
+        licitacao(empresa, novoNicho(), "Cimento e areia", "Obra da sede");
+        jdbcTemplate.update(
+            "INSERT INTO licitacao (id, empresa_id, nome, descricao_produtos_servicos, data_fechamento, fase, created_at) " +
+            "SELECT nextval('licitacao_seq'), ?, 'Serviço de limpeza ' || g, 'Limpeza predial, lote ' || g, current_date + 10, 'ABERTA', now() " +
+            "FROM generate_series(1, ?) g", empresa.getId(), VOLUME_EXPLAIN);
+        jdbcTemplate.execute("ANALYZE licitacao");
+
+        String plano = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + consultaComLiterais("cimento", empresa.getId()), String.class));
+
+        assertTrue(plano.contains("idx_licitacao_busca"), plano);
+    }
+
+    private Licitacao licitacao(Usuario empresa, Nicho nicho, String nome, String descricao) {
+        Licitacao licitacao = novaLicitacao(empresa, nicho);
+        licitacao.setNome(nome);
+        licitacao.setDescricaoProdutosServicos(descricao);
+        return licitacaoRepository.save(licitacao);
+    }
+
+    private PaginaResponse<LicitacaoResponse> buscar(Usuario usuario, String termo, FaseLicitacao fase, LocalDate de,
+                                                    LocalDate ate, String nicho, String cursor, int limite) {
+        return comoUsuario(usuario, () -> licitacaoService.buscar(termo, fase, de, ate, nicho, cursor, limite));
+    }
+
+    private List<Long> ids(Usuario usuario, String termo) {
+        return ids(buscar(usuario, termo, null, null, null, null, null, 20));
+    }
+
+    private static List<Long> ids(PaginaResponse<LicitacaoResponse> pagina) {
+        return pagina.itens().stream().map(LicitacaoResponse::id).toList();
+    }
+
+    /** As mesmas licitações ordenadas por ts_rank calculado à parte, para conferir a ordem da busca. */
+    private List<Long> relevanciasDoBanco(String termo, List<Long> ids) {
+        return jdbcTemplate.queryForList(
+            "SELECT id FROM licitacao WHERE id = ANY(?) ORDER BY ts_rank(busca, websearch_to_tsquery('pt_busca', ?)) DESC",
+            Long.class, ids.toArray(Long[]::new), termo);
+    }
+
+    /** A consulta nativa de {@link LicitacaoRepository#buscar}, com o termo e o usuário e os filtros e o cursor nulos. */
+    private static String consultaComLiterais(String termo, Long usuarioId) throws NoSuchMethodException {
+        String sql = LicitacaoRepository.class.getMethod("buscar", String.class, Long.class, String.class, LocalDate.class,
+            LocalDate.class, Long.class, Float.class, Long.class, int.class).getAnnotation(Query.class).value();
+        Map<String, String> literais = Map.of("termo", "'" + termo + "'", "usuarioId", usuarioId.toString(), "limite", "21");
+        Matcher m = Pattern.compile(":(\\w+)").matcher(sql);
+        StringBuilder resultado = new StringBuilder();
+        while (m.find()) {
+            m.appendReplacement(resultado, literais.getOrDefault(m.group(1), "NULL"));
+        }
+        return m.appendTail(resultado).toString();
+    }
+}
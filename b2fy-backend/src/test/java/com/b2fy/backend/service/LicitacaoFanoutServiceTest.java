@@ -0,0 +1,126 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.IdasAoBanco;
+import com.b2fy.backend.IntegracaoPostgresTest;
+import com.b2fy.backend.domain.EmailPendente;
+import com.b2fy.backend.domain.FanoutPendente;
+import com.b2fy.backend.domain.Licitacao;
+import com.b2fy.backend.domain.Nicho;
+import com.b2fy.backend.domain.Notificacao;
+import com.b2fy.backend.domain.TipoNotificacao;
+import com.b2fy.backend.domain.TipoUsuario;
+import com.b2fy.backend.domain.Usuario;
+import com.b2fy.backend.repository.FanoutPendenteRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Idas ao banco (contadas por {@link IdasAoBanco}) do fan-out de uma licitação: com ids de sequence em blocos e
+ * batching do Hibernate, notificações e emails vão em lotes, contra duas inserções por fornecedor quando cada linha
+ * era gravada na hora (o que GenerationType.IDENTITY obrigava).
+ */
+class LicitacaoFanoutServiceTest extends IntegracaoPostgresTest {
+
+    private static final int FORNECEDORES = 300;
+
+    @Autowired
+    private LicitacaoFanoutService fanoutService;
+
+    @Autowired
+    private FanoutPendenteRepository fanoutPendenteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void fanoutEmLoteContraUmaLinhaPorVez() {
+        long poucos = idasDoFanout(novaLicitacaoComFornecedores(5));
+        Licitacao licitacao = novaLicitacaoComFornecedores(FORNECEDORES);
+        long emLote = idasDoFanout(licitacao);
+        long umaPorVez = idasUmaLinhaPorVez(licitacao, fornecedoresDe(licitacao));
+
+        // uma linha por vez: notificação e email de cada fornecedor, cada um numa ida
+        assertThat(umaPorVez).isGreaterThanOrEqualTo(2L * FORNECEDORES);
+        // em lote: a diferença entre 5 e 300 fornecedores são os lotes (50 linhas) e as chamadas às sequences
+        assertThat(emLote - poucos).isLessThanOrEqualTo(4 * (FORNECEDORES / 50 + 1));
+        assertThat(emLote * 10).isLessThan(umaPorVez);
+    }
+
+    private Licitacao novaLicitacaoComFornecedores(int fornecedores) {
+        Nicho nicho = novoNicho();
+        List<Usuario> novos = new ArrayList<>();
+        for (int i = 0; i < fornecedores; i++) {
+            novos.add(usuario(TipoUsuario.FORNECEDOR, Set.of(nicho)));
+        }
+        usuarioRepository.saveAll(novos);
+        return novaLicitacao(novaEmpresa(), nicho);
+    }
+
+    private long idasDoFanout(Licitacao licitacao) {
+        FanoutPendente fanout = new FanoutPendente();
+        fanout.setLicitacaoIds(new Long[] {licitacao.getId()});
+        fanoutPendenteRepository.save(fanout);
+
+        IdasAoBanco.zerar();
+        fanoutService.processarPendentes();
+        long idas = IdasAoBanco.total();
+
+        int fornecedores = fornecedoresDe(licitacao).size();
+        assertThat(fanoutPendenteRepository.findById(fanout.getId())).isEmpty();
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM notificacao WHERE licitacao_id = ?", Long.class, licitacao.getId()
+        )).isEqualTo(fornecedores);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM email_pendente WHERE corpo LIKE ?", Long.class, "%" + licitacao.getNome() + "%"
+        )).isEqualTo(fornecedores);
+        return idas;
+    }
+
+    /** A mesma gravação, uma linha por vez: cada persist seguido de flush, como com ids IDENTITY. */
+    private long idasUmaLinhaPorVez(Licitacao licitacao, List<Usuario> fornecedores) {
+        IdasAoBanco.zerar();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (Usuario fornecedor : fornecedores) {
+                Notificacao n = new Notificacao();
+                n.setUsuario(entityManager.getReference(Usuario.class, fornecedor.getId()));
+                n.setLicitacao(entityManager.getReference(Licitacao.class, licitacao.getId()));
+                n.setTipo(TipoNotificacao.LICITACAO_ABERTA);
+                n.setMensagem("Nova licitação: " + licitacao.getNome());
+                entityManager.persist(n);
+                entityManager.flush();
+                EmailPendente e = new EmailPendente();
+                e.setDestinatario(fornecedor.getEmail());
+                e.setAssunto("Nova licitação");
+                e.setCorpo("Nova licitação: " + licitacao.getNome());
+                entityManager.persist(e);
+                entityManager.flush();
+            }
+            status.setRollbackOnly();
+        });
+        return IdasAoBanco.total();
+    }
+
+    private List<Usuario> fornecedoresDe(Licitacao licitacao) {
+        Long nichoId = jdbcTemplate.queryForObject(
+            "SELECT nicho_id FROM licitacao_nicho WHERE licitacao_id = ?", Long.class, licitacao.getId());
+        return usuarioRepository.findAllById(jdbcTemplate.queryForList(
+            "SELECT usuario_id FROM usuario_nicho WHERE nicho_id = ?", Long.class, nichoId));
+    }
+}
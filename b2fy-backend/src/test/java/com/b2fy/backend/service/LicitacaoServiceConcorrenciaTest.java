@@ -0,0 +1,226 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.IntegracaoPostgresTest;
+import com.b2fy.backend.domain.FaseLicitacao;
+import com.b2fy.backend.domain.FaseProposta;
+import com.b2fy.backend.domain.Licitacao;
+import com.b2fy.backend.domain.Nicho;
+import com.b2fy.backend.domain.Proposta;
+import com.b2fy.backend.domain.StatusProposta;
+import com.b2fy.backend.domain.Usuario;
+import com.b2fy.backend.dto.request.NovaPropostaRequest;
+import com.b2fy.backend.exception.BusinessException;
+import com.b2fy.backend.exception.ConflitoException;
+import com.b2fy.backend.repository.PropostaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * definirGanhador e irParaSegundaFase na mesma licitação ao mesmo tempo: as duas leem a fase ABERTA e param no
+ * UPDATE condicional (a linha fica presa por outra conexão até as duas chegarem lá). Só uma transição pode valer;
+ * a outra recebe ConflitoException (409) e não deixa rastro. Com propostas chegando no meio (o FOR SHARE de
+ * findParaProposta), nenhuma proposta da fase 1 confirma depois que a licitação sai de ABERTA.
+ */
+class LicitacaoServiceConcorrenciaTest extends IntegracaoPostgresTest {
+
+    private static final int PROPOSTAS_POR_GRUPO = 3;
+    private static final String UPDATE_LICITACAO = "update %licitacao set %";
+    private static final String FOR_SHARE_LICITACAO = "select %licitacao %for share%";
+
+    @Autowired
+    private LicitacaoService licitacaoService;
+
+    @Autowired
+    private PropostaService propostaService;
+
+    @Autowired
+    private PropostaRepository propostaRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void ganhadorESegundaFaseSimultaneosGeramUmUnicoConflito() throws Exception {
+        Nicho nicho = novoNicho();
+        Usuario empresa = novaEmpresa();
+        Usuario fornecedor = novoFornecedor(nicho);
+        Licitacao licitacao = novaLicitacao(empresa, nicho);
+        Proposta proposta = propostaRepository.save(proposta(licitacao, fornecedor));
+
+        List<Throwable> erros = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (Connection trava = dataSource.getConnection()) {
+            trava.setAutoCommit(false);
+            try (PreparedStatement ps = trava.prepareStatement("SELECT id FROM licitacao WHERE id = ? FOR UPDATE")) {
+                ps.setLong(1, licitacao.getId());
+                ps.executeQuery().close();
+            }
+            List<Future<?>> tarefas = List.of(
+                executor.submit(() -> comoEmpresa(empresa, () -> licitacaoService.definirGanhador(licitacao.getId(), proposta.getId()))),
+                executor.submit(() -> comoEmpresa(empresa, () -> licitacaoService.irParaSegundaFase(licitacao.getId(), List.of(proposta.getId()))))
+            );
+            aguardarBloqueadas(UPDATE_LICITACAO, 2);
+            trava.commit();
+            for (Future<?> tarefa : tarefas) {
+                try {
+                    tarefa.get(30, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    erros.add(e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, erros.size(), "exatamente uma das transições deve falhar: " + erros);
+        assertInstanceOf(ConflitoException.class, erros.get(0));
+
+        Licitacao depois = licitacaoRepository.findById(licitacao.getId()).orElseThrow();
+        StatusProposta status = propostaRepository.findById(proposta.getId()).orElseThrow().getStatus();
+        if (depois.getFase() == FaseLicitacao.ENCERRADA) {
+            assertEquals(fornecedor.getId(), depois.getGanhador().getId());
+            assertEquals(StatusProposta.GANHADORA, status);
+        } else {
+            assertEquals(FaseLicitacao.SEGUNDA_FASE, depois.getFase());
+            assertNull(depois.getGanhador());
+            assertEquals(StatusProposta.SELECIONADA_2FASE, status);
+        }
+    }
+
+    @Test
+    void propostasDuranteATransicaoNaoConfirmamDepoisDeSairDeAberta() throws Exception {
+        Nicho nicho = novoNicho();
+        Usuario empresa = novaEmpresa();
+        Licitacao licitacao = novaLicitacao(empresa, nicho);
+        Proposta primeira = propostaRepository.save(proposta(licitacao, novoFornecedor(nicho)));
+
+        List<Future<?>> antes = new ArrayList<>();
+        List<Future<?>> transicoes;
+        List<Future<?>> depois = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(2 + 2 * PROPOSTAS_POR_GRUPO);
+        try (Connection trava = dataSource.getConnection()) {
+            trava.setAutoCommit(false);
+            try (PreparedStatement ps = trava.prepareStatement("SELECT id FROM licitacao WHERE id = ? FOR UPDATE")) {
+                ps.setLong(1, licitacao.getId());
+                ps.executeQuery().close();
+            }
+            // fila de espera pela linha: propostas, as duas transições e mais propostas, nesta ordem
+            for (int i = 0; i < PROPOSTAS_POR_GRUPO; i++) {
+                antes.add(enviar(executor, licitacao, novoFornecedor(nicho)));
+            }
+            aguardarBloqueadas(FOR_SHARE_LICITACAO, PROPOSTAS_POR_GRUPO);
+            transicoes = List.of(
+                executor.submit(() -> comoEmpresa(empresa, () -> licitacaoService.definirGanhador(licitacao.getId(), primeira.getId()))),
+                executor.submit(() -> comoEmpresa(empresa, () -> licitacaoService.irParaSegundaFase(licitacao.getId(), List.of(primeira.getId()))))
+            );
+            aguardarBloqueadas(UPDATE_LICITACAO, 2);
+            for (int i = 0; i < PROPOSTAS_POR_GRUPO; i++) {
+                depois.add(enviar(executor, licitacao, novoFornecedor(nicho)));
+            }
+            aguardarBloqueadas(FOR_SHARE_LICITACAO, 2 * PROPOSTAS_POR_GRUPO);
+            trava.commit();
+
+            List<Throwable> errosTransicao = falhas(transicoes);
+            assertEquals(1, errosTransicao.size(), "exatamente uma das transições deve falhar: " + errosTransicao);
+            assertInstanceOf(ConflitoException.class, errosTransicao.get(0));
+
+            // a fila do lock da linha é respeitada: quem chegou antes da transição confirma na fase ABERTA, quem
+            // chegou depois lê a fase nova e é recusado, nunca por conflito ou erro do banco
+            assertEquals(List.of(), falhas(antes));
+            List<Throwable> recusadas = falhas(depois);
+            assertEquals(PROPOSTAS_POR_GRUPO, recusadas.size());
+            for (Throwable erro : recusadas) {
+                assertInstanceOf(BusinessException.class, erro);
+            }
+            Long confirmadas = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM proposta WHERE licitacao_id = ? AND id <> ?", Long.class, licitacao.getId(), primeira.getId());
+            assertEquals(PROPOSTAS_POR_GRUPO, confirmadas);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertNotEquals(FaseLicitacao.ABERTA, licitacaoRepository.findById(licitacao.getId()).orElseThrow().getFase());
+        // a transição vencedora é a última escrita na linha da licitação; as propostas ainda ENVIADA (a primeira foi
+        // regravada pela transição) confirmaram antes dela
+        Long depoisDaTransicao = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM proposta p JOIN licitacao l ON l.id = p.licitacao_id " +
+            "WHERE l.id = ? AND p.fase = 'FASE_1' AND p.status = 'ENVIADA' " +
+            "AND pg_xact_commit_timestamp(p.xmin) >= pg_xact_commit_timestamp(l.xmin)", Long.class, licitacao.getId());
+        assertEquals(0L, depoisDaTransicao);
+    }
+
+    private Future<?> enviar(ExecutorService executor, Licitacao licitacao, Usuario fornecedor) {
+        NovaPropostaRequest request = new NovaPropostaRequest("Proposta de " + fornecedor.getNome(), new BigDecimal("900.00"));
+        return executor.submit(() -> comoUsuario(fornecedor, () -> propostaService.enviar(licitacao.getId(), request, false, null)));
+    }
+
+    private static List<Throwable> falhas(List<Future<?>> tarefas) throws Exception {
+        List<Throwable> erros = new ArrayList<>();
+        for (Future<?> tarefa : tarefas) {
+            try {
+                tarefa.get(30, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                erros.add(e.getCause());
+            }
+        }
+        return erros;
+    }
+
+    /** Espera até {@code quantidade} conexões estarem paradas esperando o lock da linha da licitação em {@code comando}. */
+    private void aguardarBloqueadas(String comando, int quantidade) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < limite) {
+            Integer bloqueadas = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_stat_activity WHERE datname = current_database() AND wait_event_type = 'Lock' " +
+                "AND query ILIKE ?", Integer.class, comando);
+            if (bloqueadas != null && bloqueadas >= quantidade) return;
+            Thread.sleep(20);
+        }
+        fail(quantidade + " conexões não chegaram a " + comando + ": " + jdbcTemplate.queryForList(
+            "SELECT wait_event_type || ' ' || query FROM pg_stat_activity WHERE datname = current_database()", String.class));
+    }
+
+    private static Void comoEmpresa(Usuario empresa, Runnable operacao) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(empresa.getId(), null, List.of()));
+        try {
+            operacao.run();
+            return null;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static Proposta proposta(Licitacao licitacao, Usuario fornecedor) {
+        Proposta p = new Proposta();
+        p.setLicitacao(licitacao);
+        p.setFornecedor(fornecedor);
+        p.setFase(FaseProposta.FASE_1);
+        p.setValorOrcamento(new BigDecimal("1000.00"));
+        p.setValorComTaxa(new BigDecimal("1050.00"));
+        return p;
+    }
+}
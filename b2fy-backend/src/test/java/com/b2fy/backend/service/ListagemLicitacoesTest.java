@@ -0,0 +1,114 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.IntegracaoPostgresTest;
+import com.b2fy.backend.domain.FaseLicitacao;
+import com.b2fy.backend.domain.FaseProposta;
+import com.b2fy.backend.domain.Licitacao;
+import com.b2fy.backend.domain.Nicho;
+import com.b2fy.backend.domain.Proposta;
+import com.b2fy.backend.domain.Usuario;
+import com.b2fy.backend.dto.response.LicitacaoResponse;
+import com.b2fy.backend.dto.response.PaginaResponse;
+import com.b2fy.backend.repository.PropostaRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Uma página de licitações (da empresa ou dos nichos do fornecedor) custa o mesmo número de comandos com 3 ou 20
+ * itens: empresa, ganhador e nichos vêm em lote e as propostas são contadas numa única consulta agrupada.
+ */
+class ListagemLicitacoesTest extends IntegracaoPostgresTest {
+
+    private static final int POUCAS = 3;
+    private static final int MUITAS = 20;
+
+    @Autowired
+    private LicitacaoService licitacaoService;
+
+    @Autowired
+    private PropostaRepository propostaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void paginaDaEmpresaTemNumeroFixoDeComandos() {
+        long poucas = comandosPaginaEmpresa(POUCAS);
+        long muitas = comandosPaginaEmpresa(MUITAS);
+
+        assertEquals(poucas, muitas, "comandos com " + POUCAS + " e " + MUITAS + " licitações por página");
+    }
+
+    @Test
+    void paginaDoFornecedorTemNumeroFixoDeComandos() {
+        long poucas = comandosPaginaFornecedor(POUCAS);
+        long muitas = comandosPaginaFornecedor(MUITAS);
+
+        assertEquals(poucas, muitas, "comandos com " + POUCAS + " e " + MUITAS + " licitações por página");
+    }
+
+    private long comandosPaginaEmpresa(int quantidade) {
+        Nicho nicho = novoNicho();
+        Nicho outro = novoNicho();
+        Usuario empresa = novaEmpresa();
+        for (int i = 0; i < quantidade; i++) {
+            comPropostaEGanhador(novaLicitacao(empresa, nicho, outro), novoFornecedor(nicho), i);
+        }
+        return contarComandos(quantidade, () -> comoUsuario(empresa, () -> licitacaoService.listarPorEmpresa(null, quantidade, true)));
+    }
+
+    private long comandosPaginaFornecedor(int quantidade) {
+        Nicho nicho = novoNicho();
+        Nicho outro = novoNicho();
+        Usuario fornecedor = novoFornecedor(nicho);
+        for (int i = 0; i < quantidade; i++) {
+            // uma empresa por licitação: a página precisa carregar várias empresas
+            comPropostaEGanhador(novaLicitacao(novaEmpresa(), nicho, outro), fornecedor, i);
+        }
+        return contarComandos(quantidade, () -> comoUsuario(fornecedor, () -> licitacaoService.listarPorFornecedor(null, quantidade, true)));
+    }
+
+    /** Uma proposta por licitação; as de índice par terminam encerradas com ganhador. */
+    private void comPropostaEGanhador(Licitacao licitacao, Usuario fornecedor, int indice) {
+        Proposta p = new Proposta();
+        p.setLicitacao(licitacao);
+        p.setFornecedor(fornecedor);
+        p.setFase(FaseProposta.FASE_1);
+        p.setValorOrcamento(new BigDecimal("100.00"));
+        p.setValorComTaxa(new BigDecimal("105.00"));
+        propostaRepository.save(p);
+        if (indice % 2 == 0) {
+            licitacao.setFase(FaseLicitacao.ENCERRADA);
+            licitacao.setGanhador(fornecedor);
+            licitacaoRepository.save(licitacao);
+        }
+    }
+
+    private long contarComandos(int quantidade, Supplier<PaginaResponse<LicitacaoResponse>> listar) {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        PaginaResponse<LicitacaoResponse> pagina = listar.get();
+        long comandos = estatisticas.getPrepareStatementCount();
+
+        assertEquals(quantidade, pagina.itens().size());
+        assertEquals((long) quantidade, pagina.total());
+        for (LicitacaoResponse l : pagina.itens()) {
+            assertEquals(2, l.nichos().size());
+            assertNotNull(l.empresaNome());
+            assertEquals(1, l.totalPropostasFaseAtual());
+            if (l.fase() == FaseLicitacao.ENCERRADA) {
+                assertNotNull(l.ganhadorNome());
+            }
+        }
+        return comandos;
+    }
+}
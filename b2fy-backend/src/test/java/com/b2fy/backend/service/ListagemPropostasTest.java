@@ -0,0 +1,103 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.IntegracaoPostgresTest;
+import com.b2fy.backend.domain.FaseProposta;
+import com.b2fy.backend.domain.Licitacao;
+import com.b2fy.backend.domain.Nicho;
+import com.b2fy.backend.domain.Proposta;
+import com.b2fy.backend.domain.StatusProposta;
+import com.b2fy.backend.domain.Usuario;
+import com.b2fy.backend.dto.request.OrdemPropostas;
+import com.b2fy.backend.dto.response.PaginaResponse;
+import com.b2fy.backend.dto.response.PropostaResponse;
+import com.b2fy.backend.repository.PropostaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Listagem de propostas com os filtros opcionais (status, cursor) numa consulta só por ordenação: percorrer as
+ * páginas com e sem status, por valor e por recentes, devolve as mesmas propostas, na mesma ordem, que ordenar em memória.
+ */
+class ListagemPropostasTest extends IntegracaoPostgresTest {
+
+    private static final int PAGINA = 2;
+
+    @Autowired
+    private LicitacaoService licitacaoService;
+
+    @Autowired
+    private PropostaService propostaService;
+
+    @Autowired
+    private PropostaRepository propostaRepository;
+
+    @Test
+    void paginasComESemStatusSeguemAOrdemEsperada() {
+        Nicho nicho = novoNicho();
+        Usuario empresa = novaEmpresa();
+        Licitacao licitacao = novaLicitacao(empresa, nicho);
+        Instant base = Instant.parse("2026-01-01T12:00:00Z");
+        String[] valores = {"300.00", "100.00", "200.00", "100.00", "250.00", "100.00", "50.00"};
+        List<Proposta> propostas = new ArrayList<>();
+        for (int i = 0; i < valores.length; i++) {
+            Proposta p = new Proposta();
+            p.setLicitacao(licitacao);
+            p.setFornecedor(novoFornecedor(nicho));
+            p.setFase(FaseProposta.FASE_1);
+            p.setValorOrcamento(new BigDecimal(valores[i]));
+            p.setValorComTaxa(new BigDecimal(valores[i]));
+            p.setStatus(i % 2 == 0 ? StatusProposta.SELECIONADA_2FASE : StatusProposta.ENVIADA);
+            // dois pares com o mesmo createdAt, para o desempate por id
+            p.setCreatedAt(base.plusSeconds(i / 2 * 2));
+            propostas.add(propostaRepository.save(p));
+        }
+        Comparator<Proposta> porValor = Comparator.comparing(Proposta::getValorComTaxa).thenComparing(Proposta::getId);
+        Comparator<Proposta> recentes = Comparator.comparing(Proposta::getCreatedAt).thenComparing(Proposta::getId).reversed();
+
+        for (StatusProposta status : new StatusProposta[] {null, StatusProposta.SELECIONADA_2FASE}) {
+            List<Long> esperadoValor = ids(propostas, status, porValor);
+            List<Long> esperadoRecentes = ids(propostas, status, recentes);
+            assertEquals(esperadoValor, percorrer(empresa, licitacao, status, OrdemPropostas.VALOR), "VALOR, status " + status);
+            assertEquals(esperadoRecentes, percorrer(empresa, licitacao, status, OrdemPropostas.RECENTES), "RECENTES, status " + status);
+        }
+
+        List<Long> todas = new ArrayList<>();
+        String cursor = null;
+        do {
+            String atual = cursor;
+            PaginaResponse<PropostaResponse> pagina = comoUsuario(empresa, () -> propostaService.listarPorLicitacao(licitacao.getId(), atual, PAGINA));
+            pagina.itens().forEach(p -> todas.add(p.id()));
+            cursor = pagina.proximoCursor();
+        } while (cursor != null);
+        assertEquals(ids(propostas, null, recentes), todas);
+    }
+
+    private List<Long> percorrer(Usuario empresa, Licitacao licitacao, StatusProposta status, OrdemPropostas ordem) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            String atual = cursor;
+            PaginaResponse<PropostaResponse> pagina = comoUsuario(empresa,
+                () -> licitacaoService.listarPropostas(licitacao.getId(), FaseProposta.FASE_1, status, ordem, atual, PAGINA));
+            pagina.itens().forEach(p -> ids.add(p.id()));
+            cursor = pagina.proximoCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static List<Long> ids(List<Proposta> propostas, StatusProposta status, Comparator<Proposta> ordem) {
+        return propostas.stream()
+            .filter(p -> status == null || p.getStatus() == status)
+            .sorted(ordem)
+            .map(Proposta::getId)
+            .toList();
+    }
+}
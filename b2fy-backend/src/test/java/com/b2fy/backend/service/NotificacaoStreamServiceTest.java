@@ -0,0 +1,143 @@
+package com.b2fy.backend.service;
+
+import com.b2fy.backend.IntegracaoPostgresTest;
+import com.b2fy.backend.domain.Licitacao;
+import com.b2fy.backend.domain.Nicho;
+import com.b2fy.backend.domain.Notificacao;
+import com.b2fy.backend.domain.TipoNotificacao;
+import com.b2fy.backend.domain.TipoUsuario;
+import com.b2fy.backend.domain.Usuario;
+import com.b2fy.backend.repository.NotificacaoRepository;
+import com.b2fy.backend.security.JwtService;
+import com.b2fy.backend.util.CursorUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Stream SSE pelo endpoint: replay de Last-Event-ID até {@code limite-replay}, "resync" acima disso (sem replay
+ * parcial) e entrega de uma notificação gravada "em outro nó" só pelo sinal do NOTIFY, sem sondagem.
+ */
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "b2fy.notificacoes.stream.limite-replay=" + NotificacaoStreamServiceTest.LIMITE_REPLAY)
+class NotificacaoStreamServiceTest extends IntegracaoPostgresTest {
+
+    static final int LIMITE_REPLAY = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private NotificacaoService notificacaoService;
+
+    @Autowired
+    private NotificacaoRepository notificacaoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void replayDentroDoLimiteReenviaAsPerdidas() throws Exception {
+        Usuario fornecedor = fornecedorComNotificacoes(LIMITE_REPLAY);
+
+        String eventos = conteudo(conectar(fornecedor, CursorUtil.codificar(Instant.now().minus(Duration.ofHours(1)), 0L)));
+
+        assertEquals(LIMITE_REPLAY, contar(eventos, "event:notificacao"), eventos);
+        assertEquals(0, contar(eventos, "event:resync"), eventos);
+        assertTrue(eventos.contains("event:nao-lidas\ndata:{\"count\":" + LIMITE_REPLAY + "}"), eventos);
+    }
+
+    @Test
+    void replayAcimaDoLimiteMandaResyncComOCursorMaisRecente() throws Exception {
+        Usuario fornecedor = fornecedorComNotificacoes(LIMITE_REPLAY + 1);
+        Notificacao maisRecente = notificacaoRepository
+            .findByUsuarioIdOrderByCreatedAtDescIdDesc(fornecedor.getId(), Instant.EPOCH, PageRequest.of(0, 1))
+            .get(0);
+
+        String eventos = conteudo(conectar(fornecedor, CursorUtil.codificar(Instant.now().minus(Duration.ofHours(1)), 0L)));
+
+        assertEquals(0, contar(eventos, "event:notificacao"), eventos);
+        assertTrue(eventos.contains("id:" + CursorUtil.codificar(maisRecente.getCreatedAt(), maisRecente.getId()) + "\nevent:resync"), eventos);
+    }
+
+    @Test
+    void notificacaoDeOutroNoChegaPeloSinal() throws Exception {
+        Nicho nicho = novoNicho();
+        Licitacao licitacao = novaLicitacao(novaEmpresa(), nicho);
+        Usuario fornecedor = novoFornecedor(nicho);
+        MvcResult stream = conectar(fornecedor, null);
+
+        // gravada sem passar pelo NotificacaoService: este nó não recebe o evento local, só o NOTIFY
+        Notificacao n = new Notificacao();
+        n.setUsuario(fornecedor);
+        n.setLicitacao(licitacao);
+        n.setTipo(TipoNotificacao.LICITACAO_ABERTA);
+        n.setMensagem("Gravada em outro nó");
+        notificacaoRepository.save(n);
+
+        String esperado = "\"id\":" + n.getId() + ",";
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        // a escuta começa numa thread própria; repete o sinal até ela estar de pé
+        while (!conteudo(stream).contains(esperado) && System.nanoTime() < limite) {
+            jdbcTemplate.query("SELECT pg_notify('b2fy_notificacoes', ?)", (RowCallbackHandler) rs -> { }, "outro-no:" + fornecedor.getId());
+            Thread.sleep(200);
+        }
+
+        String eventos = conteudo(stream);
+        assertEquals(1, contar(eventos, esperado), eventos);
+        assertFalse(eventos.contains("event:resync"), eventos);
+    }
+
+    private Usuario fornecedorComNotificacoes(int quantidade) {
+        Nicho nicho = novoNicho();
+        Licitacao licitacao = novaLicitacao(novaEmpresa(), nicho);
+        Usuario fornecedor = novoFornecedor(nicho);
+        for (int i = 0; i < quantidade; i++) {
+            notificacaoService.criarLicitacaoAbertaEmLote(List.of(fornecedor.getId()), licitacao, "Nova licitação " + i);
+        }
+        return fornecedor;
+    }
+
+    private MvcResult conectar(Usuario usuario, String lastEventId) throws Exception {
+        String token = jwtService.generateToken(usuario.getId(), usuario.getEmail(), TipoUsuario.FORNECEDOR);
+        MockHttpServletRequestBuilder requisicao = get("/notificacoes/stream").header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        if (lastEventId != null) requisicao.header("Last-Event-ID", lastEventId);
+        return mockMvc.perform(requisicao).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private static String conteudo(MvcResult stream) throws Exception {
+        return stream.getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private static int contar(String texto, String trecho) {
+        Matcher m = Pattern.compile(Pattern.quote(trecho)).matcher(texto);
+        int total = 0;
+        while (m.find()) total++;
+        return total;
+    }
+}
@@ -4,7 +4,8 @@ import { Dropdown, DropdownItem } from '../ui/Dropdown'
 import { Avatar } from '../ui/Avatar'
 import { useAuth } from '../../context/AuthContext'
 import { api } from '../../services/api'
-import type { NotificacaoResponse } from '../../types/api'
+import { abrirStreamNotificacoes } from '../../services/notificacoesStream'
+import type { NotificacaoResponse, PaginaResponse } from '../../types/api'
 
 interface HeaderProps {
   isSidebarOpen: boolean
@@ -17,16 +18,28 @@ export function Header({ isSidebarOpen, onToggleSidebar }: Readonly<HeaderProps>
   const [notificacoes, setNotificacoes] = useState<NotificacaoResponse[]>([])
   const [notificacoesAbertas, setNotificacoesAbertas] = useState(false)
   const [countNaoLidas, setCountNaoLidas] = useState(0)
+  const [proximoCursor, setProximoCursor] = useState<string | null>(null)
   const refNotif = useRef<HTMLDivElement>(null)
 
   const carregarNotificacoes = () => {
-    api.get<NotificacaoResponse[]>('/notificacoes').then(setNotificacoes).catch(() => {})
+    api
+      .get<PaginaResponse<NotificacaoResponse>>('/notificacoes')
+      .then((pagina) => {
+        setNotificacoes(pagina.itens)
+        setProximoCursor(pagina.proximoCursor)
+      })
+      .catch(() => {})
     api.get<{ count: number }>('/notificacoes/nao-lidas').then((r) => setCountNaoLidas(r.count)).catch(() => {})
   }
 
   useEffect(() => {
     if (!user) return
     carregarNotificacoes()
+    return abrirStreamNotificacoes({
+      onNotificacao: (n) => setNotificacoes((prev) => (prev.some((x) => x.id === n.id) ? prev : [n, ...prev])),
+      onNaoLidas: setCountNaoLidas,
+      onResync: carregarNotificacoes,
+    })
   }, [user])
 
   useEffect(() => {
@@ -39,7 +52,24 @@ export function Header({ isSidebarOpen, onToggleSidebar }: Readonly<HeaderProps>
 
   const aoAbrirNotificacoes = () => {
     setNotificacoesAbertas((o) => !o)
-    if (!notificacoesAbertas) carregarNotificacoes()
+  }
+
+  const carregarMaisNotificacoes = () => {
+    if (!proximoCursor) return
+    api
+      .get<PaginaResponse<NotificacaoResponse>>(`/notificacoes?cursor=${encodeURIComponent(proximoCursor)}`)
+      .then((pagina) => {
+        setNotificacoes((prev) => [...prev, ...pagina.itens.filter((n) => !prev.some((x) => x.id === n.id))])
+        setProximoCursor(pagina.proximoCursor)
+      })
+      .catch(() => {})
+  }
+
+  const marcarTodasComoLidas = () => {
+    api.patch('/notificacoes/lidas').then(() => {
+      setCountNaoLidas(0)
+      setNotificacoes((prev) => prev.map((x) => ({ ...x, lida: true })))
+    }).catch(() => {})
   }
 
   const aoClicarNotificacao = (n: NotificacaoResponse) => {
@@ -102,8 +132,17 @@ export function Header({ isSidebarOpen, onToggleSidebar }: Readonly<HeaderProps>
           </button>
           {notificacoesAbertas && (
             <div className="absolute right-0 top-full z-50 mt-2 w-[320px] max-h-[400px] overflow-y-auto rounded-[var(--radius-sm)] border-2 border-[var(--color-border)] bg-[var(--color-surface)] shadow-[var(--shadow-lg)] py-2">
-              <div className="px-4 py-2 border-b border-[var(--color-border)]">
+              <div className="flex items-center justify-between px-4 py-2 border-b border-[var(--color-border)]">
                 <h3 className="text-sm font-semibold text-[var(--color-primary)]">Notificações</h3>
+                {countNaoLidas > 0 && (
+                  <button
+                    type="button"
+                    onClick={marcarTodasComoLidas}
+                    className="text-xs text-[var(--color-primary)] hover:underline"
+                  >
+                    Marcar todas como lidas
+                  </button>
+                )}
               </div>
               {notificacoes.length === 0 ? (
                 <p className="px-4 py-6 text-sm text-[var(--color-text-muted)] text-center">Nenhuma notificação.</p>
@@ -123,6 +162,15 @@ export function Header({ isSidebarOpen, onToggleSidebar }: Readonly<HeaderProps>
                   ))}
                 </ul>
               )}
+              {proximoCursor && (
+                <button
+                  type="button"
+                  onClick={carregarMaisNotificacoes}
+                  className="w-full px-4 py-2 text-xs text-center text-[var(--color-primary)] hover:bg-[var(--color-primary-pale)]"
+                >
+                  Carregar mais
+                </button>
+              )}
             </div>
           )}
         </div>
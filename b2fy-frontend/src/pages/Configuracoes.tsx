@@ -1,9 +1,66 @@
-import React from 'react'
+import React, { useEffect, useState } from 'react'
 import { Card, CardTitle, CardContent } from '../components/ui/Card'
+import { Button } from '../components/ui/Button'
+import { Input } from '../components/ui/Input'
 import { useSettings } from '../context/SettingsContext'
+import { useAuth } from '../context/AuthContext'
+import { api } from '../services/api'
+import type { BuscaSalvaResponse } from '../types/api'
+
+function BuscasSalvas() {
+  const [buscas, setBuscas] = useState<BuscaSalvaResponse[]>([])
+  const [termo, setTermo] = useState('')
+  const [erro, setErro] = useState('')
+
+  useEffect(() => {
+    api.get<BuscaSalvaResponse[]>('/buscas-salvas').then(setBuscas).catch(() => {})
+  }, [])
+
+  const salvar = (e: React.FormEvent) => {
+    e.preventDefault()
+    if (!termo.trim()) return
+    setErro('')
+    api
+      .post<BuscaSalvaResponse>('/buscas-salvas', { termo })
+      .then((b) => {
+        setBuscas((prev) => [b, ...prev])
+        setTermo('')
+      })
+      .catch((err: Error) => setErro(err.message))
+  }
+
+  const remover = (id: number) => {
+    api.delete(`/buscas-salvas/${id}`).then(() => setBuscas((prev) => prev.filter((b) => b.id !== id))).catch(() => {})
+  }
+
+  return (
+    <Card className="max-w-md mt-4 shadow-[var(--shadow)]">
+      <CardTitle>Buscas salvas</CardTitle>
+      <CardContent>
+        <p className="text-sm text-[var(--color-text-muted)] mb-2">
+          Receba uma notificação quando uma licitação nova tiver todas estas palavras, mesmo fora dos seus nichos.
+        </p>
+        <form onSubmit={salvar} className="flex items-end gap-2">
+          <Input label="Palavras" value={termo} onChange={(e) => setTermo(e.target.value)} maxLength={200} placeholder="ex.: notebook i7" />
+          <Button type="submit" size="sm">Salvar</Button>
+        </form>
+        {erro && <p className="mt-2 text-sm text-[var(--color-error)]">{erro}</p>}
+        <ul className="list-none m-0 p-0 mt-3">
+          {buscas.map((b) => (
+            <li key={b.id} className="flex items-center justify-between py-1 text-sm">
+              <span>{b.termo}</span>
+              <Button type="button" variant="ghost" size="sm" onClick={() => remover(b.id)}>Remover</Button>
+            </li>
+          ))}
+        </ul>
+      </CardContent>
+    </Card>
+  )
+}
 
 export function Configuracoes() {
   const { theme, setTheme, fontSize, setFontSize } = useSettings()
+  const { user } = useAuth()
 
   return (
     <div>
@@ -42,6 +99,7 @@ export function Configuracoes() {
           </div>
         </CardContent>
       </Card>
+      {user?.tipo === 'FORNECEDOR' && <BuscasSalvas />}
     </div>
   )
 }
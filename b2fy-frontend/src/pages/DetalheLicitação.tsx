@@ -1,4 +1,4 @@
-import React, { useEffect, useState } from 'react'
+import React, { useEffect, useRef, useState } from 'react'
 import { useParams, useNavigate } from 'react-router-dom'
 import { Button } from '../components/ui/Button'
 import { Card, CardTitle, CardContent } from '../components/ui/Card'
@@ -7,7 +7,7 @@ import { Toast } from '../components/ui/Toast'
 import { Input } from '../components/ui/Input'
 import { useAuth } from '../context/AuthContext'
 import { api } from '../services/api'
-import type { LicitacaoResponse, NichoResponse, PropostaResponse } from '../types/api'
+import type { LicitacaoResponse, NichoResponse, OrdemPropostas, PaginaResponse, PropostaResponse } from '../types/api'
 import type { NovaPropostaRequest } from '../types/api'
 
 const MIN_DAYS = 3
@@ -34,12 +34,16 @@ export function DetalheLicitação() {
   const { user, isEmpresa, isFornecedor } = useAuth()
   const [licitacao, setLicitacao] = useState<LicitacaoResponse | null>(null)
   const [propostas, setPropostas] = useState<PropostaResponse[]>([])
+  const [ordemPropostas, setOrdemPropostas] = useState<OrdemPropostas>('VALOR')
+  const [proximoCursorPropostas, setProximoCursorPropostas] = useState<string | null>(null)
   const [loading, setLoading] = useState(true)
   const [error, setError] = useState('')
   const [modalProposta, setModalProposta] = useState(false)
   const [descricaoProposta, setDescricaoProposta] = useState('')
   const [valorOrcamento, setValorOrcamento] = useState('')
   const [enviandoProposta, setEnviandoProposta] = useState(false)
+  // Mesma chave enquanto o envio não der certo: repetir após timeout devolve a proposta já criada
+  const chaveEnvioProposta = useRef<string | null>(null)
   const [segundaFase, setSegundaFase] = useState(false)
   const [propostaIdsSegundaFase, setPropostaIdsSegundaFase] = useState<number[]>([])
   const [enviandoSegundaFase, setEnviandoSegundaFase] = useState(false)
@@ -57,15 +61,22 @@ export function DetalheLicitação() {
     if (!id) return
     api
       .get<LicitacaoResponse>(`/licitacoes/${id}`)
-      .then((l) => {
-        setLicitacao(l)
-        if (isEmpresa) {
-          return api.get<PropostaResponse[]>(`/licitacoes/${id}/propostas`).then(setPropostas)
-        }
-      })
+      .then(setLicitacao)
       .catch((err) => setError(err instanceof Error ? err.message : 'Erro ao carregar'))
       .finally(() => setLoading(false))
-  }, [id, isEmpresa])
+  }, [id])
+
+  useEffect(() => {
+    if (!id || !isEmpresa) return
+    carregarPropostas().catch((err) => setError(err instanceof Error ? err.message : 'Erro ao carregar propostas'))
+  }, [id, isEmpresa, ordemPropostas])
+
+  async function carregarPropostas(cursor?: string) {
+    const params = `ordem=${ordemPropostas}${cursor ? `&cursor=${encodeURIComponent(cursor)}` : ''}`
+    const pagina = await api.get<PaginaResponse<PropostaResponse>>(`/licitacoes/${id}/propostas?${params}`)
+    setPropostas((prev) => (cursor ? [...prev, ...pagina.itens] : pagina.itens))
+    setProximoCursorPropostas(pagina.proximoCursor)
+  }
 
   useEffect(() => {
     if (modalEditar) {
@@ -118,8 +129,12 @@ export function DetalheLicitação() {
       descricaoProdutosServicos: descricaoProposta || undefined,
       valorOrcamento: valor,
     }
+    chaveEnvioProposta.current ??= crypto.randomUUID()
     try {
-      await api.post(`/licitacoes/${id}/propostas?segundaFase=${isSegundaFase}`, body)
+      await api.post(`/licitacoes/${id}/propostas?segundaFase=${isSegundaFase}`, body, true, {
+        'Idempotency-Key': chaveEnvioProposta.current,
+      })
+      chaveEnvioProposta.current = null
       setModalProposta(false)
       setDescricaoProposta('')
       setValorOrcamento('')
@@ -139,8 +154,7 @@ export function DetalheLicitação() {
       await api.post(`/licitacoes/${id}/ganhador`, { propostaId })
       const l = await api.get<LicitacaoResponse>(`/licitacoes/${id}`)
       setLicitacao(l)
-      const list = await api.get<PropostaResponse[]>(`/licitacoes/${id}/propostas`)
-      setPropostas(list)
+      await carregarPropostas()
     } catch (err) {
       setError(err instanceof Error ? err.message : 'Erro ao definir ganhador')
     }
@@ -153,8 +167,7 @@ export function DetalheLicitação() {
       await api.post(`/licitacoes/${id}/segunda-fase`, { propostaIds: propostaIdsSegundaFase })
       const l = await api.get<LicitacaoResponse>(`/licitacoes/${id}`)
       setLicitacao(l)
-      const list = await api.get<PropostaResponse[]>(`/licitacoes/${id}/propostas`)
-      setPropostas(list)
+      await carregarPropostas()
       setSegundaFase(false)
       setPropostaIdsSegundaFase([])
     } catch (err) {
@@ -215,7 +228,18 @@ export function DetalheLicitação() {
 
       {isEmpresa && licitacao.fase !== 'ENCERRADA' && (
         <>
-          <h2 className="text-lg font-bold text-[var(--color-primary)] mb-3">Propostas da fase atual</h2>
+          <div className="flex items-center justify-between gap-2 mb-3">
+            <h2 className="text-lg font-bold text-[var(--color-primary)]">Propostas da fase atual</h2>
+            <select
+              value={ordemPropostas}
+              onChange={(e) => setOrdemPropostas(e.target.value as OrdemPropostas)}
+              className="text-sm rounded-[var(--radius-sm)] border-2 border-[var(--color-border)] bg-[var(--color-surface)] px-2 py-1"
+              aria-label="Ordenar propostas"
+            >
+              <option value="VALOR">Menor valor</option>
+              <option value="RECENTES">Mais recentes</option>
+            </select>
+          </div>
           {faseAtualPropostas.length === 0 ? (
             <p className="text-[var(--color-text-muted)]">Nenhuma proposta ainda.</p>
           ) : (
@@ -245,6 +269,11 @@ export function DetalheLicitação() {
                   </CardContent>
                 </Card>
               ))}
+              {proximoCursorPropostas && (
+                <Button size="sm" variant="ghost" onClick={() => carregarPropostas(proximoCursorPropostas).catch(() => {})}>
+                  Carregar mais propostas
+                </Button>
+              )}
               {licitacao.fase === 'ABERTA' && propostaIdsSegundaFase.length > 0 && (
                 <div className="flex gap-2 items-center">
                   <Button onClick={irParaSegundaFase} disabled={enviandoSegundaFase}>
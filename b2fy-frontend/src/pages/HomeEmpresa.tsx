@@ -6,7 +6,7 @@ import { Button } from '../components/ui/Button'
 import { Card, CardTitle, CardContent } from '../components/ui/Card'
 import { Modal } from '../components/ui/Modal'
 import { api } from '../services/api'
-import type { DashboardEmpresaResponse, LicitacaoResponse } from '../types/api'
+import type { DashboardEmpresaResponse, LicitacaoResponse, PaginaResponse } from '../types/api'
 
 const faseLabel: Record<string, string> = {
   ABERTA: 'Aberta',
@@ -26,6 +26,8 @@ const CORES_PIZZA = ['#2A676E', '#81BFB4', '#E78330', '#16a34a', '#5a6c6a', '#c5
 
 export function HomeEmpresa() {
   const [licitacoes, setLicitacoes] = useState<LicitacaoResponse[]>([])
+  const [proximoCursor, setProximoCursor] = useState<string | null>(null)
+  const [carregandoMais, setCarregandoMais] = useState(false)
   const [dashboard, setDashboard] = useState<DashboardEmpresaResponse | null>(null)
   const [loading, setLoading] = useState(true)
   const [error, setError] = useState('')
@@ -34,17 +36,31 @@ export function HomeEmpresa() {
 
   useEffect(() => {
     Promise.all([
-      api.get<LicitacaoResponse[]>('/licitacoes/empresa'),
+      api.get<PaginaResponse<LicitacaoResponse>>('/licitacoes/empresa'),
       api.get<DashboardEmpresaResponse>('/dashboard/empresa'),
     ])
       .then(([lics, dash]) => {
-        setLicitacoes(lics)
+        setLicitacoes(lics.itens)
+        setProximoCursor(lics.proximoCursor)
         setDashboard(dash)
       })
       .catch((err) => setError(err instanceof Error ? err.message : 'Erro ao carregar'))
       .finally(() => setLoading(false))
   }, [])
 
+  const carregarMais = () => {
+    if (!proximoCursor) return
+    setCarregandoMais(true)
+    api
+      .get<PaginaResponse<LicitacaoResponse>>(`/licitacoes/empresa?cursor=${encodeURIComponent(proximoCursor)}`)
+      .then((pagina) => {
+        setLicitacoes((atual) => [...atual, ...pagina.itens])
+        setProximoCursor(pagina.proximoCursor)
+      })
+      .catch((err) => setError(err instanceof Error ? err.message : 'Erro ao carregar'))
+      .finally(() => setCarregandoMais(false))
+  }
+
   if (loading) return <div className="text-[var(--color-text-muted)] font-medium">Carregando licitações...</div>
   if (error) return <p className="text-[var(--color-error)] font-medium bg-[var(--color-error)]/10 px-4 py-3 rounded-[var(--radius-sm)]">{error}</p>
 
@@ -175,6 +191,13 @@ export function HomeEmpresa() {
           ))
         )}
       </div>
+      {proximoCursor && (
+        <div className="flex justify-center mt-6">
+          <Button variant="secondary" onClick={carregarMais} disabled={carregandoMais}>
+            {carregandoMais ? 'Carregando...' : 'Carregar mais'}
+          </Button>
+        </div>
+      )}
 
       <Modal open={modalHistorico} onClose={() => setModalHistorico(false)} title="Histórico de gastos" footer={<Button onClick={() => setModalHistorico(false)}>Fechar</Button>}>
         <p className="text-sm text-[var(--color-text-muted)] mb-4">Valor total gasto (com 10% da plataforma) por mês/ano.</p>
@@ -3,7 +3,7 @@ import { useNavigate } from 'react-router-dom'
 import { Button } from '../components/ui/Button'
 import { Card, CardTitle, CardContent } from '../components/ui/Card'
 import { api } from '../services/api'
-import type { LicitacaoResponse } from '../types/api'
+import type { LicitacaoResponse, PaginaResponse } from '../types/api'
 
 const faseLabel: Record<string, string> = {
   ABERTA: 'Aberta',
@@ -19,18 +19,36 @@ const faseBadgeClass: Record<string, string> = {
 
 export function HomeFornecedor() {
   const [licitacoes, setLicitacoes] = useState<LicitacaoResponse[]>([])
+  const [proximoCursor, setProximoCursor] = useState<string | null>(null)
+  const [carregandoMais, setCarregandoMais] = useState(false)
   const [loading, setLoading] = useState(true)
   const [error, setError] = useState('')
   const navigate = useNavigate()
 
   useEffect(() => {
     api
-      .get<LicitacaoResponse[]>('/licitacoes/fornecedor')
-      .then(setLicitacoes)
+      .get<PaginaResponse<LicitacaoResponse>>('/licitacoes/fornecedor')
+      .then((pagina) => {
+        setLicitacoes(pagina.itens)
+        setProximoCursor(pagina.proximoCursor)
+      })
       .catch((err) => setError(err instanceof Error ? err.message : 'Erro ao carregar'))
       .finally(() => setLoading(false))
   }, [])
 
+  const carregarMais = () => {
+    if (!proximoCursor) return
+    setCarregandoMais(true)
+    api
+      .get<PaginaResponse<LicitacaoResponse>>(`/licitacoes/fornecedor?cursor=${encodeURIComponent(proximoCursor)}`)
+      .then((pagina) => {
+        setLicitacoes((atual) => [...atual, ...pagina.itens])
+        setProximoCursor(pagina.proximoCursor)
+      })
+      .catch((err) => setError(err instanceof Error ? err.message : 'Erro ao carregar'))
+      .finally(() => setCarregandoMais(false))
+  }
+
   if (loading) return <div className="text-[var(--color-text-muted)] font-medium">Carregando licitações...</div>
   if (error) return <p className="text-[var(--color-error)] font-medium bg-[var(--color-error)]/10 px-4 py-3 rounded-[var(--radius-sm)]">{error}</p>
 
@@ -81,6 +99,13 @@ export function HomeFornecedor() {
           ))
         )}
       </div>
+      {proximoCursor && (
+        <div className="flex justify-center mt-6">
+          <Button variant="secondary" onClick={carregarMais} disabled={carregandoMais}>
+            {carregandoMais ? 'Carregando...' : 'Carregar mais'}
+          </Button>
+        </div>
+      )}
     </div>
   )
 }
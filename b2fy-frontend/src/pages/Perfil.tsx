@@ -6,7 +6,13 @@ import { Card } from '../components/ui/Card'
 import { api } from '../services/api'
 import { useAuth } from '../context/AuthContext'
 import type { UsuarioResponse, NichoResponse } from '../types/api'
-import type { AtualizarPerfilRequest } from '../types/api'
+import type { AtualizarPerfilRequest, PreferenciaEmail } from '../types/api'
+
+const OPCOES_PREFERENCIA_EMAIL: { valor: PreferenciaEmail; rotulo: string }[] = [
+  { valor: 'IMEDIATO', rotulo: 'A cada licitação' },
+  { valor: 'RESUMO_HORARIO', rotulo: 'Resumo por hora' },
+  { valor: 'RESUMO_DIARIO', rotulo: 'Resumo diário' },
+]
 
 export function Perfil() {
   const { user } = useAuth()
@@ -44,6 +50,7 @@ export function Perfil() {
     : nichosDisponiveis
 
   const [fotoPerfilUrl, setFotoPerfilUrl] = useState('')
+  const [preferenciaEmail, setPreferenciaEmail] = useState<PreferenciaEmail>('IMEDIATO')
   const [loading, setLoading] = useState(true)
   const [saving, setSaving] = useState(false)
   const [error, setError] = useState('')
@@ -62,6 +69,7 @@ export function Perfil() {
         setEstado(p.estado ?? '')
         setNichos(p.nichos ?? [])
         setFotoPerfilUrl(p.fotoPerfilUrl ?? '')
+        setPreferenciaEmail(p.preferenciaEmail ?? 'IMEDIATO')
       })
       .catch((err) => setError(err instanceof Error ? err.message : 'Erro ao carregar'))
       .finally(() => setLoading(false))
@@ -104,6 +112,7 @@ export function Perfil() {
       estado: estado || undefined,
       nichos,
       fotoPerfilUrl: fotoPerfilUrl || undefined,
+      preferenciaEmail,
     }
     try {
       await api.put('/usuarios/me', data)
@@ -138,6 +147,28 @@ export function Perfil() {
           <Input label="Endereço" value={endereco} onChange={(e) => setEndereco(e.target.value)} />
           <Input label="Estado (UF)" value={estado} onChange={(e) => setEstado(e.target.value)} maxLength={2} />
           <Input label="URL da foto de perfil" value={fotoPerfilUrl} onChange={(e) => setFotoPerfilUrl(e.target.value)} placeholder="https://..." />
+          {perfil.tipo === 'FORNECEDOR' && (
+            <fieldset>
+              <legend className="block text-sm font-semibold text-[var(--color-text)] mb-2">Emails de novas licitações</legend>
+              <div className="flex flex-wrap gap-4">
+                {OPCOES_PREFERENCIA_EMAIL.map((o) => (
+                  <label
+                    key={o.valor}
+                    className="flex items-center gap-2 cursor-pointer px-4 py-2.5 rounded-lg border-2 border-[#e5e5e5] hover:border-[var(--color-primary)] has-[:checked]:border-[var(--color-primary)] has-[:checked]:bg-[var(--color-primary-pale)] transition-colors"
+                  >
+                    <input
+                      type="radio"
+                      name="preferenciaEmail"
+                      checked={preferenciaEmail === o.valor}
+                      onChange={() => setPreferenciaEmail(o.valor)}
+                      className="accent-[var(--color-primary)]"
+                    />
+                    {o.rotulo}
+                  </label>
+                ))}
+              </div>
+            </fieldset>
+          )}
           <div ref={nichoInputRef}>
             <label className="block text-sm font-medium text-[var(--color-text)] mb-2">Nichos</label>
             <div className="flex gap-2 mb-2 relative">
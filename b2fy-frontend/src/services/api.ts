@@ -29,10 +29,10 @@ export const api = {
     const res = await fetch(API_BASE + path, { headers: getHeaders(auth) })
     return handleResponse<T>(res)
   },
-  async post<T>(path: string, body?: unknown, auth = true): Promise<T> {
+  async post<T>(path: string, body?: unknown, auth = true, extraHeaders?: Record<string, string>): Promise<T> {
     const res = await fetch(API_BASE + path, {
       method: 'POST',
-      headers: getHeaders(auth),
+      headers: { ...(getHeaders(auth) as Record<string, string>), ...extraHeaders },
       body: body ? JSON.stringify(body) : undefined,
     })
     return handleResponse<T>(res)
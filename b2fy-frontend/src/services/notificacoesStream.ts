@@ -0,0 +1,81 @@
+import { getStoredToken } from './api'
+import type { NotificacaoResponse } from '../types/api'
+
+interface StreamHandlers {
+  onNotificacao: (n: NotificacaoResponse) => void
+  onNaoLidas: (count: number) => void
+  /** O servidor não reenviou o que foi perdido (muitas pendentes): recarregar a caixa pela API. */
+  onResync: () => void
+}
+
+const RECONEXAO_PADRAO_MS = 3000
+const RECONEXAO_MAXIMA_MS = 60000
+
+/**
+ * Conecta em /notificacoes/stream (SSE) via fetch, já que EventSource não envia o header Authorization.
+ * Reconecta com backoff enviando Last-Event-ID, para o servidor reenviar o que foi perdido (ou pedir um resync).
+ * Retorna uma função que encerra o stream.
+ */
+export function abrirStreamNotificacoes(handlers: StreamHandlers): () => void {
+  const controller = new AbortController()
+  let lastEventId: string | null = null
+  let reconexaoMs = RECONEXAO_PADRAO_MS
+  let tentativas = 0
+
+  const processarEvento = (bloco: string) => {
+    let nome = 'message'
+    let id: string | null = null
+    const dados: string[] = []
+    for (const linha of bloco.split('\n')) {
+      if (linha.startsWith(':')) continue
+      const sep = linha.indexOf(':')
+      const campo = sep === -1 ? linha : linha.slice(0, sep)
+      const valor = sep === -1 ? '' : linha.slice(sep + 1).replace(/^ /, '')
+      if (campo === 'event') nome = valor
+      else if (campo === 'data') dados.push(valor)
+      else if (campo === 'id') id = valor
+      else if (campo === 'retry' && /^\d+$/.test(valor)) reconexaoMs = Number(valor)
+    }
+    if (id !== null) lastEventId = id
+    if (dados.length === 0) return
+    const payload = JSON.parse(dados.join('\n'))
+    if (nome === 'notificacao') handlers.onNotificacao(payload as NotificacaoResponse)
+    else if (nome === 'nao-lidas') handlers.onNaoLidas((payload as { count: number }).count)
+    else if (nome === 'resync') handlers.onResync()
+  }
+
+  const conectar = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        const headers: Record<string, string> = { Accept: 'text/event-stream' }
+        const token = getStoredToken()
+        if (token) headers['Authorization'] = `Bearer ${token}`
+        if (lastEventId) headers['Last-Event-ID'] = lastEventId
+        const res = await fetch('/api/notificacoes/stream', { headers, signal: controller.signal })
+        if (!res.ok || !res.body) throw new Error(res.statusText)
+        tentativas = 0
+        const reader = res.body.pipeThrough(new TextDecoderStream()).getReader()
+        let buffer = ''
+        for (;;) {
+          const { value, done } = await reader.read()
+          if (done) break
+          buffer += value.replace(/\r\n?/g, '\n')
+          let fim = buffer.indexOf('\n\n')
+          while (fim !== -1) {
+            processarEvento(buffer.slice(0, fim))
+            buffer = buffer.slice(fim + 2)
+            fim = buffer.indexOf('\n\n')
+          }
+        }
+      } catch {
+        if (controller.signal.aborted) return
+        tentativas++
+      }
+      const espera = Math.min(reconexaoMs * 2 ** tentativas, RECONEXAO_MAXIMA_MS)
+      await new Promise((resolve) => setTimeout(resolve, espera))
+    }
+  }
+
+  conectar()
+  return () => controller.abort()
+}
@@ -16,6 +16,7 @@ export interface LoginResponse {
   tipo: TipoUsuario
   fotoPerfilUrl: string | null
   nichos: string[]
+  preferenciaEmail: PreferenciaEmail
 }
 
 export interface RegistroRequest {
@@ -31,6 +32,8 @@ export interface RegistroRequest {
   nichos: string[]
 }
 
+export type PreferenciaEmail = 'IMEDIATO' | 'RESUMO_HORARIO' | 'RESUMO_DIARIO'
+
 export interface UsuarioResponse {
   id: number
   tipo: TipoUsuario
@@ -42,6 +45,7 @@ export interface UsuarioResponse {
   estado: string | null
   fotoPerfilUrl: string | null
   nichos: string[]
+  preferenciaEmail: PreferenciaEmail
 }
 
 export interface AtualizarPerfilRequest {
@@ -54,6 +58,7 @@ export interface AtualizarPerfilRequest {
   estado?: string
   nichos?: string[]
   fotoPerfilUrl?: string
+  preferenciaEmail?: PreferenciaEmail
 }
 
 export interface LicitacaoResponse {
@@ -71,6 +76,14 @@ export interface LicitacaoResponse {
   totalPropostasFaseAtual: number
 }
 
+export type OrdemPropostas = 'VALOR' | 'RECENTES'
+
+export interface PaginaResponse<T> {
+  itens: T[]
+  proximoCursor: string | null
+  total: number | null
+}
+
 export interface PropostaResponse {
   id: number
   fornecedorId: number
@@ -104,7 +117,7 @@ export interface NovaPropostaRequest {
   valorOrcamento: number
 }
 
-export type TipoNotificacao = 'LICITACAO_ABERTA' | 'SELECIONADO_2FASE' | 'GANHADOR'
+export type TipoNotificacao = 'LICITACAO_ABERTA' | 'SELECIONADO_2FASE' | 'GANHADOR' | 'BUSCA_SALVA' | 'PRAZO_ENCERRADO'
 
 export interface NotificacaoResponse {
   id: number
@@ -116,10 +129,17 @@ export interface NotificacaoResponse {
   createdAt: string
 }
 
+export interface BuscaSalvaResponse {
+  id: number
+  termo: string
+  createdAt: string
+}
+
 export interface DashboardEmpresaResponse {
   abertas: number
   segundaFase: number
   encerradas: number
+  desertas: number
   atrasadas: number
   porNicho: { nichoNome: string; quantidade: number }[]
   gastoMesAtual: number